@@ -0,0 +1,41 @@
+package frc.robot.Field;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Navgrid planning on the deployed grid: a cross-field query from scratch, and the incremental
+ * replan PathfindToPoseCommand does as the robot moves toward the same goal.
+ */
+@State(Scope.Thread)
+public class NavPlannerBenchmark {
+  private NavPlanner m_planner;
+  private long m_requestId = 0;
+  private int m_step = 0;
+
+  @Setup
+  public void setup() throws IOException {
+    File grid = new File(System.getProperty("frc.projectDir", "."), "src/main/deploy/" + NavGrid.kDeployPath);
+    m_planner = new NavPlanner(NavGrid.loadJson(grid));
+    m_planner.plan(m_requestId, 1.5, 4.0, 15.0, 4.0);
+  }
+
+  /** Blue side to red side; the goal alternates so every call is a full search. */
+  @Benchmark
+  public NavPath crossField() {
+    final boolean flip = (++m_requestId & 1) != 0;
+    return m_planner.plan(m_requestId, 1.5, 4.0, flip ? 15.0 : 15.0 - 0.5, flip ? 4.0 : 2.0);
+  }
+
+  /** Same goal, start moved along the way, as when replanning while driving. */
+  @Benchmark
+  public NavPath replan() {
+    m_step = (m_step + 1) % 20;
+    return m_planner.plan(++m_requestId, 1.5 + 0.25 * m_step, 4.0, 15.0, 4.0);
+  }
+}
@@ -0,0 +1,67 @@
+package frc.robot.SWERVE;
+
+import java.util.Optional;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/** Pose lookups for latency compensation, against a full 250 Hz history. */
+@State(Scope.Thread)
+public class PoseHistoryBenchmark {
+    private static final int kCapacity = 512;
+    private static final double kPeriod = 0.004;
+    /* lookup times spread over the stored window, cycled through by the read benchmarks */
+    private static final int kQueries = 1024;
+
+    private final PoseHistory m_history = new PoseHistory(kCapacity);
+    private final double[] m_queries = new double[kQueries];
+    private final double[] m_out = new double[3];
+    private double m_time = 0.0;
+    private int m_query = 0;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < kCapacity; ++i) {
+            addNext();
+        }
+        final double newest = m_history.getLatestTimestamp();
+        final Random random = new Random(42);
+        for (int i = 0; i < kQueries; ++i) {
+            m_queries[i] = newest - random.nextDouble() * (kCapacity - 8) * kPeriod;
+        }
+    }
+
+    /** Odometry-thread write. */
+    @Benchmark
+    public void add() {
+        addNext();
+    }
+
+    /** Allocation-free interpolated read. */
+    @Benchmark
+    public double[] sample() {
+        m_history.sample(nextQuery(), m_out);
+        return m_out;
+    }
+
+    /** Pose2d read, as used with vision measurements. */
+    @Benchmark
+    public Optional<Pose2d> getPose() {
+        return m_history.getPose(nextQuery());
+    }
+
+    private void addNext() {
+        m_time += kPeriod;
+        m_history.add(m_time, 2.0 + Math.cos(m_time), 4.0 + Math.sin(m_time), m_time * 0.5);
+    }
+
+    private double nextQuery() {
+        m_query = (m_query + 1) & (kQueries - 1);
+        return m_queries[m_query];
+    }
+}
@@ -0,0 +1,44 @@
+package frc.robot.SWERVE;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/** Swerve kinematics for our module layout (TunerConstants), both directions. */
+@State(Scope.Thread)
+public class SwerveKinematicsBenchmark {
+    private SwerveDriveKinematics m_kinematics;
+    private final ChassisSpeeds m_speeds = new ChassisSpeeds(3.0, 1.5, 2.0);
+    private SwerveModuleState[] m_states;
+
+    @Setup
+    public void setup() {
+        HAL.initialize(500, 0);
+        m_kinematics = new SwerveDriveKinematics(
+            new Translation2d(TunerConstants.FrontLeft.LocationX, TunerConstants.FrontLeft.LocationY),
+            new Translation2d(TunerConstants.FrontRight.LocationX, TunerConstants.FrontRight.LocationY),
+            new Translation2d(TunerConstants.BackLeft.LocationX, TunerConstants.BackLeft.LocationY),
+            new Translation2d(TunerConstants.BackRight.LocationX, TunerConstants.BackRight.LocationY));
+        m_states = m_kinematics.toSwerveModuleStates(m_speeds);
+    }
+
+    @Benchmark
+    public SwerveModuleState[] toModuleStates() {
+        m_speeds.omegaRadiansPerSecond = -m_speeds.omegaRadiansPerSecond;
+        SwerveModuleState[] states = m_kinematics.toSwerveModuleStates(m_speeds);
+        SwerveDriveKinematics.desaturateWheelSpeeds(states, TunerConstants.kSpeedAt12Volts);
+        return states;
+    }
+
+    @Benchmark
+    public ChassisSpeeds toChassisSpeeds() {
+        return m_kinematics.toChassisSpeeds(m_states);
+    }
+}
@@ -0,0 +1,58 @@
+package frc.robot.SWERVE;
+
+import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/** The odometry-thread callback, buffered (the robot's setup) and publishing directly. */
+@State(Scope.Thread)
+public class TelemetryBenchmark {
+    /* 0 = publish from the callback, otherwise buffered with NT at this rate */
+    @Param({"0", "50"})
+    public double ntRateHz;
+
+    private Telemetry m_telemetry;
+    private final SwerveDriveState m_state = new SwerveDriveState();
+
+    @Setup
+    public void setup() {
+        HAL.initialize(500, 0);
+        m_telemetry = new Telemetry(5.12, ntRateHz);
+
+        m_state.Pose = new Pose2d(3.0, 4.0, Rotation2d.fromDegrees(30.0));
+        m_state.Speeds = new ChassisSpeeds(1.5, -0.5, 0.8);
+        m_state.ModuleStates = new SwerveModuleState[4];
+        m_state.ModuleTargets = new SwerveModuleState[4];
+        m_state.ModulePositions = new SwerveModulePosition[4];
+        for (int i = 0; i < 4; ++i) {
+            m_state.ModuleStates[i] = new SwerveModuleState(2.0, Rotation2d.fromDegrees(10.0 * i));
+            m_state.ModuleTargets[i] = new SwerveModuleState(2.1, Rotation2d.fromDegrees(10.0 * i + 1.0));
+            m_state.ModulePositions[i] = new SwerveModulePosition(1.0 * i, Rotation2d.fromDegrees(10.0 * i));
+        }
+        m_state.OdometryPeriod = 0.004;
+    }
+
+    @TearDown
+    public void tearDown() {
+        SignalLogger.stop();
+    }
+
+    @Benchmark
+    public void telemeterize() {
+        m_state.Timestamp += 0.004;
+        m_telemetry.telemeterize(m_state);
+    }
+}
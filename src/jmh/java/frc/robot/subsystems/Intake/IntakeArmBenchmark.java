@@ -0,0 +1,40 @@
+package frc.robot.subsystems.Intake;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.hal.HAL;
+
+/**
+ * The arm's per-loop work under HAL simulation. Unit conversions happen on the TalonFX now
+ * (SensorToMechanismRatio), so what is left on the roboRIO is the input read, atGoal() and
+ * periodic().
+ */
+@State(Scope.Thread)
+public class IntakeArmBenchmark {
+  private IntakeArmSubsystem m_arm;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_arm = new IntakeArmSubsystem(new IntakeArmIOSim());
+    m_arm.setGoalDegrees(90.0);
+  }
+
+  @Benchmark
+  public double getDegrees() {
+    return m_arm.getDegrees();
+  }
+
+  @Benchmark
+  public boolean atGoal() {
+    return m_arm.atGoal();
+  }
+
+  @Benchmark
+  public void periodic() {
+    m_arm.periodic();
+  }
+}
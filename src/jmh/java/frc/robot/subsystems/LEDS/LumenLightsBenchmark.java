@@ -0,0 +1,44 @@
+package frc.robot.subsystems.LEDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.hal.HAL;
+import frc.robot.Constants.Constants;
+
+/**
+ * The LED paths, under HAL simulation: rendering and sending a changed base color to the PWM
+ * strip, and the per-loop state update against a device that runs its own animations.
+ */
+@State(Scope.Thread)
+public class LumenLightsBenchmark {
+  private AddressableLedDevice m_strip;
+  private LumenLightsSubsystem m_lights;
+  private int m_red = 0;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_strip = new AddressableLedDevice(
+        Constants.Lights.kLedPort, Constants.Lights.kLedLength, Constants.Lights.kRenderPeriodSeconds);
+    new LumenLightsSubsystem(m_strip);
+    // Render from the benchmark thread only
+    m_strip.stop();
+    m_lights = new LumenLightsSubsystem(new FakeLedDevice());
+    m_lights.bind(LedState.VISION_LOCK, () -> true);
+  }
+
+  @Benchmark
+  public void renderStrip() {
+    m_red = (m_red + 1) & 0xFF;
+    m_strip.show(0, 0.0, m_red << 16 | (255 - m_red), false);
+    m_strip.render();
+  }
+
+  @Benchmark
+  public void periodic() {
+    m_lights.periodic();
+  }
+}
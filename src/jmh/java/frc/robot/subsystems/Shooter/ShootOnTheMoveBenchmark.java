@@ -0,0 +1,43 @@
+package frc.robot.subsystems.Shooter;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Util.InterpolatingTable;
+
+/** One shoot-on-the-move solve per robot loop, over the deployed shot map. */
+@State(Scope.Thread)
+public class ShootOnTheMoveBenchmark {
+  private static final double kTargetX = 4.625;
+  private static final double kTargetY = 4.035;
+
+  private final InterpolatingTable m_table = new InterpolatingTable(2);
+  private final ShootOnTheMoveSolver m_solver = new ShootOnTheMoveSolver();
+  private double m_angle = 0.0;
+
+  @Setup
+  public void setup() throws IOException {
+    File file = new File(System.getProperty("frc.projectDir", "."), "src/main/deploy/" + ShooterConstants.kShotMapDeployPath);
+    for (JsonNode point : new ObjectMapper().readTree(file).get("points")) {
+      m_table.put(point.get("distance").asDouble(), point.get("rps").asDouble(), point.path("tof").asDouble(0.0));
+    }
+  }
+
+  /** Robot circling the target at 3 m, driving 3 m/s across the line of sight. */
+  @Benchmark
+  public double solve() {
+    m_angle += 0.01;
+    final double cos = Math.cos(m_angle), sin = Math.sin(m_angle);
+    m_solver.solve(kTargetX + 3.0 * cos, kTargetY + 3.0 * sin, -3.0 * sin, 3.0 * cos, kTargetX, kTargetY, m_table);
+    return m_solver.getHeading();
+  }
+}
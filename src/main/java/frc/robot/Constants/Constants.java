@@ -20,5 +20,9 @@ public final class Constants {
     public static final int kLedPort = 9;
     // Number of LEDs in the strip
     public static final int kLedLength = 60;
+    // How often the LED animations are rendered, on their own Notifier
+    public static final double kRenderPeriodSeconds = 0.02;
+    // Zone covering the strip in the Lumyn device's config; used instead of the PWM strip when found
+    public static final String kLumynZone = "main";
   }
 }
@@ -0,0 +1,42 @@
+package frc.robot.Constants;
+
+public final class FieldConstants {
+  private FieldConstants() {}
+
+  // Scoring targets (field coordinates, blue origin, meters). Index order is used by
+  // FieldGeometry.nearestTarget(). Measure these on the real field before trusting them.
+  public static final double[] kTargetX = {
+    4.625, // blue hub center
+    11.915, // red hub center
+  };
+  public static final double[] kTargetY = {
+    4.035,
+    4.035,
+  };
+
+  // Index into kTargetX/kTargetY of each alliance's own scoring target
+  public static final int kBlueTargetIndex = 0;
+  public static final int kRedTargetIndex = 1;
+
+  // Where to stand for a standing shot at each target (same index order), facing the target.
+  // Operator A / the "PathfindToShot" named command drive here.
+  public static final double[] kShotPoseX = {
+    2.625,
+    13.915,
+  };
+  public static final double[] kShotPoseY = {
+    4.035,
+    4.035,
+  };
+  public static final double[] kShotPoseDeg = {
+    0.0,
+    180.0,
+  };
+
+  // Bucket size for the tag/target spatial index
+  public static final double kIndexCellMeters = 2.0;
+
+  // Time both navgrid loaders (JSON and binary) at boot and report them under NavGrid/.
+  // Costs one extra JSON parse per boot, so only turn it on to take the numbers.
+  public static final boolean kMeasureNavGridLoad = false;
+}
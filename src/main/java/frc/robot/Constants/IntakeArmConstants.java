@@ -8,20 +8,38 @@ public final class IntakeArmConstants {
 
   // motorRotations = armRotations × kMotorRotationsPerArmRotation
   // 1:1 for now. If you later have 25:1 motor:arm, set to 25.0
+  // Used as the TalonFX SensorToMechanismRatio, so everything on the motor is in arm rotations
   public static final double kMotorRotationsPerArmRotation = 1.0;
 
-  // Editable setpoints (ARM/OUTPUT degrees)
+  // Editable setpoints (ARM/OUTPUT degrees); moving toward a larger angle counts as deploying
   public static final double kPosDegA = 0.0;
   public static final double kPosDegB = 90.0;
 
-  // Motion constraints at ARM/OUTPUT
-  public static final double kCruiseRps_Arm = 0.5;
-  public static final double kAccelRps2_Arm = 0.5;
+  // Arm angle (degrees) at which the arm is horizontal; kG is scaled by cos(angle - this)
+  public static final double kHorizontalDeg = 0.0;
 
-  // Tune these
+  // Feedforward at ARM/OUTPUT (volts, V per rps, V per rps²) from SysId; placeholders until characterized
+  public static final double kS = 0.15;
+  public static final double kG = 0.30; // default, tunable under Tuning/IntakeArm/kG
+  public static final double kV = 1.9;
+  public static final double kA = 0.05;
+
+  // Motion Magic Expo profile at ARM/OUTPUT. Expo kV/kA set how hard the profile pushes:
+  // the characterized kV/kA would be the physical limit, these leave some margin so it doesn't overshoot
+  public static final double kExpoKv = 2.4;
+  public static final double kExpoKa = 0.12;
+  // Cruise velocity cap, rps (0 = limited only by kExpoKv)
+  public static final double kCruiseRps_Arm = 2.0;
+
+  // Defaults; the live values are edited under Tuning/IntakeArm/ and persist on the roboRIO
   public static final double kP = 50.0;
   public static final double kI = 0.0;
-  public static final double kD = 0.0;
+  public static final double kD = 0.5;
 
   public static final double kToleranceDeg = 2.0;
+
+  // Simulation: pivot to intake center of mass, and the hard stops (ARM/OUTPUT degrees)
+  public static final double kSimArmLengthMeters = 0.35;
+  public static final double kSimMinDeg = -5.0;
+  public static final double kSimMaxDeg = 95.0;
 }
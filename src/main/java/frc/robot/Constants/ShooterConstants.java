@@ -0,0 +1,50 @@
+package frc.robot.Constants;
+
+public final class ShooterConstants {
+  private ShooterConstants() {}
+
+  public static final int kMotorId = 30;
+
+  // Flywheel model, in volts per motor rps (and per rps/s). Characterize with SysId and
+  // replace these; kV = 0.12 matches the old Slot0 feedforward.
+  public static final double kS = 0.20;
+  public static final double kV = 0.12;
+  public static final double kA = 0.015;
+
+  // LQR weights: how much speed error (rps) we tolerate vs how much voltage we are willing to use
+  public static final double kLqrVelocityToleranceRps = 0.8;
+  public static final double kLqrMaxVoltage = 12.0;
+  // Kalman filter: trust in the model vs trust in the encoder (rps)
+  public static final double kModelStdDevRps = 3.0;
+  public static final double kEncoderStdDevRps = 0.05;
+  // Expected loop period and measurement delay for the state-space loop
+  public static final double kLoopPeriodSeconds = 0.020;
+  public static final double kMeasurementDelaySeconds = 0.010;
+
+  // isReady(): within this much of the target for at least the dwell time
+  public static final double kReadyToleranceRps = 1.5;
+  public static final double kReadyDwellSeconds = 0.08;
+
+  // A dip this far below target while ready counts as a shot (for the recovery metrics)
+  public static final double kShotDetectDropRps = 3.0;
+  // How many recent shots the consistency numbers cover
+  public static final int kShotHistory = 16;
+
+  // Shot map: measured (distance, rps, time of flight) points, in the deploy directory.
+  // Placeholder points until it is calibrated on the field (see ShotMapSubsystem).
+  public static final String kShotMapDeployPath = "shotmap.json";
+  // Calibrated map, in the operating directory (/home/lvuser on the robot) so deploys don't
+  // overwrite it; loaded instead of the deployed one when it exists
+  public static final String kShotMapCalibratedPath = "shotmap-calibrated.json";
+  // A recorded point replaces any existing point closer than this, meters
+  public static final double kShotMapMergeDistance = 0.1;
+
+  // Shoot on the move: predict the robot this far ahead (loop + CAN + mechanism latency),
+  // and stop iterating once the virtual target moves less than the tolerance
+  public static final double kSotmLatencySeconds = 0.06;
+  public static final int kSotmMaxIterations = 8;
+  public static final double kSotmToleranceMeters = 0.01;
+  // Shooter direction relative to the robot's front, radians, CCW positive (0 = shoots out the
+  // front, pi/2 = out the left side)
+  public static final double kShooterHeadingOffsetRadians = 0.0;
+}
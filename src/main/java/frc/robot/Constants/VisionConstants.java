@@ -0,0 +1,63 @@
+package frc.robot.Constants;
+
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.util.Units;
+
+public final class VisionConstants {
+  private VisionConstants() {}
+
+  // Camera names as configured on the PhotonVision server. Add an entry (and a matching
+  // transform below) per camera; each one gets its own worker thread.
+  public static final String[] kCameraNames = {
+    "PhotonVision Cam1",
+  };
+
+  // Robot center -> camera lens, in meters/radians (x forward, y left, z up)
+  public static final Transform3d[] kRobotToCameras = {
+    new Transform3d(
+        Units.inchesToMeters(10.0), 0.0, Units.inchesToMeters(8.0),
+        new Rotation3d(0.0, Units.degreesToRadians(-20.0), 0.0)),
+  };
+
+  // How often each camera worker checks for unread results
+  public static final double kPollPeriodSeconds = 0.005;
+
+  // Estimates waiting for the main loop; oldest are dropped when full
+  public static final int kQueueCapacity = 32;
+  // Upper bound on estimates fused per loop, so a backlog can't blow the loop budget
+  public static final int kMaxEstimatesPerLoop = 8;
+
+  /* Measurement gating */
+
+  // Single-tag results above this pose ambiguity are discarded
+  public static final double kMaxAmbiguity = 0.2;
+  // Single-tag results farther than this (m) are discarded
+  public static final double kMaxSingleTagDistance = 4.0;
+  // Frames taken while spinning faster than this (rad/s) are discarded (motion blur)
+  public static final double kMaxAngularVelocity = 2.0 * Math.PI;
+  // Poses this far (m) outside the field perimeter are discarded
+  public static final double kFieldBorderMargin = 0.5;
+  // Reject when the innovation against the odometry pose exceeds this many std devs
+  public static final double kMaxInnovationSigma = 3.0;
+  // Assumed odometry drift (m) added to the measurement std dev when gating
+  public static final double kOdometryDriftStdDev = 0.15;
+  // After this many innovation rejects in a row trust vision again (we may have been bumped)
+  public static final int kMaxConsecutiveInnovationRejects = 25;
+
+  /* Adaptive standard deviations: base * distance^2 / tagCount * (1 + speedScale * speed) */
+  public static final double kXyStdDevCoefficient = 0.02;
+  public static final double kThetaStdDevCoefficient = 0.06;
+  // Heading from a single tag is poor; effectively let the gyro own it
+  public static final double kSingleTagThetaStdDev = 1e3;
+  public static final double kSpeedStdDevScale = 0.5; // per m/s
+  // Floors for the above (m, rad), however close the tags are
+  public static final double kMinXyStdDev = 0.05;
+  public static final double kMinThetaStdDev = 0.05;
+
+  // Estimates captured within this window (s) of each other are fused into one measurement
+  public static final double kFusionWindowSeconds = 0.015;
+
+  // hasLock() stays true this long (s) after the last accepted estimate
+  public static final double kLockHoldSeconds = 0.5;
+}
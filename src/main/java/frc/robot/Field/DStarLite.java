@@ -0,0 +1,285 @@
+package frc.robot.Field;
+
+import java.util.Arrays;
+
+/**
+ * D* Lite incremental shortest paths over an 8-connected {@link NavGrid}.
+ *
+ * <p>The search runs backwards from the goal, so when cells become blocked or free (or the robot
+ * moves) only the affected part of the search is repaired instead of starting over. Diagonal moves
+ * may not cut the corner of a blocked cell.
+ *
+ * <p>All state lives in primitive arrays sized to the grid, with an indexed binary heap for the
+ * open list. Not thread-safe; owned by {@link NavPathfinder}'s planner thread.
+ */
+class DStarLite {
+  private static final double kInf = Double.POSITIVE_INFINITY;
+  private static final double kSqrt2 = Math.sqrt(2.0);
+  private static final int[] kDCol = {1, -1, 0, 0, 1, 1, -1, -1};
+  private static final int[] kDRow = {0, 0, 1, -1, 1, -1, 1, -1};
+
+  private final NavGrid m_grid;
+  private final int m_cols;
+  private final int m_rows;
+  private final double m_node;
+
+  private final double[] m_g;
+  private final double[] m_rhs;
+
+  /* Open list: heap of cell ids, with each cell's key and position in the heap */
+  private final int[] m_heap;
+  private final int[] m_heapPos;
+  private final double[] m_key1;
+  private final double[] m_key2;
+  private int m_heapSize = 0;
+
+  private int m_start = -1;
+  private int m_goal = -1;
+  private int m_lastStart = -1;
+  private double m_km = 0.0;
+
+  private long m_expansions = 0;
+
+  DStarLite(NavGrid grid) {
+    m_grid = grid;
+    m_cols = grid.getCols();
+    m_rows = grid.getRows();
+    m_node = grid.getNodeSize();
+    int n = m_cols * m_rows;
+    m_g = new double[n];
+    m_rhs = new double[n];
+    m_heap = new int[n];
+    m_heapPos = new int[n];
+    m_key1 = new double[n];
+    m_key2 = new double[n];
+  }
+
+  /** Starts a fresh search towards a new goal cell. */
+  void reset(int start, int goal) {
+    Arrays.fill(m_g, kInf);
+    Arrays.fill(m_rhs, kInf);
+    Arrays.fill(m_heapPos, -1);
+    m_heapSize = 0;
+    m_km = 0.0;
+    m_start = start;
+    m_lastStart = start;
+    m_goal = goal;
+    m_rhs[goal] = 0.0;
+    push(goal, heuristic(start, goal), 0.0);
+  }
+
+  int getGoal() {
+    return m_goal;
+  }
+
+  /** Moves the search start (the robot) without invalidating the previous search. */
+  void moveStart(int start) {
+    if (start == m_start) return;
+    m_km += heuristic(m_lastStart, start);
+    m_lastStart = start;
+    m_start = start;
+  }
+
+  /** Call after a cell's blocked state changed; repairs the affected vertices. */
+  void cellChanged(int cell) {
+    final int col = cell % m_cols;
+    final int row = cell / m_cols;
+    updateVertex(cell);
+    for (int d = 0; d < 8; ++d) {
+      final int c = col + kDCol[d], r = row + kDRow[d];
+      if (c >= 0 && r >= 0 && c < m_cols && r < m_rows) {
+        updateVertex(r * m_cols + c);
+      }
+    }
+  }
+
+  /** Runs (or repairs) the search until the start cell is consistent. */
+  void computeShortestPath() {
+    while (m_heapSize > 0) {
+      final int u = m_heap[0];
+      final double k1 = m_key1[u], k2 = m_key2[u];
+      final double sMin = Math.min(m_g[m_start], m_rhs[m_start]);
+      final double s1 = sMin + m_km, s2 = sMin;
+      if (!(less(k1, k2, s1, s2) || m_rhs[m_start] != m_g[m_start])) break;
+
+      ++m_expansions;
+      final double uMin = Math.min(m_g[u], m_rhs[u]);
+      final double n1 = uMin + heuristic(m_start, u) + m_km, n2 = uMin;
+      if (less(k1, k2, n1, n2)) {
+        updateKey(u, n1, n2);
+      } else if (m_g[u] > m_rhs[u]) {
+        m_g[u] = m_rhs[u];
+        remove(u);
+        updateNeighbors(u);
+      } else {
+        m_g[u] = kInf;
+        updateVertex(u);
+        updateNeighbors(u);
+      }
+    }
+  }
+
+  /** Cost-to-goal of the start cell; infinite if unreachable. */
+  double getStartCost() {
+    return m_g[m_start];
+  }
+
+  /**
+   * Walks down the cost gradient from the start cell to the goal.
+   *
+   * @param outCells receives the cell ids, start first
+   * @return number of cells, or 0 if there is no path
+   */
+  int extractPath(int[] outCells) {
+    if (m_g[m_start] == kInf) return 0;
+    int n = 0;
+    int s = m_start;
+    outCells[n++] = s;
+    while (s != m_goal && n < outCells.length) {
+      final int col = s % m_cols, row = s / m_cols;
+      int best = -1;
+      double bestCost = kInf;
+      for (int d = 0; d < 8; ++d) {
+        final int c = col + kDCol[d], r = row + kDRow[d];
+        final double edge = cost(col, row, c, r);
+        if (edge == kInf) continue;
+        final double total = edge + m_g[r * m_cols + c];
+        if (total < bestCost) {
+          bestCost = total;
+          best = r * m_cols + c;
+        }
+      }
+      if (best < 0) return 0;
+      s = best;
+      outCells[n++] = s;
+    }
+    return s == m_goal ? n : 0;
+  }
+
+  long getExpansions() {
+    return m_expansions;
+  }
+
+  private void updateNeighbors(int u) {
+    final int col = u % m_cols, row = u / m_cols;
+    for (int d = 0; d < 8; ++d) {
+      final int c = col + kDCol[d], r = row + kDRow[d];
+      if (c >= 0 && r >= 0 && c < m_cols && r < m_rows) {
+        updateVertex(r * m_cols + c);
+      }
+    }
+  }
+
+  private void updateVertex(int u) {
+    if (u != m_goal) {
+      final int col = u % m_cols, row = u / m_cols;
+      double best = kInf;
+      for (int d = 0; d < 8; ++d) {
+        final int c = col + kDCol[d], r = row + kDRow[d];
+        final double edge = cost(col, row, c, r);
+        if (edge == kInf) continue;
+        best = Math.min(best, edge + m_g[r * m_cols + c]);
+      }
+      m_rhs[u] = best;
+    }
+    final boolean queued = m_heapPos[u] >= 0;
+    if (m_g[u] != m_rhs[u]) {
+      final double m = Math.min(m_g[u], m_rhs[u]);
+      final double k1 = m + heuristic(m_start, u) + m_km;
+      if (queued) {
+        updateKey(u, k1, m);
+      } else {
+        push(u, k1, m);
+      }
+    } else if (queued) {
+      remove(u);
+    }
+  }
+
+  /* Edge cost between adjacent cells; infinite if either is blocked or a diagonal cuts a corner */
+  private double cost(int c0, int r0, int c1, int r1) {
+    if (m_grid.isBlocked(c0, r0) || m_grid.isBlocked(c1, r1)) return kInf;
+    if (c0 != c1 && r0 != r1) {
+      if (m_grid.isBlocked(c1, r0) || m_grid.isBlocked(c0, r1)) return kInf;
+      return kSqrt2 * m_node;
+    }
+    return m_node;
+  }
+
+  /* Octile distance, admissible for 8-connected moves */
+  private double heuristic(int a, int b) {
+    final int dc = Math.abs(a % m_cols - b % m_cols);
+    final int dr = Math.abs(a / m_cols - b / m_cols);
+    return m_node * (Math.max(dc, dr) + (kSqrt2 - 1.0) * Math.min(dc, dr));
+  }
+
+  private static boolean less(double a1, double a2, double b1, double b2) {
+    return a1 < b1 || (a1 == b1 && a2 < b2);
+  }
+
+  /* ---- indexed binary heap ---- */
+
+  private void push(int u, double k1, double k2) {
+    m_key1[u] = k1;
+    m_key2[u] = k2;
+    m_heap[m_heapSize] = u;
+    m_heapPos[u] = m_heapSize;
+    siftUp(m_heapSize++);
+  }
+
+  private void updateKey(int u, double k1, double k2) {
+    final boolean up = less(k1, k2, m_key1[u], m_key2[u]);
+    m_key1[u] = k1;
+    m_key2[u] = k2;
+    if (up) {
+      siftUp(m_heapPos[u]);
+    } else {
+      siftDown(m_heapPos[u]);
+    }
+  }
+
+  private void remove(int u) {
+    final int i = m_heapPos[u];
+    m_heapPos[u] = -1;
+    final int last = m_heap[--m_heapSize];
+    if (i == m_heapSize) return;
+    m_heap[i] = last;
+    m_heapPos[last] = i;
+    siftUp(i);
+    siftDown(m_heapPos[last]);
+  }
+
+  private void siftUp(int i) {
+    final int u = m_heap[i];
+    while (i > 0) {
+      final int parent = (i - 1) >>> 1;
+      final int p = m_heap[parent];
+      if (!less(m_key1[u], m_key2[u], m_key1[p], m_key2[p])) break;
+      m_heap[i] = p;
+      m_heapPos[p] = i;
+      i = parent;
+    }
+    m_heap[i] = u;
+    m_heapPos[u] = i;
+  }
+
+  private void siftDown(int i) {
+    final int u = m_heap[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= m_heapSize) break;
+      final int right = child + 1;
+      if (right < m_heapSize
+          && less(m_key1[m_heap[right]], m_key2[m_heap[right]], m_key1[m_heap[child]], m_key2[m_heap[child]])) {
+        child = right;
+      }
+      final int c = m_heap[child];
+      if (!less(m_key1[c], m_key2[c], m_key1[u], m_key2[u])) break;
+      m_heap[i] = c;
+      m_heapPos[c] = i;
+      i = child;
+    }
+    m_heap[i] = u;
+    m_heapPos[u] = i;
+  }
+}
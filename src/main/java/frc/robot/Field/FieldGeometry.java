@@ -0,0 +1,186 @@
+package frc.robot.Field;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.robot.Constants.FieldConstants;
+
+/**
+ * Field geometry built once at startup: AprilTag poses and scoring targets in flat primitive
+ * arrays with a bucket index over each, plus the navgrid for line-of-sight checks.
+ *
+ * <p>Answers the questions vision, aiming and auto-align keep asking every loop (which tags can a
+ * camera see from here, which target is closest) without allocating. Queries share scratch
+ * arrays, so only call from the main robot thread.
+ */
+public class FieldGeometry {
+  /* Ray-cast to a point this far in front of the tag so the tag's own wall cell doesn't block it */
+  private static final double kTagFaceOffset = 0.05;
+
+  private final NavGrid m_navGrid;
+
+  private final int m_tagCount;
+  private final int[] m_tagId;
+  private final double[] m_tagX;
+  private final double[] m_tagY;
+  private final double[] m_tagZ;
+  /* unit vector the tag faces, in the field plane */
+  private final double[] m_tagNx;
+  private final double[] m_tagNy;
+  private final int[] m_indexOfId;
+  private final PointIndex m_tagIndex;
+
+  private final double[] m_targetX;
+  private final double[] m_targetY;
+  private final PointIndex m_targetIndex;
+
+  private final int[] m_scratch;
+
+  public FieldGeometry(AprilTagFieldLayout layout, NavGrid navGrid, double[] targetX, double[] targetY) {
+    m_navGrid = navGrid;
+
+    List<AprilTag> tags = layout.getTags();
+    m_tagCount = tags.size();
+    m_tagId = new int[m_tagCount];
+    m_tagX = new double[m_tagCount];
+    m_tagY = new double[m_tagCount];
+    m_tagZ = new double[m_tagCount];
+    m_tagNx = new double[m_tagCount];
+    m_tagNy = new double[m_tagCount];
+    int maxId = 0;
+    for (int i = 0; i < m_tagCount; ++i) {
+      AprilTag tag = tags.get(i);
+      double yaw = tag.pose.getRotation().getZ();
+      m_tagId[i] = tag.ID;
+      m_tagX[i] = tag.pose.getX();
+      m_tagY[i] = tag.pose.getY();
+      m_tagZ[i] = tag.pose.getZ();
+      m_tagNx[i] = Math.cos(yaw);
+      m_tagNy[i] = Math.sin(yaw);
+      maxId = Math.max(maxId, tag.ID);
+    }
+    m_indexOfId = new int[maxId + 1];
+    Arrays.fill(m_indexOfId, -1);
+    for (int i = 0; i < m_tagCount; ++i) {
+      m_indexOfId[m_tagId[i]] = i;
+    }
+
+    double length = layout.getFieldLength();
+    double width = layout.getFieldWidth();
+    m_tagIndex = new PointIndex(m_tagX, m_tagY, FieldConstants.kIndexCellMeters, length, width);
+
+    m_targetX = targetX.clone();
+    m_targetY = targetY.clone();
+    m_targetIndex = new PointIndex(m_targetX, m_targetY, FieldConstants.kIndexCellMeters, length, width);
+
+    m_scratch = new int[Math.max(1, m_tagCount)];
+  }
+
+  /**
+   * Builds the geometry from the given tag layout, the deployed navgrid and the targets in
+   * {@link FieldConstants}. If the navgrid can't be read, line-of-sight checks see an empty field.
+   */
+  public static FieldGeometry load(AprilTagFieldLayout layout) {
+    if (FieldConstants.kMeasureNavGridLoad) {
+      NavGrid.measureDeployedLoad();
+    }
+    NavGrid grid;
+    try {
+      grid = NavGrid.loadDeployed();
+    } catch (IOException e) {
+      DriverStation.reportWarning("FieldGeometry: could not load navgrid, assuming no obstacles: " + e.getMessage(), false);
+      double node = 0.3;
+      int cols = (int) Math.ceil(layout.getFieldLength() / node);
+      int rows = (int) Math.ceil(layout.getFieldWidth() / node);
+      grid = new NavGrid(cols, rows, node, layout.getFieldLength(), layout.getFieldWidth(), new long[(cols * rows + 63) >>> 6]);
+    }
+    return new FieldGeometry(layout, grid, FieldConstants.kTargetX, FieldConstants.kTargetY);
+  }
+
+  /**
+   * Finds the tags a camera can see: within range and horizontal field of view, facing the
+   * camera, and not hidden behind a navgrid obstacle.
+   *
+   * @param camX       Camera x on the field, meters
+   * @param camY       Camera y on the field, meters
+   * @param camYaw     Camera heading on the field, radians
+   * @param halfFov    Half the horizontal field of view, radians
+   * @param maxRange   Farthest useful tag distance, meters
+   * @param outTagIds  Receives the fiducial ids of the visible tags
+   * @return number of ids written
+   */
+  public int visibleTags(double camX, double camY, double camYaw, double halfFov, double maxRange, int[] outTagIds) {
+    final int candidates = m_tagIndex.queryRadius(camX, camY, maxRange, m_scratch);
+    int n = 0;
+    for (int k = 0; k < candidates && n < outTagIds.length; ++k) {
+      final int i = m_scratch[k];
+      final double dx = m_tagX[i] - camX;
+      final double dy = m_tagY[i] - camY;
+
+      /* tag must face the camera */
+      if (dx * m_tagNx[i] + dy * m_tagNy[i] >= 0) continue;
+      /* and be inside the horizontal FOV */
+      if (Math.abs(MathUtil.angleModulus(Math.atan2(dy, dx) - camYaw)) > halfFov) continue;
+      if (!m_navGrid.hasLineOfSight(
+          camX, camY, m_tagX[i] + m_tagNx[i] * kTagFaceOffset, m_tagY[i] + m_tagNy[i] * kTagFaceOffset)) {
+        continue;
+      }
+      outTagIds[n++] = m_tagId[i];
+    }
+    return n;
+  }
+
+  /** @return fiducial id of the closest tag, or -1 if there are none */
+  public int nearestTag(double x, double y) {
+    final int i = m_tagIndex.nearest(x, y);
+    return i < 0 ? -1 : m_tagId[i];
+  }
+
+  /** @return index of the closest scoring target, or -1 if there are none */
+  public int nearestTarget(double x, double y) {
+    return m_targetIndex.nearest(x, y);
+  }
+
+  public int getTargetCount() {
+    return m_targetX.length;
+  }
+
+  public double getTargetX(int index) {
+    return m_targetX[index];
+  }
+
+  public double getTargetY(int index) {
+    return m_targetY[index];
+  }
+
+  /** True if no navgrid obstacle lies between the two points. */
+  public boolean hasLineOfSight(double x0, double y0, double x1, double y1) {
+    return m_navGrid.hasLineOfSight(x0, y0, x1, y1);
+  }
+
+  /** @return array index of the tag, or -1 if the id is not on this field */
+  public int tagIndexOf(int tagId) {
+    return tagId >= 0 && tagId < m_indexOfId.length ? m_indexOfId[tagId] : -1;
+  }
+
+  public double getTagX(int tagId) {
+    return m_tagX[tagIndexOf(tagId)];
+  }
+
+  public double getTagY(int tagId) {
+    return m_tagY[tagIndexOf(tagId)];
+  }
+
+  public double getTagZ(int tagId) {
+    return m_tagZ[tagIndexOf(tagId)];
+  }
+
+  public NavGrid getNavGrid() {
+    return m_navGrid;
+  }
+}
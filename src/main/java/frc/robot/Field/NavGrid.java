@@ -0,0 +1,285 @@
+package frc.robot.Field;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * PathPlanner navgrid occupancy, stored as a bitset (one bit per node, row-major, x = column).
+ *
+ * <p>The JSON in deploy/pathplanner/navgrid.json is the source of truth. The build also writes a
+ * bit-packed copy next to it (navgrid.bin, see the generateNavGridBinary task in build.gradle),
+ * which is what the robot normally loads at boot. Cells outside the grid count as blocked.
+ *
+ * <p>Binary layout, big-endian: magic "NGRD", format version, cols, rows (ints); node size, field
+ * length, field width (doubles); CRC32 of the JSON it was generated from (long); word count and a
+ * reserved int; then the occupancy words (longs), exactly as {@link #getBits()}.
+ *
+ * <p>The build regenerates the binary whenever the JSON changes, so the CRC is only there to catch
+ * a JSON edited or deployed on its own. The size alone can't: moving an obstacle usually flips as
+ * many cells to true as to false, and the file stays the same length. Checking the CRC reads the
+ * JSON's raw bytes (a few KB) but doesn't parse them, which is the cost the binary avoids.
+ */
+public class NavGrid {
+  public static final String kDeployPath = "pathplanner/navgrid.json";
+  public static final String kBinaryDeployPath = "pathplanner/navgrid.bin";
+
+  public static final int kBinaryMagic = 0x4E475244; // "NGRD"
+  public static final int kBinaryVersion = 3;
+  public static final int kBinaryHeaderBytes = 56;
+
+  private final int m_cols;
+  private final int m_rows;
+  private final double m_nodeSize;
+  private final double m_fieldLength;
+  private final double m_fieldWidth;
+  private final long[] m_bits;
+
+  public NavGrid(int cols, int rows, double nodeSize, double fieldLength, double fieldWidth, long[] bits) {
+    m_cols = cols;
+    m_rows = rows;
+    m_nodeSize = nodeSize;
+    m_fieldLength = fieldLength;
+    m_fieldWidth = fieldWidth;
+    m_bits = bits;
+  }
+
+  /**
+   * Loads the navgrid from the deploy directory: the binary copy if it is there and was built from
+   * the deployed JSON, the JSON otherwise.
+   */
+  public static NavGrid loadDeployed() throws IOException {
+    File json = new File(Filesystem.getDeployDirectory(), kDeployPath);
+    File binary = new File(Filesystem.getDeployDirectory(), kBinaryDeployPath);
+    if (binary.isFile()) {
+      try {
+        return loadBinary(binary, json.isFile() ? crc32Of(json) : -1);
+      } catch (IOException e) {
+        DriverStation.reportWarning("NavGrid: " + e.getMessage() + ", falling back to JSON", false);
+      }
+    }
+    return loadJson(json);
+  }
+
+  /**
+   * Memory-maps a navgrid.bin file and copies the occupancy words out of it.
+   *
+   * @param expectedJsonCrc CRC32 of the source JSON, or -1 to skip the staleness check
+   * @throws IOException if the file is truncated, has the wrong format, or is stale
+   */
+  public static NavGrid loadBinary(File file, long expectedJsonCrc) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      if (channel.size() < kBinaryHeaderBytes) {
+        throw new IOException(file.getName() + " is truncated");
+      }
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buf.order(ByteOrder.BIG_ENDIAN);
+      if (buf.getInt() != kBinaryMagic || buf.getInt() != kBinaryVersion) {
+        throw new IOException(file.getName() + " has an unknown format");
+      }
+      int cols = buf.getInt();
+      int rows = buf.getInt();
+      double nodeSize = buf.getDouble();
+      double fieldLength = buf.getDouble();
+      double fieldWidth = buf.getDouble();
+      long jsonCrc = buf.getLong();
+      int words = buf.getInt();
+      buf.getInt(); // reserved
+      if (expectedJsonCrc >= 0 && jsonCrc != expectedJsonCrc) {
+        throw new IOException(file.getName() + " is stale (JSON changed since it was generated)");
+      }
+      if (cols < 0 || rows < 0 || words != (rows * cols + 63) >>> 6
+          || channel.size() < kBinaryHeaderBytes + 8L * words) {
+        throw new IOException(file.getName() + " is truncated");
+      }
+      long[] bits = new long[words];
+      buf.asLongBuffer().get(bits);
+      return new NavGrid(cols, rows, nodeSize, fieldLength, fieldWidth, bits);
+    }
+  }
+
+  /**
+   * Loads the deployed navgrid both ways and reports parse time and bytes allocated for each to
+   * NT (NavGrid/) and the log. Meant for a one-off check at startup; the JSON parse it does is
+   * exactly the cost the binary format avoids.
+   */
+  public static void measureDeployedLoad() {
+    File json = new File(Filesystem.getDeployDirectory(), kDeployPath);
+    File binary = new File(Filesystem.getDeployDirectory(), kBinaryDeployPath);
+    NetworkTable table = NetworkTableInstance.getDefault().getTable("NavGrid");
+    try {
+      long alloc = allocatedBytes();
+      long start = System.nanoTime();
+      NavGrid grid = loadJson(json);
+      double jsonMs = (System.nanoTime() - start) * 1e-6;
+      long jsonAlloc = allocatedBytes() - alloc;
+      table.getEntry("JsonLoadMs").setDouble(jsonMs);
+      table.getEntry("JsonAllocBytes").setInteger(jsonAlloc);
+      table.getEntry("GridBytes").setInteger(8L * grid.getBits().length);
+      DataLogManager.log(String.format(
+          "NavGrid: JSON %d bytes on disk, %.2f ms, %d bytes allocated",
+          json.length(), jsonMs, jsonAlloc));
+
+      if (binary.isFile()) {
+        alloc = allocatedBytes();
+        start = System.nanoTime();
+        loadBinary(binary, crc32Of(json));
+        double binaryMs = (System.nanoTime() - start) * 1e-6;
+        long binaryAlloc = allocatedBytes() - alloc;
+        table.getEntry("BinaryLoadMs").setDouble(binaryMs);
+        table.getEntry("BinaryAllocBytes").setInteger(binaryAlloc);
+        DataLogManager.log(String.format(
+            "NavGrid: binary %d bytes on disk, %.2f ms, %d bytes allocated",
+            binary.length(), binaryMs, binaryAlloc));
+      }
+    } catch (IOException e) {
+      DriverStation.reportWarning("NavGrid: load measurement failed: " + e.getMessage(), false);
+    }
+  }
+
+  /** CRC32 of a file's bytes, as stored in the binary header. */
+  public static long crc32Of(File file) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(Files.readAllBytes(file.toPath()));
+    return crc.getValue();
+  }
+
+  /* Bytes allocated by this thread so far, or 0 if the JVM can't tell */
+  private static long allocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean) {
+      return bean.getCurrentThreadAllocatedBytes();
+    }
+    return 0;
+  }
+
+  /** Parses a PathPlanner navgrid.json file. */
+  public static NavGrid loadJson(File file) throws IOException {
+    JsonNode root = new ObjectMapper().readTree(file);
+    double fieldLength = root.get("field_size").get("x").asDouble();
+    double fieldWidth = root.get("field_size").get("y").asDouble();
+    double nodeSize = root.get("nodeSizeMeters").asDouble();
+    JsonNode grid = root.get("grid");
+
+    int rows = grid.size();
+    int cols = rows > 0 ? grid.get(0).size() : 0;
+    long[] bits = new long[(rows * cols + 63) >>> 6];
+    for (int r = 0; r < rows; ++r) {
+      JsonNode row = grid.get(r);
+      for (int c = 0; c < cols; ++c) {
+        if (row.get(c).asBoolean()) {
+          int i = r * cols + c;
+          bits[i >>> 6] |= 1L << i;
+        }
+      }
+    }
+    return new NavGrid(cols, rows, nodeSize, fieldLength, fieldWidth, bits);
+  }
+
+  public int getCols() {
+    return m_cols;
+  }
+
+  public int getRows() {
+    return m_rows;
+  }
+
+  public double getNodeSize() {
+    return m_nodeSize;
+  }
+
+  public double getFieldLength() {
+    return m_fieldLength;
+  }
+
+  public double getFieldWidth() {
+    return m_fieldWidth;
+  }
+
+  /** Raw occupancy words; bit (row * cols + col) is set when blocked. Do not modify. */
+  public long[] getBits() {
+    return m_bits;
+  }
+
+  public boolean isBlocked(int col, int row) {
+    if (col < 0 || row < 0 || col >= m_cols || row >= m_rows) return true;
+    int i = row * m_cols + col;
+    return (m_bits[i >>> 6] & (1L << i)) != 0;
+  }
+
+  public void setBlocked(int col, int row, boolean blocked) {
+    if (col < 0 || row < 0 || col >= m_cols || row >= m_rows) return;
+    int i = row * m_cols + col;
+    if (blocked) {
+      m_bits[i >>> 6] |= 1L << i;
+    } else {
+      m_bits[i >>> 6] &= ~(1L << i);
+    }
+  }
+
+  public int colOf(double x) {
+    return (int) Math.floor(x / m_nodeSize);
+  }
+
+  public int rowOf(double y) {
+    return (int) Math.floor(y / m_nodeSize);
+  }
+
+  public boolean isBlockedAt(double x, double y) {
+    return isBlocked(colOf(x), rowOf(y));
+  }
+
+  /**
+   * Walks the cells crossed by the segment (Amanatides-Woo grid traversal) and checks that none
+   * are blocked. The cells containing the two end points are not checked, so a ray can start or
+   * end on an obstacle face (e.g. a tag on a wall).
+   */
+  public boolean hasLineOfSight(double x0, double y0, double x1, double y1) {
+    int col = colOf(x0);
+    int row = rowOf(y0);
+    final int endCol = colOf(x1);
+    final int endRow = rowOf(y1);
+    final double dx = x1 - x0;
+    final double dy = y1 - y0;
+    final int stepCol = dx > 0 ? 1 : -1;
+    final int stepRow = dy > 0 ? 1 : -1;
+
+    /* parametric distance (0..1 along the segment) to the next column / row boundary */
+    final double tDeltaX = dx != 0 ? Math.abs(m_nodeSize / dx) : Double.POSITIVE_INFINITY;
+    final double tDeltaY = dy != 0 ? Math.abs(m_nodeSize / dy) : Double.POSITIVE_INFINITY;
+    double tMaxX = dx != 0
+        ? ((dx > 0 ? (col + 1) * m_nodeSize : col * m_nodeSize) - x0) / dx
+        : Double.POSITIVE_INFINITY;
+    double tMaxY = dy != 0
+        ? ((dy > 0 ? (row + 1) * m_nodeSize : row * m_nodeSize) - y0) / dy
+        : Double.POSITIVE_INFINITY;
+
+    final int maxSteps = Math.abs(endCol - col) + Math.abs(endRow - row);
+    for (int i = 0; i < maxSteps; ++i) {
+      if (tMaxX < tMaxY) {
+        col += stepCol;
+        tMaxX += tDeltaX;
+      } else {
+        row += stepRow;
+        tMaxY += tDeltaY;
+      }
+      if (col == endCol && row == endRow) return true;
+      if (isBlocked(col, row)) return false;
+    }
+    return true;
+  }
+}
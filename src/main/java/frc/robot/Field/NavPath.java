@@ -0,0 +1,57 @@
+package frc.robot.Field;
+
+/**
+ * A smoothed, any-angle path produced by {@link NavPathfinder}: a polyline of field waypoints
+ * from the requested start to the requested goal. Immutable.
+ */
+public final class NavPath {
+  private final long m_requestId;
+  private final double[] m_x;
+  private final double[] m_y;
+  private final double m_length;
+  private final double m_planMillis;
+
+  NavPath(long requestId, double[] x, double[] y, double planMillis) {
+    m_requestId = requestId;
+    m_x = x;
+    m_y = y;
+    m_planMillis = planMillis;
+    double length = 0.0;
+    for (int i = 1; i < x.length; ++i) {
+      length += Math.hypot(x[i] - x[i - 1], y[i] - y[i - 1]);
+    }
+    m_length = length;
+  }
+
+  /** Id returned by the {@link NavPathfinder#requestPath} call that produced this path. */
+  public long getRequestId() {
+    return m_requestId;
+  }
+
+  public int size() {
+    return m_x.length;
+  }
+
+  public double getX(int i) {
+    return m_x[i];
+  }
+
+  public double getY(int i) {
+    return m_y[i];
+  }
+
+  /** Path length in meters. */
+  public double getLength() {
+    return m_length;
+  }
+
+  /** Time the planner spent on this path, in milliseconds. */
+  public double getPlanMillis() {
+    return m_planMillis;
+  }
+
+  /** True if the goal could not be reached (the path is empty). */
+  public boolean isEmpty() {
+    return m_x.length == 0;
+  }
+}
@@ -0,0 +1,141 @@
+package frc.robot.Field;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * Plans drive paths over the navgrid on a background thread.
+ *
+ * <p>{@link #requestPath} only records the request and wakes the planner thread, so it is safe to
+ * call every loop; if several requests arrive while a plan is running, only the newest is planned.
+ * The finished path is picked up with {@link #getLatestPath()}. Since the planner keeps its
+ * {@link DStarLite} search between requests to the same goal, replanning as the robot moves or as
+ * dynamic obstacles change costs a fraction of a fresh search.
+ */
+public class NavPathfinder {
+  private final NavPlanner m_planner;
+  private final Thread m_thread;
+
+  /* Pending work, guarded by this */
+  private long m_nextRequestId = 0;
+  private boolean m_hasRequest = false;
+  private long m_requestId;
+  private double m_sx, m_sy, m_gx, m_gy;
+  private boolean m_hasObstacles = false;
+  private double[] m_obstacleX = new double[0];
+  private double[] m_obstacleY = new double[0];
+  private int m_obstacleCount = 0;
+  private double m_obstacleRadius = 0.0;
+
+  private volatile NavPath m_latestPath = null;
+
+  private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("Pathfinder");
+  private final DoublePublisher m_planMsPub = m_table.getDoubleTopic("PlanMs").publish();
+  private final IntegerPublisher m_expansionsPub = m_table.getIntegerTopic("Expansions").publish();
+  private final DoublePublisher m_lengthPub = m_table.getDoubleTopic("Length").publish();
+  /* x0, y0, x1, y1, ... */
+  private final DoubleArrayPublisher m_waypointsPub = m_table.getDoubleArrayTopic("Waypoints").publish();
+
+  public NavPathfinder(NavGrid grid) {
+    m_planner = new NavPlanner(grid);
+    m_thread = new Thread(this::run, "NavPathfinder");
+    m_thread.setDaemon(true);
+    m_thread.start();
+  }
+
+  /**
+   * Asks for a path from (sx, sy) to (gx, gy), replacing any request not yet started.
+   *
+   * @return id that the resulting {@link NavPath#getRequestId()} will carry
+   */
+  public synchronized long requestPath(double sx, double sy, double gx, double gy) {
+    m_requestId = ++m_nextRequestId;
+    m_sx = sx;
+    m_sy = sy;
+    m_gx = gx;
+    m_gy = gy;
+    m_hasRequest = true;
+    notifyAll();
+    return m_requestId;
+  }
+
+  /**
+   * Replaces the dynamic obstacles (e.g. robots seen by vision), each a disc of the given radius.
+   * Applied before the next plan.
+   */
+  public synchronized void setDynamicObstacles(double[] xs, double[] ys, int count, double radius) {
+    if (m_obstacleX.length < count) {
+      m_obstacleX = new double[count];
+      m_obstacleY = new double[count];
+    }
+    System.arraycopy(xs, 0, m_obstacleX, 0, count);
+    System.arraycopy(ys, 0, m_obstacleY, 0, count);
+    m_obstacleCount = count;
+    m_obstacleRadius = radius;
+    m_hasObstacles = true;
+  }
+
+  /** The most recently finished path, or null if nothing has been planned yet. */
+  public NavPath getLatestPath() {
+    return m_latestPath;
+  }
+
+  private void run() {
+    double[] obstacleX = new double[0];
+    double[] obstacleY = new double[0];
+    double[] waypoints = new double[0];
+    while (!Thread.currentThread().isInterrupted()) {
+      long requestId;
+      double sx, sy, gx, gy;
+      int obstacleCount = -1;
+      double obstacleRadius = 0.0;
+      synchronized (this) {
+        while (!m_hasRequest) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        m_hasRequest = false;
+        requestId = m_requestId;
+        sx = m_sx;
+        sy = m_sy;
+        gx = m_gx;
+        gy = m_gy;
+        if (m_hasObstacles) {
+          m_hasObstacles = false;
+          if (obstacleX.length < m_obstacleCount) {
+            obstacleX = new double[m_obstacleX.length];
+            obstacleY = new double[m_obstacleY.length];
+          }
+          System.arraycopy(m_obstacleX, 0, obstacleX, 0, m_obstacleCount);
+          System.arraycopy(m_obstacleY, 0, obstacleY, 0, m_obstacleCount);
+          obstacleCount = m_obstacleCount;
+          obstacleRadius = m_obstacleRadius;
+        }
+      }
+
+      if (obstacleCount >= 0) {
+        m_planner.setDynamicObstacles(obstacleX, obstacleY, obstacleCount, obstacleRadius);
+      }
+      NavPath path = m_planner.plan(requestId, sx, sy, gx, gy);
+      m_latestPath = path;
+
+      if (waypoints.length != 2 * path.size()) {
+        waypoints = new double[2 * path.size()];
+      }
+      for (int i = 0; i < path.size(); ++i) {
+        waypoints[2 * i] = path.getX(i);
+        waypoints[2 * i + 1] = path.getY(i);
+      }
+      m_planMsPub.set(path.getPlanMillis());
+      m_expansionsPub.set(m_planner.getExpansions());
+      m_lengthPub.set(path.getLength());
+      m_waypointsPub.set(waypoints);
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package frc.robot.Field;
+
+import java.util.Arrays;
+
+/**
+ * Single-threaded planning core: owns a working copy of the navgrid (static obstacles plus the
+ * current dynamic obstacles), a {@link DStarLite} search, and the any-angle smoothing.
+ *
+ * <p>Replanning to the same goal reuses the previous search, so moving the start or toggling a
+ * few dynamic obstacle cells only repairs the affected part. Use through {@link NavPathfinder}
+ * on the robot; used directly by benchmarks.
+ */
+public class NavPlanner {
+  /* How far (in cells) to look for a free cell when the start or goal sits on an obstacle */
+  private static final int kSnapRadius = 6;
+
+  private final NavGrid m_static;
+  private final NavGrid m_grid;
+  private final long[] m_dynamic;
+  private final long[] m_nextDynamic;
+  private final DStarLite m_search;
+
+  private final int[] m_cells;
+  private final double[] m_px;
+  private final double[] m_py;
+
+  public NavPlanner(NavGrid staticGrid) {
+    m_static = staticGrid;
+    m_grid = new NavGrid(
+        staticGrid.getCols(), staticGrid.getRows(), staticGrid.getNodeSize(),
+        staticGrid.getFieldLength(), staticGrid.getFieldWidth(), staticGrid.getBits().clone());
+    m_dynamic = new long[m_grid.getBits().length];
+    m_nextDynamic = new long[m_grid.getBits().length];
+    m_search = new DStarLite(m_grid);
+
+    int n = m_grid.getCols() * m_grid.getRows();
+    m_cells = new int[n];
+    m_px = new double[n + 2];
+    m_py = new double[n + 2];
+  }
+
+  /**
+   * Replaces the set of dynamic obstacles (e.g. other robots), each a disc of the given radius.
+   * Only cells whose state actually changes are fed to the incremental search.
+   */
+  public void setDynamicObstacles(double[] xs, double[] ys, int count, double radius) {
+    Arrays.fill(m_nextDynamic, 0L);
+    final int cols = m_grid.getCols(), rows = m_grid.getRows();
+    final double node = m_grid.getNodeSize();
+    final int reach = (int) Math.ceil(radius / node);
+    for (int k = 0; k < count; ++k) {
+      final int cc = m_grid.colOf(xs[k]), cr = m_grid.rowOf(ys[k]);
+      for (int r = cr - reach; r <= cr + reach; ++r) {
+        for (int c = cc - reach; c <= cc + reach; ++c) {
+          if (c < 0 || r < 0 || c >= cols || r >= rows) continue;
+          final double dx = (c + 0.5) * node - xs[k], dy = (r + 0.5) * node - ys[k];
+          if (dx * dx + dy * dy > (radius + 0.5 * node) * (radius + 0.5 * node)) continue;
+          final int i = r * cols + c;
+          m_nextDynamic[i >>> 6] |= 1L << i;
+        }
+      }
+    }
+
+    final boolean searching = m_search.getGoal() >= 0;
+    for (int w = 0; w < m_dynamic.length; ++w) {
+      long changed = m_dynamic[w] ^ m_nextDynamic[w];
+      m_dynamic[w] = m_nextDynamic[w];
+      while (changed != 0) {
+        final int bit = Long.numberOfTrailingZeros(changed);
+        changed &= changed - 1;
+        final int i = (w << 6) + bit;
+        final int c = i % cols, r = i / cols;
+        m_grid.setBlocked(c, r, m_static.isBlocked(c, r) || (m_dynamic[w] & (1L << bit)) != 0);
+        if (searching) {
+          m_search.cellChanged(i);
+        }
+      }
+    }
+  }
+
+  /**
+   * Plans from (sx, sy) to (gx, gy).
+   *
+   * @return the smoothed path, or an empty path if the goal can't be reached
+   */
+  public NavPath plan(long requestId, double sx, double sy, double gx, double gy) {
+    final long startNanos = System.nanoTime();
+    final int start = snapToFree(sx, sy);
+    final int goal = snapToFree(gx, gy);
+    if (start < 0 || goal < 0) {
+      return new NavPath(requestId, new double[0], new double[0], (System.nanoTime() - startNanos) * 1e-6);
+    }
+
+    if (goal != m_search.getGoal()) {
+      m_search.reset(start, goal);
+    } else {
+      m_search.moveStart(start);
+    }
+    m_search.computeShortestPath();
+    final int count = m_search.extractPath(m_cells);
+    if (count == 0) {
+      return new NavPath(requestId, new double[0], new double[0], (System.nanoTime() - startNanos) * 1e-6);
+    }
+
+    /* cell centers, with the exact start and goal at the ends when they are in free cells */
+    final int cols = m_grid.getCols();
+    final double node = m_grid.getNodeSize();
+    for (int i = 0; i < count; ++i) {
+      m_px[i] = (m_cells[i] % cols + 0.5) * node;
+      m_py[i] = (m_cells[i] / cols + 0.5) * node;
+    }
+    if (!m_grid.isBlockedAt(sx, sy)) {
+      m_px[0] = sx;
+      m_py[0] = sy;
+    }
+    if (!m_grid.isBlockedAt(gx, gy)) {
+      m_px[count - 1] = gx;
+      m_py[count - 1] = gy;
+    }
+
+    return smooth(requestId, count, startNanos);
+  }
+
+  /** Search work done so far (vertex expansions), for profiling. */
+  public long getExpansions() {
+    return m_search.getExpansions();
+  }
+
+  /* Any-angle smoothing: keep only the points where line of sight from the last kept point breaks */
+  private NavPath smooth(long requestId, int count, long startNanos) {
+    int kept = 1;
+    int anchor = 0;
+    final int[] keep = m_cells; // cell ids are no longer needed; reuse as index scratch
+    keep[0] = 0;
+    for (int i = 1; i < count - 1; ++i) {
+      if (!m_grid.hasLineOfSight(m_px[anchor], m_py[anchor], m_px[i + 1], m_py[i + 1])) {
+        keep[kept++] = i;
+        anchor = i;
+      }
+    }
+    if (count > 1) {
+      keep[kept++] = count - 1;
+    }
+
+    final double[] x = new double[kept];
+    final double[] y = new double[kept];
+    for (int i = 0; i < kept; ++i) {
+      x[i] = m_px[keep[i]];
+      y[i] = m_py[keep[i]];
+    }
+    return new NavPath(requestId, x, y, (System.nanoTime() - startNanos) * 1e-6);
+  }
+
+  /* Cell id for the point, or the closest free cell within kSnapRadius; -1 if none */
+  private int snapToFree(double x, double y) {
+    final int col = m_grid.colOf(x), row = m_grid.rowOf(y);
+    if (!m_grid.isBlocked(col, row)) return row * m_grid.getCols() + col;
+
+    int best = -1;
+    int bestD2 = Integer.MAX_VALUE;
+    for (int r = row - kSnapRadius; r <= row + kSnapRadius; ++r) {
+      for (int c = col - kSnapRadius; c <= col + kSnapRadius; ++c) {
+        if (m_grid.isBlocked(c, r)) continue;
+        final int d2 = (c - col) * (c - col) + (r - row) * (r - row);
+        if (d2 < bestD2) {
+          bestD2 = d2;
+          best = r * m_grid.getCols() + c;
+        }
+      }
+    }
+    return best;
+  }
+}
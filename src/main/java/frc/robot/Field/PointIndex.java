@@ -0,0 +1,116 @@
+package frc.robot.Field;
+
+/**
+ * Uniform-grid bucket index over a fixed set of 2D points, stored compressed (cell start offsets
+ * plus a flat item array). Built once; queries don't allocate.
+ */
+final class PointIndex {
+  private final double[] m_x;
+  private final double[] m_y;
+  private final double m_cellSize;
+  private final int m_cols;
+  private final int m_rows;
+  private final int[] m_cellStart;
+  private final int[] m_items;
+
+  PointIndex(double[] xs, double[] ys, double cellSize, double length, double width) {
+    m_x = xs;
+    m_y = ys;
+    m_cellSize = cellSize;
+    m_cols = Math.max(1, (int) Math.ceil(length / cellSize));
+    m_rows = Math.max(1, (int) Math.ceil(width / cellSize));
+
+    int cells = m_cols * m_rows;
+    int[] counts = new int[cells + 1];
+    int[] cellOf = new int[xs.length];
+    for (int i = 0; i < xs.length; ++i) {
+      cellOf[i] = cellIndex(clampCol(xs[i]), clampRow(ys[i]));
+      counts[cellOf[i] + 1]++;
+    }
+    for (int c = 0; c < cells; ++c) {
+      counts[c + 1] += counts[c];
+    }
+    m_cellStart = counts.clone();
+    m_items = new int[xs.length];
+    int[] fill = counts;
+    for (int i = 0; i < xs.length; ++i) {
+      m_items[fill[cellOf[i]]++] = i;
+    }
+  }
+
+  /**
+   * Collects every point within {@code radius} of (x, y).
+   *
+   * @return number of indices written to {@code out}
+   */
+  int queryRadius(double x, double y, double radius, int[] out) {
+    final int c0 = clampCol(x - radius), c1 = clampCol(x + radius);
+    final int r0 = clampRow(y - radius), r1 = clampRow(y + radius);
+    final double r2 = radius * radius;
+    int n = 0;
+    for (int r = r0; r <= r1; ++r) {
+      for (int c = c0; c <= c1; ++c) {
+        final int cell = cellIndex(c, r);
+        for (int k = m_cellStart[cell]; k < m_cellStart[cell + 1]; ++k) {
+          final int i = m_items[k];
+          final double dx = m_x[i] - x, dy = m_y[i] - y;
+          if (dx * dx + dy * dy <= r2 && n < out.length) {
+            out[n++] = i;
+          }
+        }
+      }
+    }
+    return n;
+  }
+
+  /**
+   * Finds the closest point to (x, y), searching rings of cells outward from the query cell.
+   *
+   * @return index of the closest point, or -1 if the index is empty
+   */
+  int nearest(double x, double y) {
+    final int qc = clampCol(x), qr = clampRow(y);
+    final int maxRing = Math.max(m_cols, m_rows);
+    int best = -1;
+    double bestD2 = Double.POSITIVE_INFINITY;
+    for (int ring = 0; ring <= maxRing; ++ring) {
+      for (int r = qr - ring; r <= qr + ring; ++r) {
+        if (r < 0 || r >= m_rows) continue;
+        final boolean edgeRow = r == qr - ring || r == qr + ring;
+        for (int c = qc - ring; c <= qc + ring; c += edgeRow ? 1 : 2 * ring) {
+          if (c >= 0 && c < m_cols) {
+            final int cell = cellIndex(c, r);
+            for (int k = m_cellStart[cell]; k < m_cellStart[cell + 1]; ++k) {
+              final int i = m_items[k];
+              final double dx = m_x[i] - x, dy = m_y[i] - y;
+              final double d2 = dx * dx + dy * dy;
+              if (d2 < bestD2) {
+                bestD2 = d2;
+                best = i;
+              }
+            }
+          }
+          if (ring == 0) break;
+        }
+      }
+      /* anything in the next ring is at least ring * cellSize away */
+      if (best >= 0) {
+        final double bound = ring * m_cellSize;
+        if (bestD2 <= bound * bound) break;
+      }
+    }
+    return best;
+  }
+
+  private int clampCol(double x) {
+    return Math.min(m_cols - 1, Math.max(0, (int) Math.floor(x / m_cellSize)));
+  }
+
+  private int clampRow(double y) {
+    return Math.min(m_rows - 1, Math.max(0, (int) Math.floor(y / m_cellSize)));
+  }
+
+  private int cellIndex(int col, int row) {
+    return row * m_cols + col;
+  }
+}
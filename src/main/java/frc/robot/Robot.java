@@ -9,8 +9,19 @@ import com.ctre.phoenix6.HootAutoReplay;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Sim.SimBattery;
+import frc.robot.Util.DeviceConfigService;
+import frc.robot.Util.GcMonitor;
+import frc.robot.Util.InputLogger;
+import frc.robot.Util.LoopProfiler;
+import frc.robot.Util.MotorOutput;
+import frc.robot.Util.NtBudget;
+import frc.robot.Util.SignalRegistry;
+import frc.robot.Util.TunableNumber;
 
 public class Robot extends TimedRobot {
+    private static final int kSchedulerProfile = LoopProfiler.register("CommandScheduler.run");
+
     private Command m_autonomousCommand;
 
     private final RobotContainer m_robotContainer;
@@ -21,26 +32,57 @@ public class Robot extends TimedRobot {
         .withJoystickReplay();
 
     public Robot() {
-        m_robotContainer = new RobotContainer();
+        /* hook the scheduler before anything can schedule a command */
+        LoopProfiler.start(getPeriod());
+        GcMonitor.start();
+        /* record every hardware input from here on (unless a replay was loaded) */
+        InputLogger.start();
+        m_robotContainer = DeviceConfigService.timed("RobotContainer", RobotContainer::new);
     }
 
     @Override
     public void robotPeriodic() {
+        LoopProfiler.startLoop();
+        InputLogger.beginLoop();
         m_timeAndJoystickReplay.update();
-        CommandScheduler.getInstance().run(); 
+        /* one CAN batch; every subsystem reads this snapshot for the rest of the loop */
+        SignalRegistry.refreshAll();
+        /* dashboard edits take effect here, between loops */
+        TunableNumber.updateAll();
+
+        LoopProfiler.begin(kSchedulerProfile);
+        CommandScheduler.getInstance().run();
+        LoopProfiler.end(kSchedulerProfile);
+        MotorOutput.publishStats();
+
+        LoopProfiler.endLoop();
+        GcMonitor.update();
+        NtBudget.update();
+        DeviceConfigService.update();
+    }
+
+    /** Runs one full robot loop right away; used by the replay runner instead of the loop timer. */
+    public void runLoopOnce() {
+        loopFunc();
     }
 
     @Override
-    public void disabledInit() {}
+    public void disabledInit() {
+        /* dump the worst loops of the last enabled period while nothing is moving */
+        LoopProfiler.exportWorstLoops();
+    }
 
     @Override
-    public void disabledPeriodic() {}
+    public void disabledPeriodic() {
+        m_robotContainer.updateAutos();
+    }
 
     @Override
     public void disabledExit() {}
 
     @Override
     public void autonomousInit() {
+        LoopProfiler.resetWorstLoops();
         m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
         if (m_autonomousCommand != null) {
@@ -79,5 +121,8 @@ public class Robot extends TimedRobot {
     public void testExit() {}
 
     @Override
-    public void simulationPeriodic() {}
+    public void simulationPeriodic() {
+        /* mechanism models ran in the subsystems' simulationPeriodic(); apply their total draw */
+        SimBattery.update();
+    }
 }
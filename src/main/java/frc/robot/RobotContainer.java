@@ -6,10 +6,19 @@ package frc.robot;
 
 import static edu.wpi.first.units.Units.*;
 
+import java.util.function.Supplier;
+
 import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
+import com.pathplanner.lib.auto.NamedCommands;
 import com.ctre.phoenix6.swerve.SwerveRequest;
 
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
@@ -18,18 +27,41 @@ import edu.wpi.first.wpilibj2.command.button.RobotModeTriggers;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine.Direction;
 import frc.robot.Constants.Constants;
 import frc.robot.Constants.Constants.OperatorConstants;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.Field.FieldGeometry;
+import frc.robot.Field.NavPathfinder;
 import frc.robot.SWERVE.CommandSwerveDrivetrain;
 import frc.robot.SWERVE.Telemetry;
 import frc.robot.SWERVE.TunerConstants;
+import frc.robot.Util.DeviceConfigService;
+import frc.robot.Util.InputLogger;
+import frc.robot.Util.TunableNumber;
+import frc.robot.commands.Autos.AutoRegistry;
+import frc.robot.commands.Drive.PathfindToPoseCommand;
 import frc.robot.commands.Intake.IntakeArmCommand;
-import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.subsystems.SmartDashboardSubsytem;
 import frc.robot.subsystems.Climber.ClimberSubsystem;
+import frc.robot.subsystems.Intake.IntakeArmIOReplay;
+import frc.robot.subsystems.Intake.IntakeArmIOSim;
+import frc.robot.subsystems.Intake.IntakeArmIOTalonFX;
 import frc.robot.subsystems.Intake.IntakeArmSubsystem;
+import frc.robot.subsystems.Intake.IntakeIOReplay;
+import frc.robot.subsystems.Intake.IntakeIOSim;
+import frc.robot.subsystems.Intake.IntakeIOTalonFX;
 import frc.robot.subsystems.Intake.IntakeSubsystem;
+import frc.robot.subsystems.LEDS.LedState;
 import frc.robot.subsystems.LEDS.LumenLightsSubsystem;
+import frc.robot.subsystems.Shooter.ShooterIOReplay;
+import frc.robot.subsystems.Shooter.ShooterIOSim;
+import frc.robot.subsystems.Shooter.ShooterIOTalonFX;
 import frc.robot.subsystems.Shooter.ShooterSubsystem;
+import frc.robot.subsystems.Shooter.ShotMapSubsystem;
+import frc.robot.subsystems.Vision.PhotonVisionSubsytem;
+import frc.robot.subsystems.Vision.VisionIOPhoton;
+import frc.robot.subsystems.Vision.VisionIOReplay;
+import frc.robot.subsystems.Vision.VisionIOSim;
+import frc.robot.commands.Shooter.ShootOnTheMoveCommand;
 import frc.robot.commands.Shooter.ShooterCommand;
 
 public class RobotContainer {
@@ -43,31 +75,59 @@ public class RobotContainer {
     private final SwerveRequest.SwerveDriveBrake brake = new SwerveRequest.SwerveDriveBrake();
     private final SwerveRequest.PointWheelsAt point = new SwerveRequest.PointWheelsAt();
 
-    private final Telemetry logger = new Telemetry(MaxSpeed);
+    /* Odometry thread only buffers the state; NT/Mechanism2d are refreshed at 50 Hz */
+    private final Telemetry logger = new Telemetry(MaxSpeed, 50);
 
     private final CommandXboxController joystick = new CommandXboxController(0);
 
-    public final CommandSwerveDrivetrain drivetrain = TunerConstants.createDrivetrain();
+    public final CommandSwerveDrivetrain drivetrain = DeviceConfigService.timed("Drivetrain", TunerConstants::createDrivetrain);
 private final CommandXboxController m_driverController =
       new CommandXboxController(OperatorConstants.kDriverControllerPort);
 private final CommandXboxController c_operatorController =
       new CommandXboxController(OperatorConstants.cDriverControllerPort);
 
     // Subsystems and commands
-    private final IntakeSubsystem m_intakeSubsystem = new IntakeSubsystem();
-    private final IntakeArmSubsystem m_intakeArmSubsystem = new IntakeArmSubsystem();
+    // Hardware goes through IO classes picked by io(): real, simulated, or replayed from a log
+    private final IntakeSubsystem m_intakeSubsystem =
+        new IntakeSubsystem(io(IntakeIOTalonFX::new, IntakeIOSim::new, IntakeIOReplay::new));
+    private final TunableNumber m_intakeTargetRps = new TunableNumber("Intake/TargetRPS", 10.0);
+    private final IntakeArmSubsystem m_intakeArmSubsystem =
+        new IntakeArmSubsystem(io(IntakeArmIOTalonFX::new, IntakeArmIOSim::new, IntakeArmIOReplay::new));
     private final IntakeArmCommand m_intakeArmCommand = new IntakeArmCommand(m_intakeArmSubsystem, 90.0); // Example target angle of 90 degrees
     private final LumenLightsSubsystem m_lumenLights = new LumenLightsSubsystem();
     private final SmartDashboardSubsytem m_SmartDashboard = new SmartDashboardSubsytem();
     private final ClimberSubsystem m_ClimberSubsystem = new ClimberSubsystem();
-    private final ShooterSubsystem m_shootersubsystem = new ShooterSubsystem(); 
+    private final ShooterSubsystem m_shootersubsystem =
+        new ShooterSubsystem(io(ShooterIOTalonFX::new, ShooterIOSim::new, ShooterIOReplay::new));
     //private final ShooterCommand m_ShooterCommand = new ShooterCommand(m_shootersubsystem, MaxAngularRate);
-    // PhotonVision subsystem (camera name used by PhotonVision server)
-   //private final PhotonVisionSubsytem m_photonVision = new PhotonVisionSubsytem("PhotonVision Cam1");
+    // PhotonVision subsystem; cameras are listed in VisionConstants
+    private final AprilTagFieldLayout m_fieldLayout = AprilTagFieldLayout.loadField(AprilTagFields.kDefaultField);
+    private final PhotonVisionSubsytem m_photonVision = new PhotonVisionSubsytem(drivetrain, m_fieldLayout, io(
+        () -> new VisionIOPhoton(m_fieldLayout),
+        () -> new VisionIOSim(m_fieldLayout, () -> drivetrain.getState().Pose),
+        VisionIOReplay::new));
+    // Tag/target/navgrid geometry, built once for aiming and auto-align queries
+    private final FieldGeometry m_fieldGeometry = FieldGeometry.load(m_photonVision.getFieldLayout());
+    // Shooter speed for the current distance to our target, from deploy/shotmap.json
+    private final ShotMapSubsystem m_shotMap = new ShotMapSubsystem(drivetrain, m_fieldGeometry);
+    // On-the-fly navgrid paths, planned on a background thread
+    private final NavPathfinder m_pathfinder = new NavPathfinder(m_fieldGeometry.getNavGrid());
+    // PathPlanner autos, loaded and flipped for both alliances in the background
+    private final AutoRegistry m_autos = new AutoRegistry(drivetrain, "Drive Forward", this::driveForwardAuto);
     public RobotContainer() {
+        // Named commands for PathPlanner autos; looked up when the autos are composed
+        NamedCommands.registerCommand("PathfindToShot", pathfindToShot());
         configureBindings();
     }
 
+    /* The IO for this run: replay when a log was loaded, else the real or simulated hardware */
+    private static <T> T io(Supplier<T> real, Supplier<T> sim, Supplier<T> replay) {
+        if (InputLogger.isReplay()) {
+            return replay.get();
+        }
+        return RobotBase.isReal() ? real.get() : sim.get();
+    }
+
     private void configureBindings() {
         // Note that X is defined as forward according to WPILib convention,
         // and Y is defined as to the left according to WPILib convention.
@@ -79,7 +139,7 @@ private final CommandXboxController c_operatorController =
                     .withRotationalRate(-joystick.getRightX() * MaxAngularRate) // Drive counterclockwise with negative X (left)
             )
         );
-                    SmartDashboard.putData("Auto Chooser" , new SendableChooser<Command>());
+                    SmartDashboard.putData("Auto Chooser" , m_autos.getChooser());
         // Idle while the robot is disabled. This ensures the configured
         // neutral mode is applied to the drive motors while disabled.
         final var idle = new SwerveRequest.Idle();
@@ -106,33 +166,77 @@ private final CommandXboxController c_operatorController =
         
         
         
-        // Run the intake at the RPS chosen on SmartDashboard while the A button is held.
-        // SmartDashboard key: "Intake/TargetRPS"
-        SmartDashboard.putNumber("Intake/TargetRPS", 10);
+        // Run the intake at the RPS chosen on the dashboard while the X button is held.
+        // Dashboard key: "Tuning/Intake/TargetRPS" (persists across reboots)
         // Use runEnd so we explicitly stop the subsystem when the button is released.
         m_driverController.x().whileTrue(
             Commands.runEnd(
-                () -> m_intakeSubsystem.setRPS(SmartDashboard.getNumber("Intake/TargetRPS", 0)),
+                () -> m_intakeSubsystem.setRPS(m_intakeTargetRps.get()),
                 () -> m_intakeSubsystem.stop(),
                 m_intakeSubsystem
             )
         );
 
-        SmartDashboard.putNumber("Shooter/TargetRPS", 15);
-        // Run shooter; negative RPS will spin backwards
+        // Run shooter at the shot-map speed for where we are; it follows the distance while held
         m_driverController.y().whileTrue(
             Commands.runEnd(
-                () -> m_shootersubsystem.setRPS(SmartDashboard.getNumber("Shooter/TargetRPS", 0)),
+                () -> m_shootersubsystem.setRPS(m_shotMap.getTargetRPS()),
                 () -> m_shootersubsystem.stop(),
                 m_shootersubsystem
             )
         );
+        // Shoot on the move: keep driving while the robot aims and spins up for where it will be
+        joystick.rightTrigger().whileTrue(new ShootOnTheMoveCommand(
+            drivetrain, m_shootersubsystem, m_shotMap, m_fieldGeometry,
+            () -> -joystick.getLeftY() * MaxSpeed,
+            () -> -joystick.getLeftX() * MaxSpeed));
+        // Shot map calibration: store the current distance with ShotMap/CalibrationRPS
+        c_operatorController.back().onTrue(m_shotMap.recordPointCommand());
+        // Drive around the field obstacles to our standing shot spot while held
+        c_operatorController.a().whileTrue(pathfindToShot());
+
+        // LED states, highest priority in LedState first. PIECE_HELD stays unbound until the
+        // robot has a game piece sensor.
+        m_lumenLights.bind(LedState.SHOOTER_READY, m_shootersubsystem::isReady);
+        m_lumenLights.bind(LedState.SHOOTER_SPINUP, () -> m_shootersubsystem.getTargetRPS() != 0.0);
+        m_lumenLights.setProgressSource(() -> m_shootersubsystem.getTargetRPS() != 0.0
+            ? m_shootersubsystem.getRPS() / m_shootersubsystem.getTargetRPS() : 0.0);
+        m_lumenLights.bind(LedState.VISION_LOCK, m_photonVision::hasLock);
     //m_driverController.b().onTrue(new InstantCommand(() -> m_intakeArmSubsystem.setGoalDegrees(0.0), m_intakeArmSubsystem));
     //m_driverController.x().onTrue(new InstantCommand(() -> m_intakeArmSubsystem.setGoalDegrees(90.0), m_intakeArmSubsystem));
 }
     
 
+    /** Drives to the given blue-origin field pose around the navgrid obstacles. */
+    public Command pathfindTo(Pose2d goal) {
+        return new PathfindToPoseCommand(drivetrain, m_pathfinder, goal, MaxSpeed * 0.5);
+    }
+
+    /** Drives to our alliance's standing shot pose (FieldConstants.kShotPose*). */
+    public Command pathfindToShot() {
+        return Commands.either(
+            pathfindTo(shotPose(FieldConstants.kRedTargetIndex)),
+            pathfindTo(shotPose(FieldConstants.kBlueTargetIndex)),
+            () -> DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red);
+    }
+
+    private static Pose2d shotPose(int target) {
+        return new Pose2d(
+            FieldConstants.kShotPoseX[target],
+            FieldConstants.kShotPoseY[target],
+            Rotation2d.fromDegrees(FieldConstants.kShotPoseDeg[target]));
+    }
+
+    /** Finishes preparing the autos; call while disabled. */
+    public void updateAutos() {
+        m_autos.update();
+    }
+
     public Command getAutonomousCommand() {
+        return m_autos.getSelected(DriverStation.getAlliance().orElse(Alliance.Blue));
+    }
+
+    private Command driveForwardAuto() {
         // Simple drive forward auton
         final var idle = new SwerveRequest.Idle();
         return Commands.sequence(
@@ -2,7 +2,9 @@ package frc.robot.SWERVE;
 
 import static edu.wpi.first.units.Units.*;
 
+import java.io.File;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import com.ctre.phoenix6.SignalLogger;
@@ -10,20 +12,31 @@ import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.swerve.SwerveDrivetrainConstants;
 import com.ctre.phoenix6.swerve.SwerveModuleConstants;
 import com.ctre.phoenix6.swerve.SwerveRequest;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.commands.FollowPathCommand;
+import com.pathplanner.lib.config.PIDConstants;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.path.PathPlannerPath;
 
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 import frc.robot.SWERVE.TunerConstants.TunerSwerveDrivetrain;
+import frc.robot.Util.LoopProfiler;
 
 /**
  * Class that extends the Phoenix 6 SwerveDrivetrain class and implements
@@ -34,6 +47,7 @@ import frc.robot.SWERVE.TunerConstants.TunerSwerveDrivetrain;
  */
 public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Subsystem {
     private static final double kSimLoopPeriod = 0.004; // 4 ms
+    private static final int kPeriodicProfile = LoopProfiler.register("Drivetrain.periodic");
     private Notifier m_simNotifier = null;
     private double m_lastSimTime;
 
@@ -44,6 +58,23 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
     /* Keep track if we've ever applied the operator perspective before or not */
     private boolean m_hasAppliedOperatorPerspective = false;
 
+    /* ~2 s of odometry at 250 Hz, filled from the odometry thread */
+    private static final int kPoseHistoryCapacity = 512;
+    private final PoseHistory m_poseHistory = new PoseHistory(kPoseHistoryCapacity);
+    /* Phoenix time minus FPGA time, refreshed once per loop in periodic() */
+    private volatile double m_fpgaToCurrentTimeOffset = 0.0;
+
+    /* Swerve request to apply during path following */
+    private final SwerveRequest.ApplyRobotSpeeds m_pathApplyRobotSpeeds = new SwerveRequest.ApplyRobotSpeeds();
+    private final PPHolonomicDriveController m_pathController = new PPHolonomicDriveController(
+        // PID constants for translation
+        new PIDConstants(10, 0, 0),
+        // PID constants for rotation
+        new PIDConstants(7, 0, 0)
+    );
+    /* Loaded from deploy/pathplanner/settings.json; null if that failed */
+    private RobotConfig m_pathConfig = null;
+
     /* Swerve requests to apply during SysId characterization */
     private final SwerveRequest.SysIdSwerveTranslation m_translationCharacterization = new SwerveRequest.SysIdSwerveTranslation();
     private final SwerveRequest.SysIdSwerveSteerGains m_steerCharacterization = new SwerveRequest.SysIdSwerveSteerGains();
@@ -126,9 +157,11 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         SwerveModuleConstants<?, ?, ?>... modules
     ) {
         super(drivetrainConstants, modules);
+        super.registerTelemetry(m_poseHistory::add);
         if (Utils.isSimulation()) {
             startSimThread();
         }
+        configureAutoBuilder();
     }
 
     /**
@@ -150,9 +183,11 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         SwerveModuleConstants<?, ?, ?>... modules
     ) {
         super(drivetrainConstants, odometryUpdateFrequency, modules);
+        super.registerTelemetry(m_poseHistory::add);
         if (Utils.isSimulation()) {
             startSimThread();
         }
+        configureAutoBuilder();
     }
 
     /**
@@ -182,9 +217,74 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
         SwerveModuleConstants<?, ?, ?>... modules
     ) {
         super(drivetrainConstants, odometryUpdateFrequency, odometryStandardDeviation, visionStandardDeviation, modules);
+        super.registerTelemetry(m_poseHistory::add);
         if (Utils.isSimulation()) {
             startSimThread();
         }
+        configureAutoBuilder();
+    }
+
+    private void configureAutoBuilder() {
+        /* no settings until the robot is set up in the PathPlanner GUI; autos fall back without them */
+        if (!new File(Filesystem.getDeployDirectory(), "pathplanner/settings.json").isFile()) {
+            m_pathConfig = null;
+            DriverStation.reportWarning("No deploy/pathplanner/settings.json, AutoBuilder not configured", false);
+            return;
+        }
+        try {
+            m_pathConfig = RobotConfig.fromGUISettings();
+            AutoBuilder.configure(
+                () -> getState().Pose,   // Supplier of current robot pose
+                this::resetPose,         // Consumer for seeding pose against auto
+                () -> getState().Speeds, // Supplier of current robot speeds
+                // Consumer of ChassisSpeeds and feedforwards to drive the robot
+                (speeds, feedforwards) -> setControl(
+                    m_pathApplyRobotSpeeds.withSpeeds(ChassisSpeeds.discretize(speeds, 0.020))
+                        .withWheelForceFeedforwardsX(feedforwards.robotRelativeForcesXNewtons())
+                        .withWheelForceFeedforwardsY(feedforwards.robotRelativeForcesYNewtons())
+                ),
+                m_pathController,
+                m_pathConfig,
+                // Assume the path needs to be flipped for Red vs Blue, this is normally the case
+                () -> DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red,
+                this // Subsystem for requirements
+            );
+        } catch (Exception ex) {
+            m_pathConfig = null;
+            DriverStation.reportError("Failed to load PathPlanner config and configure AutoBuilder", ex.getStackTrace());
+        }
+    }
+
+    /**
+     * @return PathPlanner robot config from the GUI settings, or empty if it could not be loaded
+     */
+    public Optional<RobotConfig> getPathConfig() {
+        return Optional.ofNullable(m_pathConfig);
+    }
+
+    /**
+     * Returns a command that follows the path exactly as given. Unlike AutoBuilder.followPath(),
+     * the path is never flipped at runtime, so pass a path that is already flipped for the
+     * alliance it will run on.
+     *
+     * @param path Path to follow, in blue-origin field coordinates
+     * @return Command to run
+     */
+    public Command followPathCommand(PathPlannerPath path) {
+        return new FollowPathCommand(
+            path,
+            () -> getState().Pose,
+            () -> getState().Speeds,
+            (speeds, feedforwards) -> setControl(
+                m_pathApplyRobotSpeeds.withSpeeds(ChassisSpeeds.discretize(speeds, 0.020))
+                    .withWheelForceFeedforwardsX(feedforwards.robotRelativeForcesXNewtons())
+                    .withWheelForceFeedforwardsY(feedforwards.robotRelativeForcesYNewtons())
+            ),
+            m_pathController,
+            m_pathConfig,
+            () -> false,
+            this
+        );
     }
 
     /**
@@ -221,6 +321,9 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
 
     @Override
     public void periodic() {
+        LoopProfiler.begin(kPeriodicProfile);
+        m_fpgaToCurrentTimeOffset = Utils.getCurrentTimeSeconds() - Timer.getFPGATimestamp();
+
         /*
          * Periodically try to apply the operator perspective.
          * If we haven't applied the operator perspective before, then we should apply it regardless of DS state.
@@ -238,6 +341,7 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
                 m_hasAppliedOperatorPerspective = true;
             });
         }
+        LoopProfiler.end(kPeriodicProfile);
     }
 
     private void startSimThread() {
@@ -299,4 +403,45 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
     public Optional<Pose2d> samplePoseAt(double timestampSeconds) {
         return super.samplePoseAt(Utils.fpgaToCurrentTime(timestampSeconds));
     }
+
+    /**
+     * Registers a telemetry function called from the odometry thread. The pose history is
+     * always filled before the function runs; pass null to only fill the history.
+     *
+     * @param telemetryFunction Function to call for telemetry or logging
+     */
+    @Override
+    public void registerTelemetry(Consumer<SwerveDriveState> telemetryFunction) {
+        if (telemetryFunction == null) {
+            super.registerTelemetry(m_poseHistory::add);
+            return;
+        }
+        super.registerTelemetry(state -> {
+            m_poseHistory.add(state);
+            telemetryFunction.accept(state);
+        });
+    }
+
+    /**
+     * Returns the primitive pose history filled by the odometry thread. Its timestamps are in
+     * the Phoenix timebase; see {@link #samplePoseHistoryAt(double, double[])} for FPGA time.
+     *
+     * @return The pose history
+     */
+    public PoseHistory getPoseHistory() {
+        return m_poseHistory;
+    }
+
+    /**
+     * Allocation-free alternative to {@link #samplePoseAt(double)} for callers that need many
+     * lookups per loop. The FPGA to Phoenix timebase offset is cached once per loop instead of
+     * being recomputed for every lookup.
+     *
+     * @param timestampSeconds The timestamp of the pose in seconds, FPGA timebase.
+     * @param out Receives x (m), y (m) and theta (rad) in elements 0..2
+     * @return false if the history is empty
+     */
+    public boolean samplePoseHistoryAt(double timestampSeconds, double[] out) {
+        return m_poseHistory.sample(timestampSeconds + m_fpgaToCurrentTimeOffset, out);
+    }
 }
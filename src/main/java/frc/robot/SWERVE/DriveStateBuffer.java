@@ -0,0 +1,111 @@
+package frc.robot.SWERVE;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+/**
+ * Single-producer/single-consumer ring of swerve drive state snapshots.
+ * <p>
+ * The odometry thread copies each {@link SwerveDriveState} into a preallocated slot of
+ * primitive doubles, so {@link #offer(SwerveDriveState)} costs the same every call and never
+ * allocates. If the consumer falls behind, new samples are dropped (and counted) rather than
+ * blocking the producer.
+ */
+public class DriveStateBuffer {
+    /* Slot layout; module blocks hold 4 modules x (value, angle in radians) */
+    public static final int kTimestamp = 0;
+    public static final int kOdometryPeriod = 1;
+    public static final int kPoseX = 2;
+    public static final int kPoseY = 3;
+    public static final int kPoseTheta = 4;
+    public static final int kSpeedVx = 5;
+    public static final int kSpeedVy = 6;
+    public static final int kSpeedOmega = 7;
+    public static final int kModuleStates = 8;
+    public static final int kModuleTargets = 16;
+    public static final int kModulePositions = 24;
+    public static final int kStride = 32;
+
+    private final int m_capacity;
+    private final int m_mask;
+    private final double[] m_slots;
+
+    /* head is only written by the producer, tail only by the consumer */
+    private final AtomicLong m_head = new AtomicLong();
+    private final AtomicLong m_tail = new AtomicLong();
+    private volatile long m_dropped = 0;
+
+    /**
+     * @param capacity Number of snapshots to hold, rounded up to a power of two
+     */
+    public DriveStateBuffer(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity));
+        m_capacity = cap < capacity ? cap << 1 : cap;
+        m_mask = m_capacity - 1;
+        m_slots = new double[m_capacity * kStride];
+    }
+
+    /**
+     * Copies the state into the next free slot. Producer thread only.
+     *
+     * @return false if the buffer was full and the sample was dropped
+     */
+    public boolean offer(SwerveDriveState state) {
+        final long head = m_head.get();
+        if (head - m_tail.get() >= m_capacity) {
+            m_dropped = m_dropped + 1;
+            return false;
+        }
+
+        final double[] s = m_slots;
+        final int base = (int) (head & m_mask) * kStride;
+        s[base + kTimestamp] = state.Timestamp;
+        s[base + kOdometryPeriod] = state.OdometryPeriod;
+        s[base + kPoseX] = state.Pose.getX();
+        s[base + kPoseY] = state.Pose.getY();
+        s[base + kPoseTheta] = state.Pose.getRotation().getRadians();
+        s[base + kSpeedVx] = state.Speeds.vxMetersPerSecond;
+        s[base + kSpeedVy] = state.Speeds.vyMetersPerSecond;
+        s[base + kSpeedOmega] = state.Speeds.omegaRadiansPerSecond;
+        for (int i = 0; i < 4; ++i) {
+            s[base + kModuleStates + 2 * i] = state.ModuleStates[i].speedMetersPerSecond;
+            s[base + kModuleStates + 2 * i + 1] = state.ModuleStates[i].angle.getRadians();
+            s[base + kModuleTargets + 2 * i] = state.ModuleTargets[i].speedMetersPerSecond;
+            s[base + kModuleTargets + 2 * i + 1] = state.ModuleTargets[i].angle.getRadians();
+            s[base + kModulePositions + 2 * i] = state.ModulePositions[i].distanceMeters;
+            s[base + kModulePositions + 2 * i + 1] = state.ModulePositions[i].angle.getRadians();
+        }
+
+        /* publish the slot to the consumer */
+        m_head.lazySet(head + 1);
+        return true;
+    }
+
+    /**
+     * Copies the oldest unread snapshot into {@code out}. Consumer thread only.
+     *
+     * @param out Array of at least {@link #kStride} doubles
+     * @return false if there was nothing to read
+     */
+    public boolean poll(double[] out) {
+        final long tail = m_tail.get();
+        if (tail >= m_head.get()) {
+            return false;
+        }
+        System.arraycopy(m_slots, (int) (tail & m_mask) * kStride, out, 0, kStride);
+        /* hand the slot back to the producer */
+        m_tail.lazySet(tail + 1);
+        return true;
+    }
+
+    /** Number of samples waiting to be read. */
+    public int size() {
+        return (int) (m_head.get() - m_tail.get());
+    }
+
+    /** Number of samples dropped because the buffer was full. */
+    public long getDropped() {
+        return m_dropped;
+    }
+}
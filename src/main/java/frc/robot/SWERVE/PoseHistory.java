@@ -0,0 +1,158 @@
+package frc.robot.SWERVE;
+
+import java.lang.invoke.VarHandle;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Fixed-capacity history of robot poses, stored as primitive timestamp/x/y/theta rings.
+ * <p>
+ * There is a single writer (the odometry thread, through
+ * {@link CommandSwerveDrivetrain#registerTelemetry}) and any number of readers. Writes never
+ * allocate. Readers binary-search the ring and interpolate between the two surrounding samples
+ * without taking a lock; if the writer laps the slots a reader was looking at, the read is retried.
+ * <p>
+ * Timestamps are in the Phoenix timebase ({@code Utils.getCurrentTimeSeconds()}), the same as
+ * {@link SwerveDriveState#Timestamp}.
+ */
+public class PoseHistory {
+    /* Stay this many slots clear of the writer so readers rarely have to retry */
+    private static final int kReadMargin = 4;
+    private static final int kMaxReadAttempts = 4;
+
+    private final int m_capacity;
+    private final int m_mask;
+    private final double[] m_time;
+    private final double[] m_x;
+    private final double[] m_y;
+    private final double[] m_theta;
+
+    /* Number of samples ever written; slot i lives at index (i & mask) */
+    private final AtomicLong m_count = new AtomicLong();
+
+    /**
+     * @param capacity Number of samples to keep, rounded up to a power of two
+     */
+    public PoseHistory(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2 * kReadMargin, capacity));
+        m_capacity = cap < capacity ? cap << 1 : cap;
+        m_mask = m_capacity - 1;
+        m_time = new double[m_capacity];
+        m_x = new double[m_capacity];
+        m_y = new double[m_capacity];
+        m_theta = new double[m_capacity];
+    }
+
+    /** Adds the pose from an odometry update. Writer thread only. */
+    public void add(SwerveDriveState state) {
+        add(state.Timestamp, state.Pose.getX(), state.Pose.getY(), state.Pose.getRotation().getRadians());
+    }
+
+    /**
+     * Adds a pose sample. Writer thread only; timestamps must be increasing.
+     *
+     * @param timestamp Sample time in seconds
+     * @param x         X position in meters
+     * @param y         Y position in meters
+     * @param theta     Heading in radians
+     */
+    public void add(double timestamp, double x, double y, double theta) {
+        final long n = m_count.get();
+        final int i = (int) (n & m_mask);
+        m_time[i] = timestamp;
+        m_x[i] = x;
+        m_y[i] = y;
+        m_theta[i] = theta;
+        /* release the slot to readers */
+        m_count.lazySet(n + 1);
+    }
+
+    /**
+     * Interpolates the pose at the given time. Times outside the stored window are clamped to the
+     * oldest or newest sample.
+     *
+     * @param timestamp Time in seconds, Phoenix timebase
+     * @param out       Receives x (m), y (m) and theta (rad) in elements 0..2
+     * @return false if the history is empty (or the writer kept lapping us)
+     */
+    public boolean sample(double timestamp, double[] out) {
+        for (int attempt = 0; attempt < kMaxReadAttempts; ++attempt) {
+            final long end = m_count.get();
+            if (end == 0) {
+                return false;
+            }
+            final long start = Math.max(0, end - m_capacity + kReadMargin);
+
+            /* find the first sample at or after the timestamp */
+            long lo = start;
+            long hi = end;
+            while (lo < hi) {
+                final long mid = (lo + hi) >>> 1;
+                if (m_time[(int) (mid & m_mask)] < timestamp) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+
+            final double x, y, theta;
+            if (lo == start || lo == end) {
+                final int i = (int) ((lo == end ? end - 1 : start) & m_mask);
+                x = m_x[i];
+                y = m_y[i];
+                theta = m_theta[i];
+            } else {
+                final int i0 = (int) ((lo - 1) & m_mask);
+                final int i1 = (int) (lo & m_mask);
+                final double t0 = m_time[i0];
+                final double t1 = m_time[i1];
+                final double f = t1 > t0 ? (timestamp - t0) / (t1 - t0) : 0.0;
+                x = m_x[i0] + (m_x[i1] - m_x[i0]) * f;
+                y = m_y[i0] + (m_y[i1] - m_y[i0]) * f;
+                theta = MathUtil.angleModulus(m_theta[i0] + MathUtil.angleModulus(m_theta[i1] - m_theta[i0]) * f);
+            }
+
+            /* make sure the writer didn't overwrite anything we read */
+            VarHandle.acquireFence();
+            if (m_count.get() - start < m_capacity) {
+                out[0] = x;
+                out[1] = y;
+                out[2] = theta;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Interpolates the pose at the given time. Convenience wrapper around
+     * {@link #sample(double, double[])} for callers off the hot path; this allocates.
+     *
+     * @param timestamp Time in seconds, Phoenix timebase
+     * @return The pose, or Optional.empty() if the history is empty
+     */
+    public Optional<Pose2d> getPose(double timestamp) {
+        final double[] out = new double[3];
+        if (!sample(timestamp, out)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Pose2d(out[0], out[1], Rotation2d.fromRadians(out[2])));
+    }
+
+    /** @return Timestamp of the newest sample, or NaN if empty */
+    public double getLatestTimestamp() {
+        final long n = m_count.get();
+        return n == 0 ? Double.NaN : m_time[(int) ((n - 1) & m_mask)];
+    }
+
+    /** @return Number of samples the history can hold */
+    public int getCapacity() {
+        return m_capacity;
+    }
+}
@@ -1,34 +1,81 @@
 package frc.robot.SWERVE;
 
 import com.ctre.phoenix6.SignalLogger;
+import com.ctre.phoenix6.Utils;
 import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
 
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.networktables.DoubleArrayPublisher;
 import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.networktables.StringPublisher;
 import edu.wpi.first.networktables.StructArrayPublisher;
 import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
 import edu.wpi.first.wpilibj.smartdashboard.MechanismLigament2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj.util.Color8Bit;
+import frc.robot.Util.GcMonitor;
+import frc.robot.Util.NtBudget;
+import frc.robot.Util.NtBudget.Priority;
 
 public class Telemetry {
+    /* How often the publisher thread drains the odometry buffer */
+    private static final double kDrainPeriod = 0.01; // 10 ms
+    /* ~0.5 s of samples at 250 Hz, so the publisher can stall for a while before we drop */
+    private static final int kBufferCapacity = 128;
+    /*
+     * Budget cap for topics meant to go out on every NT publish. 1.5x the 50 Hz NT rate, so a
+     * publish that lands a little early on the 10 ms drain isn't also dropped by the budget
+     */
+    private static final double kEveryPublishRateHz = 75.0;
+
     private final double MaxSpeed;
 
+    /* Only set in buffered mode */
+    private final DriveStateBuffer m_buffer;
+    private final Notifier m_publisher;
+    private final double m_ntPeriod;
+    private double m_lastNtPublishTime = 0;
+
+    /* Set once the odometry thread has registered with GcMonitor */
+    private boolean m_threadTracked = false;
+
+    /* Cost of the odometry-thread callback, written by the odometry thread */
+    private volatile long m_lastCallbackNanos = 0;
+    private volatile long m_maxCallbackNanos = 0;
+
     /**
-     * Construct a telemetry object, with the specified max speed of the robot
+     * Construct a telemetry object, with the specified max speed of the robot.
+     * <p>
+     * Everything is published directly from the odometry thread.
      * 
      * @param maxSpeed Maximum speed in meters per second
      */
     public Telemetry(double maxSpeed) {
+        this(maxSpeed, 0);
+    }
+
+    /**
+     * Construct a buffered telemetry object, with the specified max speed of the robot.
+     * <p>
+     * The odometry thread only copies each state into a preallocated ring buffer. A separate
+     * publisher thread drains it, writes every sample to the log, and sends the newest sample
+     * to NetworkTables and the Mechanism2d widgets at {@code ntRateHz}.
+     *
+     * @param maxSpeed Maximum speed in meters per second
+     * @param ntRateHz Rate to publish to NetworkTables; 0 publishes directly from the
+     *                 odometry thread instead of buffering
+     */
+    public Telemetry(double maxSpeed, double ntRateHz) {
         MaxSpeed = maxSpeed;
         SignalLogger.start();
 
@@ -36,6 +83,20 @@ public class Telemetry {
         for (int i = 0; i < 4; ++i) {
             SmartDashboard.putData("Module " + i, m_moduleMechanisms[i]);
         }
+        fieldTypePub.set("Field2d");
+
+        if (ntRateHz > 0) {
+            m_ntPeriod = 1.0 / ntRateHz;
+            m_buffer = new DriveStateBuffer(kBufferCapacity);
+            /* Runs as a normal Java thread, below the Phoenix odometry thread's RT priority */
+            m_publisher = new Notifier(this::drainBuffer);
+            m_publisher.setName("TelemetryPublisher");
+            m_publisher.startPeriodic(kDrainPeriod);
+        } else {
+            m_ntPeriod = 0;
+            m_buffer = null;
+            m_publisher = null;
+        }
     }
 
     /* What to publish over networktables for telemetry */
@@ -50,6 +111,9 @@ public class Telemetry {
     private final StructArrayPublisher<SwerveModulePosition> driveModulePositions = driveStateTable.getStructArrayTopic("ModulePositions", SwerveModulePosition.struct).publish();
     private final DoublePublisher driveTimestamp = driveStateTable.getDoubleTopic("Timestamp").publish();
     private final DoublePublisher driveOdometryFrequency = driveStateTable.getDoubleTopic("OdometryFrequency").publish();
+    private final DoublePublisher telemetryCallbackMicros = driveStateTable.getDoubleTopic("TelemetryCallbackUs").publish();
+    private final DoublePublisher telemetryCallbackMaxMicros = driveStateTable.getDoubleTopic("TelemetryCallbackMaxUs").publish();
+    private final IntegerPublisher telemetryDropped = driveStateTable.getIntegerTopic("TelemetryDropped").publish();
 
     /* Robot pose for field positioning */
     private final NetworkTable table = inst.getTable("Pose");
@@ -82,18 +146,82 @@ public class Telemetry {
             .append(new MechanismLigament2d("Direction", 0.1, 0, 0, new Color8Bit(Color.kWhite))),
     };
 
+    /*
+     * NT bandwidth budget, per group of topics sent together: the pose always goes out at its
+     * rate, everything else is decimated or dropped first when the radio budget is tight
+     */
+    private final int m_budgetPose = NtBudget.register("DriveState/Pose", Priority.CRITICAL, kEveryPublishRateHz, 24);
+    private final int m_budgetFieldPose = NtBudget.register("Pose/robotPose", Priority.CRITICAL, kEveryPublishRateHz, 24);
+    private final int m_budgetSpeeds = NtBudget.register("DriveState/Speeds", Priority.HIGH, kEveryPublishRateHz, 24);
+    private final int m_budgetModules = NtBudget.register("DriveState/ModuleStates+Targets", Priority.NORMAL, 25.0, 128);
+    private final int m_budgetPositions = NtBudget.register("DriveState/ModulePositions", Priority.LOW, 10.0, 64);
+    private final int m_budgetTiming = NtBudget.register("DriveState/Timestamp+OdometryFrequency", Priority.LOW, 10.0, 16);
+    private final int m_budgetMechanisms = NtBudget.register("Module Mechanism2d", Priority.LOW, 10.0, 128);
+    private final int m_budgetStats = NtBudget.register("DriveState/TelemetryStats", Priority.LOW, 5.0, 24);
+
     private final double[] m_poseArray = new double[3];
 
-    /** Accept the swerve drive state and telemeterize it to SmartDashboard and SignalLogger. */
+    /* Publisher-thread scratch; reused for every sample pulled from the buffer */
+    private final double[] m_sample = new double[DriveStateBuffer.kStride];
+    private final ChassisSpeeds m_sampleSpeeds = new ChassisSpeeds();
+    private final SwerveModuleState[] m_sampleModuleStates = new SwerveModuleState[] {
+        new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()
+    };
+    private final SwerveModuleState[] m_sampleModuleTargets = new SwerveModuleState[] {
+        new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()
+    };
+    private final SwerveModulePosition[] m_sampleModulePositions = new SwerveModulePosition[] {
+        new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition(), new SwerveModulePosition()
+    };
+
+    /**
+     * Accept the swerve drive state and telemeterize it to SmartDashboard and SignalLogger.
+     * <p>
+     * In buffered mode this only copies the state into the ring buffer.
+     */
     public void telemeterize(SwerveDriveState state) {
-        /* Telemeterize the swerve drive state */
-        drivePose.set(state.Pose);
-        driveSpeeds.set(state.Speeds);
-        driveModuleStates.set(state.ModuleStates);
-        driveModuleTargets.set(state.ModuleTargets);
-        driveModulePositions.set(state.ModulePositions);
-        driveTimestamp.set(state.Timestamp);
-        driveOdometryFrequency.set(1.0 / state.OdometryPeriod);
+        if (!m_threadTracked) {
+            GcMonitor.trackCurrentThread("Odometry");
+            m_threadTracked = true;
+        }
+        if (m_buffer != null) {
+            final long start = System.nanoTime();
+            m_buffer.offer(state);
+            final long elapsed = System.nanoTime() - start;
+            m_lastCallbackNanos = elapsed;
+            if (elapsed > m_maxCallbackNanos) {
+                m_maxCallbackNanos = elapsed;
+            }
+            return;
+        }
+
+        final long start = System.nanoTime();
+        publishDirect(state);
+        m_lastCallbackNanos = System.nanoTime() - start;
+        if (NtBudget.shouldSend(m_budgetStats)) {
+            telemetryCallbackMicros.set(m_lastCallbackNanos / 1000.0);
+        }
+    }
+
+    private void publishDirect(SwerveDriveState state) {
+        /* Telemeterize the swerve drive state, within the NT budget */
+        if (NtBudget.shouldSend(m_budgetPose)) {
+            drivePose.set(state.Pose);
+        }
+        if (NtBudget.shouldSend(m_budgetSpeeds)) {
+            driveSpeeds.set(state.Speeds);
+        }
+        if (NtBudget.shouldSend(m_budgetModules)) {
+            driveModuleStates.set(state.ModuleStates);
+            driveModuleTargets.set(state.ModuleTargets);
+        }
+        if (NtBudget.shouldSend(m_budgetPositions)) {
+            driveModulePositions.set(state.ModulePositions);
+        }
+        if (NtBudget.shouldSend(m_budgetTiming)) {
+            driveTimestamp.set(state.Timestamp);
+            driveOdometryFrequency.set(1.0 / state.OdometryPeriod);
+        }
 
         /* Also write to log file */
         SignalLogger.writeStruct("DriveState/Pose", Pose2d.struct, state.Pose);
@@ -104,18 +232,112 @@ public class Telemetry {
         SignalLogger.writeDouble("DriveState/OdometryPeriod", state.OdometryPeriod, "seconds");
 
         /* Telemeterize the pose to a Field2d */
-        fieldTypePub.set("Field2d");
-
-        m_poseArray[0] = state.Pose.getX();
-        m_poseArray[1] = state.Pose.getY();
-        m_poseArray[2] = state.Pose.getRotation().getDegrees();
-        fieldPub.set(m_poseArray);
+        if (NtBudget.shouldSend(m_budgetFieldPose)) {
+            m_poseArray[0] = state.Pose.getX();
+            m_poseArray[1] = state.Pose.getY();
+            m_poseArray[2] = state.Pose.getRotation().getDegrees();
+            fieldPub.set(m_poseArray);
+        }
 
         /* Telemeterize each module state to a Mechanism2d */
+        if (NtBudget.shouldSend(m_budgetMechanisms)) {
+            for (int i = 0; i < 4; ++i) {
+                m_moduleSpeeds[i].setAngle(state.ModuleStates[i].angle);
+                m_moduleDirections[i].setAngle(state.ModuleStates[i].angle);
+                m_moduleSpeeds[i].setLength(state.ModuleStates[i].speedMetersPerSecond / (2 * MaxSpeed));
+            }
+        }
+    }
+
+    /** Publisher thread: log every buffered sample, and send the newest one to NT at the decimated rate. */
+    private void drainBuffer() {
+        boolean any = false;
+        final double now = Utils.getCurrentTimeSeconds();
+        while (m_buffer.poll(m_sample)) {
+            any = true;
+            logSample(m_sample, now);
+        }
+
+        if (NtBudget.shouldSend(m_budgetStats)) {
+            telemetryCallbackMicros.set(m_lastCallbackNanos / 1000.0);
+            telemetryCallbackMaxMicros.set(m_maxCallbackNanos / 1000.0);
+            telemetryDropped.set(m_buffer.getDropped());
+        }
+
+        if (any && now - m_lastNtPublishTime >= m_ntPeriod) {
+            m_lastNtPublishTime = now;
+            publishSample(m_sample);
+        }
+    }
+
+    private void fillSampleObjects(double[] s) {
+        m_sampleSpeeds.vxMetersPerSecond = s[DriveStateBuffer.kSpeedVx];
+        m_sampleSpeeds.vyMetersPerSecond = s[DriveStateBuffer.kSpeedVy];
+        m_sampleSpeeds.omegaRadiansPerSecond = s[DriveStateBuffer.kSpeedOmega];
         for (int i = 0; i < 4; ++i) {
-            m_moduleSpeeds[i].setAngle(state.ModuleStates[i].angle);
-            m_moduleDirections[i].setAngle(state.ModuleStates[i].angle);
-            m_moduleSpeeds[i].setLength(state.ModuleStates[i].speedMetersPerSecond / (2 * MaxSpeed));
+            m_sampleModuleStates[i].speedMetersPerSecond = s[DriveStateBuffer.kModuleStates + 2 * i];
+            m_sampleModuleStates[i].angle = Rotation2d.fromRadians(s[DriveStateBuffer.kModuleStates + 2 * i + 1]);
+            m_sampleModuleTargets[i].speedMetersPerSecond = s[DriveStateBuffer.kModuleTargets + 2 * i];
+            m_sampleModuleTargets[i].angle = Rotation2d.fromRadians(s[DriveStateBuffer.kModuleTargets + 2 * i + 1]);
+            m_sampleModulePositions[i].distanceMeters = s[DriveStateBuffer.kModulePositions + 2 * i];
+            m_sampleModulePositions[i].angle = Rotation2d.fromRadians(s[DriveStateBuffer.kModulePositions + 2 * i + 1]);
+        }
+    }
+
+    private void logSample(double[] s, double now) {
+        /* backdate each write to when the odometry thread produced it */
+        final double latency = Math.max(0, now - s[DriveStateBuffer.kTimestamp]);
+        final Pose2d pose = new Pose2d(
+            s[DriveStateBuffer.kPoseX], s[DriveStateBuffer.kPoseY],
+            Rotation2d.fromRadians(s[DriveStateBuffer.kPoseTheta])
+        );
+        fillSampleObjects(s);
+
+        SignalLogger.writeStruct("DriveState/Pose", Pose2d.struct, pose, latency);
+        SignalLogger.writeStruct("DriveState/Speeds", ChassisSpeeds.struct, m_sampleSpeeds, latency);
+        SignalLogger.writeStructArray("DriveState/ModuleStates", SwerveModuleState.struct, m_sampleModuleStates, latency);
+        SignalLogger.writeStructArray("DriveState/ModuleTargets", SwerveModuleState.struct, m_sampleModuleTargets, latency);
+        SignalLogger.writeStructArray("DriveState/ModulePositions", SwerveModulePosition.struct, m_sampleModulePositions, latency);
+        SignalLogger.writeDouble("DriveState/OdometryPeriod", s[DriveStateBuffer.kOdometryPeriod], "seconds", latency);
+    }
+
+    private void publishSample(double[] s) {
+        /* fillSampleObjects() already ran for this sample in logSample() */
+        if (NtBudget.shouldSend(m_budgetPose)) {
+            drivePose.set(new Pose2d(
+                s[DriveStateBuffer.kPoseX], s[DriveStateBuffer.kPoseY],
+                Rotation2d.fromRadians(s[DriveStateBuffer.kPoseTheta])
+            ));
+        }
+        if (NtBudget.shouldSend(m_budgetSpeeds)) {
+            driveSpeeds.set(m_sampleSpeeds);
+        }
+        if (NtBudget.shouldSend(m_budgetModules)) {
+            driveModuleStates.set(m_sampleModuleStates);
+            driveModuleTargets.set(m_sampleModuleTargets);
+        }
+        if (NtBudget.shouldSend(m_budgetPositions)) {
+            driveModulePositions.set(m_sampleModulePositions);
+        }
+        if (NtBudget.shouldSend(m_budgetTiming)) {
+            driveTimestamp.set(s[DriveStateBuffer.kTimestamp]);
+            driveOdometryFrequency.set(1.0 / s[DriveStateBuffer.kOdometryPeriod]);
+        }
+
+        if (NtBudget.shouldSend(m_budgetFieldPose)) {
+            m_poseArray[0] = s[DriveStateBuffer.kPoseX];
+            m_poseArray[1] = s[DriveStateBuffer.kPoseY];
+            m_poseArray[2] = Math.toDegrees(s[DriveStateBuffer.kPoseTheta]);
+            fieldPub.set(m_poseArray);
+        }
+
+        if (NtBudget.shouldSend(m_budgetMechanisms)) {
+            for (int i = 0; i < 4; ++i) {
+                final double angleDeg = Math.toDegrees(s[DriveStateBuffer.kModuleStates + 2 * i + 1]);
+                m_moduleSpeeds[i].setAngle(angleDeg);
+                m_moduleDirections[i].setAngle(angleDeg);
+                m_moduleSpeeds[i].setLength(s[DriveStateBuffer.kModuleStates + 2 * i] / (2 * MaxSpeed));
+            }
         }
     }
 }
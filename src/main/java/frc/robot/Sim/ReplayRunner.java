@@ -0,0 +1,63 @@
+package frc.robot.Sim;
+
+import java.io.IOException;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Robot;
+import frc.robot.Util.InputLogger;
+
+/**
+ * Feeds a recorded log back through the robot code as fast as the CPU allows.
+ *
+ * <p>The log is any data log recorded on the robot or in simulation (see {@link InputLogger}). The
+ * robot is constructed under HAL simulation with timing paused and the subsystems get their replay
+ * IO. Then, per recorded loop, simulated time is stepped to when that loop ran, the recorded driver
+ * station state is applied, and one robot loop runs straight away: every subsystem sees exactly
+ * the inputs it saw when the log was recorded, without waiting on the loop timer. Whatever the
+ * code computes from them (commands, outputs, NT, the new data log) can then be compared with the
+ * original.
+ *
+ * <p>The drivetrain has no IO layer: it is simulated from the replayed joysticks, so its pose
+ * drifts from the recorded one. Vision logs what it reads from the drivetrain and replays that,
+ * but anything else that reads the drivetrain pose (aiming, shoot on the move, pathfinding) sees
+ * the simulated pose, not the recorded one.
+ *
+ * <p>Run with {@code ./gradlew replay -Plog=path/to/file.wpilog}.
+ */
+public final class ReplayRunner {
+  private ReplayRunner() {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("usage: ReplayRunner <log.wpilog>");
+    }
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("HAL simulation failed to initialize");
+    }
+    SimHooks.pauseTiming();
+    final int loops = InputLogger.startReplay(args[0]);
+
+    final long wallStart = System.nanoTime();
+    Robot robot = new Robot();
+    final double simStart = Timer.getFPGATimestamp();
+    int replayed = 0;
+    while (InputLogger.nextLoop()) {
+      /* notifiers (drivetrain sim, camera workers) run up to the recorded loop time */
+      final double dt = InputLogger.getLoopTimestamp() - Timer.getFPGATimestamp();
+      if (dt > 0.0) {
+        SimHooks.stepTiming(dt);
+      }
+      robot.runLoopOnce();
+      ++replayed;
+    }
+    final double wallSeconds = (System.nanoTime() - wallStart) * 1e-9;
+    final double simSeconds = Timer.getFPGATimestamp() - simStart;
+
+    System.out.println("---- ReplayRunner ----");
+    System.out.printf("replayed %d of %d loops (%.1f s) in %.1f s wall (%.1fx)%n",
+        replayed, loops, simSeconds, wallSeconds, simSeconds / wallSeconds);
+    System.exit(0);
+  }
+}
@@ -0,0 +1,30 @@
+package frc.robot.Sim;
+
+import edu.wpi.first.wpilibj.simulation.BatterySim;
+import edu.wpi.first.wpilibj.simulation.RoboRioSim;
+
+/**
+ * Battery sag for simulation.
+ *
+ * <p>Every mechanism model adds the current it draws from its simulationPeriodic(), and
+ * {@link #update()} (from Robot.simulationPeriodic(), which runs after the subsystems) turns the
+ * total into the loaded battery voltage for the next loop. Spin-up and deploy times measured in
+ * simulation then include the sag they would see on the robot. The drivetrain's own sim thread
+ * reads that voltage too, but its current isn't counted. Main robot thread only.
+ */
+public final class SimBattery {
+  private SimBattery() {}
+
+  private static double s_totalAmps = 0.0;
+
+  /** Adds a mechanism's current draw for this loop, amps. */
+  public static void addCurrent(double amps) {
+    s_totalAmps += Math.abs(amps);
+  }
+
+  /** Applies this loop's total draw to the simulated battery and starts the next loop. */
+  public static void update() {
+    RoboRioSim.setVInVoltage(BatterySim.calculateDefaultBatteryLoadedVoltage(s_totalAmps));
+    s_totalAmps = 0.0;
+  }
+}
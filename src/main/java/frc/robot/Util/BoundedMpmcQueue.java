@@ -0,0 +1,99 @@
+package frc.robot.Util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for handing objects between threads (any number of producers and
+ * consumers). Each slot carries a sequence number that says whether it is ready to be written or
+ * read, so neither side ever blocks: {@link #offer(Object)} fails when full and
+ * {@link #poll()} returns null when empty.
+ *
+ * @param <T> Element type
+ */
+public class BoundedMpmcQueue<T> {
+  private final int m_mask;
+  private final AtomicReferenceArray<T> m_items;
+  private final AtomicLongArray m_sequence;
+  private final AtomicLong m_enqueuePos = new AtomicLong();
+  private final AtomicLong m_dequeuePos = new AtomicLong();
+
+  /**
+   * @param capacity Maximum number of queued elements, rounded up to a power of two
+   */
+  public BoundedMpmcQueue(int capacity) {
+    int cap = Integer.highestOneBit(Math.max(2, capacity));
+    if (cap < capacity) cap <<= 1;
+    m_mask = cap - 1;
+    m_items = new AtomicReferenceArray<>(cap);
+    m_sequence = new AtomicLongArray(cap);
+    for (int i = 0; i < cap; ++i) {
+      m_sequence.set(i, i);
+    }
+  }
+
+  /**
+   * Adds an element if there is room.
+   *
+   * @return false if the queue was full
+   */
+  public boolean offer(T item) {
+    long pos = m_enqueuePos.get();
+    int idx;
+    while (true) {
+      idx = (int) (pos & m_mask);
+      long diff = m_sequence.get(idx) - pos;
+      if (diff == 0) {
+        if (m_enqueuePos.compareAndSet(pos, pos + 1)) break;
+        pos = m_enqueuePos.get();
+      } else if (diff < 0) {
+        return false;
+      } else {
+        pos = m_enqueuePos.get();
+      }
+    }
+    m_items.lazySet(idx, item);
+    /* slot now readable */
+    m_sequence.lazySet(idx, pos + 1);
+    return true;
+  }
+
+  /**
+   * Removes the oldest element.
+   *
+   * @return the element, or null if the queue was empty
+   */
+  public T poll() {
+    long pos = m_dequeuePos.get();
+    int idx;
+    while (true) {
+      idx = (int) (pos & m_mask);
+      long diff = m_sequence.get(idx) - (pos + 1);
+      if (diff == 0) {
+        if (m_dequeuePos.compareAndSet(pos, pos + 1)) break;
+        pos = m_dequeuePos.get();
+      } else if (diff < 0) {
+        return null;
+      } else {
+        pos = m_dequeuePos.get();
+      }
+    }
+    T item = m_items.get(idx);
+    m_items.lazySet(idx, null);
+    /* slot now writable for the next lap */
+    m_sequence.lazySet(idx, pos + m_mask + 1);
+    return item;
+  }
+
+  /** Approximate number of queued elements. */
+  public int size() {
+    long size = m_enqueuePos.get() - m_dequeuePos.get();
+    return (int) Math.max(0, Math.min(size, m_mask + 1));
+  }
+
+  /** Maximum number of queued elements. */
+  public int capacity() {
+    return m_mask + 1;
+  }
+}
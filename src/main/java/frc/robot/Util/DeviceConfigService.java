@@ -0,0 +1,254 @@
+package frc.robot.Util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Applies device configs in parallel at boot and records a boot timeline.
+ *
+ * <p>Subsystem constructors {@link #submit} their configs instead of calling apply() themselves,
+ * so constructing the robot no longer waits on one CAN round trip after another. Each config is
+ * applied with a timeout, read back to verify it took, and retried a few times before it is
+ * reported as failed. A failed config raises an error {@link Alert} (from {@link #update()}, on the
+ * main thread), since the device may be running on whatever config it had before. Each device has
+ * one alert, on its {@link Handle}; it is cleared again once a later {@link #reapply} succeeds.
+ *
+ * <p>Every device (and any boot phase wrapped in {@link #timed}) gets a timeline entry: when it
+ * started and finished relative to JVM start, attempts, and outcome. The timeline is published
+ * under "Boot/" and written to the data log each time an entry finishes; Boot/ConfiguredMs is
+ * when the last outstanding config finished. Runtime re-applies (e.g. tuned gains) are only
+ * logged, so the timeline stays the boot's.
+ */
+public final class DeviceConfigService {
+  private DeviceConfigService() {}
+
+  private static final int kThreads = 4;
+  private static final double kApplyTimeoutSeconds = 0.1;
+  private static final int kMaxAttempts = 3;
+  private static final double kVerifyTolerance = 1e-3;
+
+  /** A device's config: progress of the latest apply, and the device's failure alert. */
+  public static final class Handle {
+    private final String m_name;
+    private final Alert m_alert;
+    private volatile boolean m_done = false;
+    private volatile boolean m_succeeded = false;
+    /* set on a worker when an apply finishes, for update() to mirror into the alert */
+    private volatile boolean m_alertDirty = false;
+
+    private Handle(String name) {
+      m_name = name;
+      m_alert = new Alert(name + " config failed to apply", AlertType.kError);
+    }
+
+    public String getName() {
+      return m_name;
+    }
+
+    /**
+     * True once the latest config was applied and verified, or all attempts failed. Only
+     * {@link #succeeded()} means the device is running it.
+     */
+    public boolean isDone() {
+      return m_done;
+    }
+
+    /** True if the latest config was applied and verified. */
+    public boolean succeeded() {
+      return m_succeeded;
+    }
+  }
+
+  /* Timeline, guarded by the class lock */
+  private static final List<String> s_names = new ArrayList<>();
+  private static final List<double[]> s_spans = new ArrayList<>(); // {startMs, endMs}
+  private static final List<String> s_outcomes = new ArrayList<>();
+
+  private static final AtomicInteger s_pending = new AtomicInteger();
+  /* finished on a worker, alert not updated yet */
+  private static final ConcurrentLinkedQueue<Handle> s_finished = new ConcurrentLinkedQueue<>();
+  private static final AtomicInteger s_threadCount = new AtomicInteger();
+  private static final ExecutorService s_executor = Executors.newFixedThreadPool(kThreads, runnable -> {
+    Thread thread = new Thread(runnable, "DeviceConfig-" + s_threadCount.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("Boot");
+  private static final StringArrayPublisher s_namesPub = s_table.getStringArrayTopic("Devices").publish();
+  private static final DoubleArrayPublisher s_startPub = s_table.getDoubleArrayTopic("StartMs").publish();
+  private static final DoubleArrayPublisher s_durationPub = s_table.getDoubleArrayTopic("DurationMs").publish();
+  private static final StringArrayPublisher s_outcomesPub = s_table.getStringArrayTopic("Outcomes").publish();
+  /* when the last outstanding config finished, ms since JVM start */
+  private static final DoublePublisher s_configuredPub = s_table.getDoubleTopic("ConfiguredMs").publish();
+
+  private static final long s_jvmStartNanos =
+      System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+
+  /**
+   * Queues a TalonFX config to be applied and verified on a worker thread.
+   *
+   * @param name   Name for the timeline, e.g. "Shooter"
+   * @param motor  Device to configure
+   * @param config Complete config; not modified afterwards by the caller
+   */
+  public static Handle submit(String name, TalonFX motor, TalonFXConfiguration config) {
+    final Handle handle = new Handle(name);
+    s_pending.incrementAndGet();
+    apply(handle, motor, config, true);
+    return handle;
+  }
+
+  /**
+   * Queues a new config for a device that was already {@link #submit submitted}, e.g. after a
+   * gain was tuned. The handle (and its alert) is reused and the result is only logged, not added
+   * to the boot timeline. Wait for {@link Handle#isDone()} before re-applying again.
+   *
+   * @param handle The device's handle from {@link #submit}
+   * @param motor  Device to configure
+   * @param config Complete config; not modified afterwards by the caller
+   */
+  public static void reapply(Handle handle, TalonFX motor, TalonFXConfiguration config) {
+    handle.m_done = false;
+    handle.m_succeeded = false;
+    apply(handle, motor, config, false);
+  }
+
+  private static void apply(Handle handle, TalonFX motor, TalonFXConfiguration config, boolean boot) {
+    final String name = handle.m_name;
+    s_executor.execute(() -> {
+      final double startMs = nowMs();
+      StatusCode status = StatusCode.OK;
+      int attempt = 0;
+      boolean verified = false;
+      while (!verified && attempt < kMaxAttempts) {
+        ++attempt;
+        status = motor.getConfigurator().apply(config, kApplyTimeoutSeconds);
+        if (status.isOK()) {
+          TalonFXConfiguration readback = new TalonFXConfiguration();
+          status = motor.getConfigurator().refresh(readback, kApplyTimeoutSeconds);
+          verified = status.isOK() && matches(config, readback);
+        }
+      }
+
+      handle.m_succeeded = verified;
+      handle.m_done = true;
+      String outcome = verified
+          ? "ok, " + attempt + " attempt(s)"
+          : "FAILED after " + attempt + " attempt(s): " + (status.isOK() ? "readback mismatch" : status.getName());
+      if (!verified) {
+        DriverStation.reportError("DeviceConfigService: " + name + " config " + outcome, false);
+      }
+      if (!handle.m_alertDirty) {
+        handle.m_alertDirty = true;
+        s_finished.add(handle);
+      }
+      if (boot) {
+        record(name, startMs, nowMs(), outcome);
+        if (s_pending.decrementAndGet() == 0) {
+          s_configuredPub.set(nowMs());
+        }
+      } else {
+        DataLogManager.log(String.format(
+            "DeviceConfigService: %s re-applied in %.1f ms, %s", name, nowMs() - startMs, outcome));
+      }
+    });
+  }
+
+  /**
+   * Runs a boot step on the calling thread and adds it to the timeline, e.g. constructing the
+   * drivetrain (whose devices the swerve API configures itself).
+   */
+  public static <T> T timed(String name, Supplier<T> step) {
+    final double startMs = nowMs();
+    T result = step.get();
+    record(name, startMs, nowMs(), "ok");
+    return result;
+  }
+
+  /**
+   * Raises the alerts for configs that failed since the last call, and clears them for devices
+   * whose config went on after all; call once per loop.
+   */
+  public static void update() {
+    Handle finished;
+    while ((finished = s_finished.poll()) != null) {
+      finished.m_alertDirty = false;
+      finished.m_alert.set(!finished.m_succeeded);
+    }
+  }
+
+  /** Number of submitted configs that haven't finished yet. */
+  public static int getPending() {
+    return s_pending.get();
+  }
+
+  private static synchronized void record(String name, double startMs, double endMs, String outcome) {
+    s_names.add(name);
+    s_spans.add(new double[] {startMs, endMs});
+    s_outcomes.add(outcome);
+    DataLogManager.log(String.format(
+        "Boot: %-20s %8.1f ms -> %8.1f ms (%6.1f ms) %s", name, startMs, endMs, endMs - startMs, outcome));
+
+    final int n = s_names.size();
+    double[] start = new double[n];
+    double[] duration = new double[n];
+    for (int i = 0; i < n; ++i) {
+      start[i] = s_spans.get(i)[0];
+      duration[i] = s_spans.get(i)[1] - s_spans.get(i)[0];
+    }
+    s_namesPub.set(s_names.toArray(new String[0]));
+    s_startPub.set(start);
+    s_durationPub.set(duration);
+    s_outcomesPub.set(s_outcomes.toArray(new String[0]));
+  }
+
+  /* Milliseconds since JVM start */
+  private static double nowMs() {
+    return (System.nanoTime() - s_jvmStartNanos) * 1e-6;
+  }
+
+  /* Compares the settings this robot actually uses; other fields are left at defaults anyway */
+  private static boolean matches(TalonFXConfiguration want, TalonFXConfiguration got) {
+    return close(want.Slot0.kP, got.Slot0.kP)
+        && close(want.Slot0.kI, got.Slot0.kI)
+        && close(want.Slot0.kD, got.Slot0.kD)
+        && close(want.Slot0.kS, got.Slot0.kS)
+        && close(want.Slot0.kV, got.Slot0.kV)
+        && close(want.Slot0.kA, got.Slot0.kA)
+        && close(want.Slot0.kG, got.Slot0.kG)
+        && close(want.Slot0.GravityArmPositionOffset, got.Slot0.GravityArmPositionOffset)
+        && want.Slot0.GravityType == got.Slot0.GravityType
+        && close(want.MotionMagic.MotionMagicCruiseVelocity, got.MotionMagic.MotionMagicCruiseVelocity)
+        && close(want.MotionMagic.MotionMagicAcceleration, got.MotionMagic.MotionMagicAcceleration)
+        && close(want.MotionMagic.MotionMagicExpo_kV, got.MotionMagic.MotionMagicExpo_kV)
+        && close(want.MotionMagic.MotionMagicExpo_kA, got.MotionMagic.MotionMagicExpo_kA)
+        && close(want.Feedback.SensorToMechanismRatio, got.Feedback.SensorToMechanismRatio)
+        && want.MotorOutput.NeutralMode == got.MotorOutput.NeutralMode
+        && want.MotorOutput.Inverted == got.MotorOutput.Inverted;
+  }
+
+  private static boolean close(double a, double b) {
+    return Math.abs(a - b) <= kVerifyTolerance * Math.max(1.0, Math.abs(a));
+  }
+}
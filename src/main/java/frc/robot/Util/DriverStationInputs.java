@@ -0,0 +1,123 @@
+package frc.robot.Util;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+
+/**
+ * Robot mode, alliance, match time and the driver/operator controllers, as the robot code saw
+ * them this loop. Recorded by {@link InputLogger} every loop and pushed back into the simulated
+ * driver station on replay, so commands bound to buttons run again.
+ */
+final class DriverStationInputs implements LoggableInputs {
+  private static final int kJoysticks = 3;
+  private static final int kAxes = 6;
+  private static final int kHeader = 8;
+  /* axes, axis count, buttons bitmask, button count, POV */
+  private static final int kJoystickStride = kAxes + 4;
+  private static final AllianceStationID[] kStations = AllianceStationID.values();
+
+  boolean enabled;
+  boolean autonomous;
+  boolean test;
+  boolean eStopped;
+  boolean dsAttached;
+  boolean fmsAttached;
+  int allianceStation;
+  double matchTime;
+  final double[][] axes = new double[kJoysticks][kAxes];
+  final int[] axisCounts = new int[kJoysticks];
+  final int[] buttons = new int[kJoysticks];
+  final int[] buttonCounts = new int[kJoysticks];
+  final int[] povs = new int[kJoysticks];
+
+  /** Reads the current driver station state. */
+  void capture() {
+    enabled = DriverStation.isEnabled();
+    autonomous = DriverStation.isAutonomous();
+    test = DriverStation.isTest();
+    eStopped = DriverStation.isEStopped();
+    dsAttached = DriverStation.isDSAttached();
+    fmsAttached = DriverStation.isFMSAttached();
+    allianceStation = DriverStation.getRawAllianceStation().ordinal();
+    matchTime = DriverStation.getMatchTime();
+    for (int j = 0; j < kJoysticks; ++j) {
+      /* only read what the controller has; asking for more logs a warning every time */
+      axisCounts[j] = Math.min(kAxes, DriverStation.getStickAxisCount(j));
+      for (int a = 0; a < kAxes; ++a) {
+        axes[j][a] = a < axisCounts[j] ? DriverStation.getStickAxis(j, a) : 0.0;
+      }
+      buttons[j] = DriverStation.getStickButtons(j);
+      buttonCounts[j] = DriverStation.getStickButtonCount(j);
+      povs[j] = DriverStation.getStickPOVCount(j) > 0 ? DriverStation.getStickPOV(j, 0) : -1;
+    }
+  }
+
+  /** Makes the simulated driver station report this state from the next loop on. */
+  void applyToSim() {
+    DriverStationSim.setEnabled(enabled);
+    DriverStationSim.setAutonomous(autonomous);
+    DriverStationSim.setTest(test);
+    DriverStationSim.setEStop(eStopped);
+    DriverStationSim.setDsAttached(dsAttached);
+    DriverStationSim.setFmsAttached(fmsAttached);
+    DriverStationSim.setAllianceStationId(kStations[allianceStation]);
+    DriverStationSim.setMatchTime(matchTime);
+    for (int j = 0; j < kJoysticks; ++j) {
+      DriverStationSim.setJoystickAxisCount(j, axisCounts[j]);
+      for (int a = 0; a < kAxes; ++a) {
+        DriverStationSim.setJoystickAxis(j, a, axes[j][a]);
+      }
+      DriverStationSim.setJoystickButtonCount(j, buttonCounts[j]);
+      DriverStationSim.setJoystickButtons(j, buttons[j]);
+      DriverStationSim.setJoystickPOVCount(j, 1);
+      DriverStationSim.setJoystickPOV(j, 0, povs[j]);
+    }
+    DriverStationSim.notifyNewData();
+  }
+
+  @Override
+  public int size() {
+    return kHeader + kJoysticks * kJoystickStride;
+  }
+
+  @Override
+  public void toLog(double[] out) {
+    out[0] = enabled ? 1.0 : 0.0;
+    out[1] = autonomous ? 1.0 : 0.0;
+    out[2] = test ? 1.0 : 0.0;
+    out[3] = eStopped ? 1.0 : 0.0;
+    out[4] = dsAttached ? 1.0 : 0.0;
+    out[5] = fmsAttached ? 1.0 : 0.0;
+    out[6] = allianceStation;
+    out[7] = matchTime;
+    for (int j = 0; j < kJoysticks; ++j) {
+      final int base = kHeader + j * kJoystickStride;
+      System.arraycopy(axes[j], 0, out, base, kAxes);
+      out[base + kAxes] = axisCounts[j];
+      out[base + kAxes + 1] = buttons[j];
+      out[base + kAxes + 2] = buttonCounts[j];
+      out[base + kAxes + 3] = povs[j];
+    }
+  }
+
+  @Override
+  public void fromLog(double[] in) {
+    enabled = in[0] != 0.0;
+    autonomous = in[1] != 0.0;
+    test = in[2] != 0.0;
+    eStopped = in[3] != 0.0;
+    dsAttached = in[4] != 0.0;
+    fmsAttached = in[5] != 0.0;
+    allianceStation = (int) in[6];
+    matchTime = in[7];
+    for (int j = 0; j < kJoysticks; ++j) {
+      final int base = kHeader + j * kJoystickStride;
+      System.arraycopy(in, base, axes[j], 0, kAxes);
+      axisCounts[j] = (int) in[base + kAxes];
+      buttons[j] = (int) in[base + kAxes + 1];
+      buttonCounts[j] = (int) in[base + kAxes + 2];
+      povs[j] = (int) in[base + kAxes + 3];
+    }
+  }
+}
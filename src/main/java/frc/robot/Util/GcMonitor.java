@@ -0,0 +1,189 @@
+package frc.robot.Util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ctre.phoenix6.SignalLogger;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+/**
+ * Garbage collection and allocation monitor for the running robot.
+ *
+ * <p>{@link #update()} runs once per loop and reads the collector MXBeans (collection count and
+ * time, which only count pauses for the collectors the roboRIO uses; concurrent G1 phases are
+ * skipped) and the bytes allocated by each tracked thread. The main thread is tracked from
+ * {@link #start()}; other threads, like the odometry thread, call {@link #trackCurrentThread} once
+ * from their own code. Per-loop GC time and collection count, heap use and allocated bytes per
+ * thread are published under "GC/" (at a low rate, within the {@link NtBudget}) and to SignalLogger every loop.
+ *
+ * <p>When a loop overruns (as counted by {@link LoopProfiler}) right when a collection happened
+ * (by the collection count, so pauses under a millisecond count too),
+ * the "GC pause during loop overrun" alert is raised and the event is logged, so a stutter on the
+ * field can be told apart from slow robot code. MXBean times are in whole milliseconds.
+ *
+ * <p>{@link #update()} only reads primitives and does not allocate unless it raises the alert.
+ * Main robot thread only, except {@link #trackCurrentThread}.
+ */
+public final class GcMonitor {
+  private GcMonitor() {}
+
+  private static final int kMaxThreads = 8;
+  private static final double kBytesToMB = 1.0 / (1024.0 * 1024.0);
+
+  private static GarbageCollectorMXBean[] s_collectors = new GarbageCollectorMXBean[0];
+  private static com.sun.management.ThreadMXBean s_threads = null;
+
+  /* tracked threads; written by the registering thread, published by the count */
+  private static final long[] s_threadIds = new long[kMaxThreads];
+  private static final String[] s_threadNames = new String[kMaxThreads];
+  private static volatile int s_threadCount = 0;
+
+  private static final long[] s_lastAllocated = new long[kMaxThreads];
+  /* sized to the tracked threads, replaced only when a thread is added */
+  private static double[] s_allocatedPerLoop = new double[0];
+  private static long s_lastCollections = 0;
+  private static long s_lastCollectionMs = 0;
+  private static long s_lastOverruns = 0;
+  private static long s_lastUpdateNanos = 0;
+  private static long s_previousPauseMs = 0;
+  private static long s_previousLoopCollections = 0;
+  private static long s_overlaps = 0;
+
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("GC");
+  private static final DoublePublisher s_pauseMsPub = s_table.getDoubleTopic("PauseMs").publish();
+  private static final IntegerPublisher s_collectionsPub = s_table.getIntegerTopic("Collections").publish();
+  private static final IntegerPublisher s_loopCollectionsPub = s_table.getIntegerTopic("CollectionsPerLoop").publish();
+  private static final DoublePublisher s_totalPauseMsPub = s_table.getDoubleTopic("TotalPauseMs").publish();
+  private static final DoublePublisher s_heapUsedPub = s_table.getDoubleTopic("HeapUsedMB").publish();
+  private static final StringArrayPublisher s_threadsPub = s_table.getStringArrayTopic("Threads").publish();
+  private static final DoubleArrayPublisher s_allocPerLoopPub = s_table.getDoubleArrayTopic("AllocBytesPerLoop").publish();
+  private static final DoublePublisher s_mainAllocRatePub = s_table.getDoubleTopic("MainAllocMBps").publish();
+  private static final IntegerPublisher s_overlapPub = s_table.getIntegerTopic("OverrunPauses").publish();
+
+  private static final int s_ntBudget = NtBudget.register("GC", NtBudget.Priority.LOW, 5.0, 104);
+
+  private static final Alert s_overrunAlert = new Alert("GC pause during loop overrun", AlertType.kWarning);
+
+  /** Finds the collectors and starts tracking the calling (main robot) thread. */
+  public static void start() {
+    List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    s_collectors = collectors.stream()
+        .filter(collector -> !collector.getName().contains("Concurrent"))
+        .toArray(GarbageCollectorMXBean[]::new);
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+        && threads.isThreadAllocatedMemorySupported()) {
+      threads.setThreadAllocatedMemoryEnabled(true);
+      s_threads = threads;
+    }
+    s_lastCollections = collectionCount();
+    s_lastCollectionMs = collectionMs();
+    s_lastOverruns = LoopProfiler.getOverruns();
+    trackCurrentThread("Main");
+  }
+
+  /**
+   * Adds the calling thread to the per-thread allocation numbers. Call once from the thread,
+   * e.g. the first odometry callback; later calls from the same thread are ignored.
+   */
+  public static synchronized void trackCurrentThread(String name) {
+    final long id = Thread.currentThread().getId();
+    final int count = s_threadCount;
+    for (int i = 0; i < count; ++i) {
+      if (s_threadIds[i] == id) return;
+    }
+    if (count == kMaxThreads) return;
+    s_threadIds[count] = id;
+    s_threadNames[count] = name;
+    s_threadCount = count + 1;
+  }
+
+  /** Samples and publishes; call once per loop, after {@link LoopProfiler#endLoop()}. */
+  public static void update() {
+    final long now = System.nanoTime();
+    final double dt = s_lastUpdateNanos != 0 ? (now - s_lastUpdateNanos) * 1e-9 : 0.0;
+    s_lastUpdateNanos = now;
+
+    final long collections = collectionCount();
+    final long collectionMs = collectionMs();
+    final long pauseMs = collectionMs - s_lastCollectionMs;
+    final long loopCollections = collections - s_lastCollections;
+    s_lastCollections = collections;
+    s_lastCollectionMs = collectionMs;
+
+    /*
+     * An overrun is only counted at the start of the next loop, so a pause inside the loop just
+     * finished shows up one update later; check this loop's pause and the one before.
+     */
+    final long overruns = LoopProfiler.getOverruns();
+    if (overruns != s_lastOverruns && (loopCollections > 0 || s_previousLoopCollections > 0)) {
+      ++s_overlaps;
+      s_overrunAlert.setText("GC pause during loop overrun (" + s_overlaps + "x, last "
+          + Math.max(pauseMs, s_previousPauseMs) + " ms)");
+      s_overrunAlert.set(true);
+      DataLogManager.log("GcMonitor: loop overrun with a " + Math.max(pauseMs, s_previousPauseMs) + " ms GC pause");
+      s_overlapPub.set(s_overlaps);
+    }
+    s_lastOverruns = overruns;
+    s_previousPauseMs = pauseMs;
+    s_previousLoopCollections = loopCollections;
+
+    final int threadCount = s_threadCount;
+    if (threadCount != s_allocatedPerLoop.length) {
+      s_allocatedPerLoop = new double[threadCount];
+      s_threadsPub.set(Arrays.copyOf(s_threadNames, threadCount));
+    }
+    if (s_threads != null) {
+      for (int i = 0; i < threadCount; ++i) {
+        final long allocated = s_threads.getThreadAllocatedBytes(s_threadIds[i]);
+        s_allocatedPerLoop[i] = s_lastAllocated[i] != 0 && allocated >= 0 ? allocated - s_lastAllocated[i] : 0.0;
+        s_lastAllocated[i] = allocated;
+      }
+    }
+
+    final Runtime runtime = Runtime.getRuntime();
+    final double heapUsedMB = (runtime.totalMemory() - runtime.freeMemory()) * kBytesToMB;
+    final double mainAllocRate = dt > 0.0 && threadCount > 0 ? s_allocatedPerLoop[0] * kBytesToMB / dt : 0.0;
+
+    if (NtBudget.shouldSend(s_ntBudget)) {
+      s_allocPerLoopPub.set(s_allocatedPerLoop);
+      s_pauseMsPub.set(pauseMs);
+      s_collectionsPub.set(collections);
+      s_loopCollectionsPub.set(loopCollections);
+      s_totalPauseMsPub.set(collectionMs);
+      s_heapUsedPub.set(heapUsedMB);
+      s_mainAllocRatePub.set(mainAllocRate);
+    }
+    SignalLogger.writeDouble("GC/PauseMs", pauseMs, "ms");
+    SignalLogger.writeInteger("GC/CollectionsPerLoop", loopCollections, "");
+    SignalLogger.writeDouble("GC/HeapUsedMB", heapUsedMB, "MB");
+    SignalLogger.writeDouble("GC/MainAllocMBps", mainAllocRate, "MB/s");
+    SignalLogger.writeDoubleArray("GC/AllocBytesPerLoop", s_allocatedPerLoop, "B");
+  }
+
+  private static long collectionCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean collector : s_collectors) {
+      count += Math.max(0, collector.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long collectionMs() {
+    long ms = 0;
+    for (GarbageCollectorMXBean collector : s_collectors) {
+      ms += Math.max(0, collector.getCollectionTime());
+    }
+    return ms;
+  }
+}
@@ -0,0 +1,223 @@
+package frc.robot.Util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Records every input the robot code reads from hardware, and plays a recording back.
+ *
+ * <p>Subsystems read their hardware through an IO interface into a {@link LoggableInputs} object,
+ * {@link #register} it once and call {@link #process} right after every read. When recording
+ * (the default, on the robot and in simulation) the inputs are written to the WPILib data log as
+ * "Inputs/name" double arrays, only when they changed; "Inputs/Loop" marks where each loop
+ * starts, and the driver station state is recorded with it. The data log is binary and written on
+ * its own thread, so recording costs the loop a copy and a compare per source.
+ *
+ * <p>For replay, {@link #startReplay} loads a log before the robot is constructed and the
+ * subsystems are given their replay IO, which does nothing. {@link #nextLoop()} then steps
+ * through the recorded loops: it pushes the recorded driver station state into the simulated
+ * driver station, and every {@link #process} call in that loop overwrites the inputs with the
+ * recorded ones. See frc.robot.Sim.ReplayRunner.
+ *
+ * <p>Main robot thread only.
+ */
+public final class InputLogger {
+  private InputLogger() {}
+
+  private static final String kPrefix = "Inputs/";
+  private static final String kDriverStation = "DriverStation";
+  private static final int kMaxSources = 16;
+
+  private static boolean s_started = false;
+  private static boolean s_replay = false;
+
+  private static final String[] s_names = new String[kMaxSources];
+  private static final LoggableInputs[] s_inputs = new LoggableInputs[kMaxSources];
+  private static int s_count = 0;
+
+  /* recording */
+  private static final DoubleArrayLogEntry[] s_entries = new DoubleArrayLogEntry[kMaxSources];
+  private static final double[][] s_buffers = new double[kMaxSources][0];
+  private static final double[][] s_last = new double[kMaxSources][];
+  private static IntegerLogEntry s_loopEntry;
+  private static long s_loop = 0;
+  private static long s_timestampUs = 0;
+
+  /* replay: per recorded loop, the values of every source in the log (carried forward) */
+  private static String[] s_logNames = new String[0];
+  private static final int[] s_logIndex = new int[kMaxSources];
+  private static List<double[][]> s_loopValues = new ArrayList<>();
+  private static long[] s_loopTimestamps = new long[0];
+  private static int s_replayLoop = -1;
+
+  private static final DriverStationInputs s_driverStation = new DriverStationInputs();
+  private static int s_driverStationId = -1;
+
+  /** Starts recording, unless {@link #startReplay} was called first. Call once at boot. */
+  public static void start() {
+    if (s_started) return;
+    s_started = true;
+    final DataLog log = DataLogManager.getLog();
+    s_loopEntry = new IntegerLogEntry(log, kPrefix + "Loop");
+    for (int i = 0; i < s_count; ++i) {
+      s_entries[i] = new DoubleArrayLogEntry(log, kPrefix + s_names[i]);
+    }
+    s_driverStationId = register(kDriverStation, s_driverStation);
+  }
+
+  /**
+   * Loads a recorded log to replay; call before the robot (and its subsystems) are constructed.
+   *
+   * @return Number of recorded loops
+   */
+  public static int startReplay(String path) throws IOException {
+    final DataLogReader reader = new DataLogReader(path);
+    if (!reader.isValid()) {
+      throw new IOException(path + " is not a data log");
+    }
+
+    final Map<Integer, Integer> sourceByEntry = new HashMap<>();
+    final List<String> names = new ArrayList<>();
+    final List<double[][]> loops = new ArrayList<>();
+    final List<Long> timestamps = new ArrayList<>();
+    int loopEntry = -1;
+    double[][] current = new double[0][];
+    for (DataLogRecord record : reader) {
+      if (record.isStart()) {
+        final DataLogRecord.StartRecordData start = record.getStartData();
+        if (start.name.equals(kPrefix + "Loop")) {
+          loopEntry = start.entry;
+        } else if (start.name.startsWith(kPrefix)) {
+          sourceByEntry.put(start.entry, names.size());
+          names.add(start.name.substring(kPrefix.length()));
+        }
+      } else if (!record.isControl()) {
+        if (record.getEntry() == loopEntry) {
+          /* a new loop starts with the previous loop's values */
+          current = Arrays.copyOf(current, names.size());
+          loops.add(current);
+          timestamps.add(record.getTimestamp());
+        } else {
+          final Integer source = sourceByEntry.get(record.getEntry());
+          if (source != null && !loops.isEmpty()) {
+            if (source >= current.length) {
+              current = Arrays.copyOf(current, names.size());
+              loops.set(loops.size() - 1, current);
+            }
+            current[source] = record.getDoubleArray();
+          }
+        }
+      }
+    }
+
+    s_logNames = names.toArray(new String[0]);
+    s_loopValues = loops;
+    s_loopTimestamps = timestamps.stream().mapToLong(Long::longValue).toArray();
+    s_replayLoop = -1;
+    s_replay = true;
+    s_started = true;
+    s_driverStationId = register(kDriverStation, s_driverStation);
+    DataLogManager.log("InputLogger: replaying " + loops.size() + " loops from " + path);
+    return loops.size();
+  }
+
+  /** True when inputs come from a recorded log instead of hardware. */
+  public static boolean isReplay() {
+    return s_replay;
+  }
+
+  /**
+   * Adds a source of inputs; call once, e.g. from a subsystem constructor.
+   *
+   * @param name   Unique name, e.g. "Shooter"
+   * @param inputs Object {@link #process} records from or replays into
+   * @return Id for {@link #process}
+   */
+  public static int register(String name, LoggableInputs inputs) {
+    if (s_count == kMaxSources) {
+      throw new IllegalStateException("InputLogger: more than " + kMaxSources + " sources");
+    }
+    final int id = s_count++;
+    s_names[id] = name;
+    s_inputs[id] = inputs;
+    if (s_replay) {
+      s_logIndex[id] = Arrays.asList(s_logNames).indexOf(name);
+      if (s_logIndex[id] < 0) {
+        DriverStation.reportWarning("InputLogger: no " + name + " inputs in the replayed log", false);
+      }
+    } else if (s_started) {
+      s_entries[id] = new DoubleArrayLogEntry(DataLogManager.getLog(), kPrefix + name);
+    }
+    return id;
+  }
+
+  /** Marks the start of a loop and records the driver station; call first in robotPeriodic(). */
+  public static void beginLoop() {
+    if (!s_started || s_replay) return;
+    s_timestampUs = RobotController.getFPGATime();
+    s_loopEntry.append(s_loop++, s_timestampUs);
+    s_driverStation.capture();
+    process(s_driverStationId);
+  }
+
+  /** Records the source's inputs, or on replay overwrites them with the recorded ones. */
+  public static void process(int id) {
+    final LoggableInputs inputs = s_inputs[id];
+    if (s_replay) {
+      if (s_replayLoop < 0 || s_logIndex[id] < 0) return;
+      final double[][] values = s_loopValues.get(s_replayLoop);
+      final int index = s_logIndex[id];
+      if (index < values.length && values[index] != null) {
+        inputs.fromLog(values[index]);
+      }
+      return;
+    }
+    if (!s_started) return;
+
+    final int size = inputs.size();
+    if (s_buffers[id].length != size) {
+      s_buffers[id] = new double[size];
+    }
+    final double[] buffer = s_buffers[id];
+    inputs.toLog(buffer);
+    /* only changes go into the log; replay carries values forward */
+    if (s_last[id] != null && Arrays.equals(s_last[id], buffer)) return;
+    if (s_last[id] == null || s_last[id].length != size) {
+      s_last[id] = new double[size];
+    }
+    System.arraycopy(buffer, 0, s_last[id], 0, size);
+    s_entries[id].append(buffer, s_timestampUs);
+  }
+
+  /**
+   * Replay: moves to the next recorded loop and makes the simulated driver station report what
+   * was recorded for it; then run one robot loop.
+   *
+   * @return false once every loop was replayed
+   */
+  public static boolean nextLoop() {
+    if (s_replayLoop + 1 >= s_loopValues.size()) return false;
+    ++s_replayLoop;
+    process(s_driverStationId);
+    s_driverStation.applyToSim();
+    return true;
+  }
+
+  /** Replay: FPGA time the current loop was recorded at, in seconds. */
+  public static double getLoopTimestamp() {
+    return s_replayLoop >= 0 ? s_loopTimestamps[s_replayLoop] * 1e-6 : 0.0;
+  }
+}
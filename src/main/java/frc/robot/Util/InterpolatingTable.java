@@ -0,0 +1,86 @@
+package frc.robot.Util;
+
+import java.util.Arrays;
+
+/**
+ * Piecewise-linear lookup over sorted sample points, with any number of value columns sharing one
+ * key column (e.g. distance -> shooter RPS and time of flight). Keys outside the table clamp to
+ * the end points.
+ *
+ * <p>Stored as primitive arrays and searched by bisection, so lookups don't box or allocate,
+ * unlike InterpolatingDoubleTreeMap.
+ */
+public class InterpolatingTable {
+  private final int m_columns;
+  private double[] m_keys = new double[0];
+  /* row-major: m_values[row * m_columns + column] */
+  private double[] m_values = new double[0];
+  private int m_size = 0;
+
+  public InterpolatingTable(int columns) {
+    m_columns = columns;
+  }
+
+  /** Inserts a row, or replaces the row with the same key. Values are copied. */
+  public void put(double key, double... values) {
+    if (values.length != m_columns) {
+      throw new IllegalArgumentException("expected " + m_columns + " values, got " + values.length);
+    }
+    int i = Arrays.binarySearch(m_keys, 0, m_size, key);
+    if (i < 0) {
+      i = -i - 1;
+      if (m_size == m_keys.length) {
+        final int capacity = Math.max(8, 2 * m_size);
+        m_keys = Arrays.copyOf(m_keys, capacity);
+        m_values = Arrays.copyOf(m_values, capacity * m_columns);
+      }
+      System.arraycopy(m_keys, i, m_keys, i + 1, m_size - i);
+      System.arraycopy(m_values, i * m_columns, m_values, (i + 1) * m_columns, (m_size - i) * m_columns);
+      ++m_size;
+    }
+    m_keys[i] = key;
+    System.arraycopy(values, 0, m_values, i * m_columns, m_columns);
+  }
+
+  /** Interpolated value of one column at the key; NaN if the table is empty. */
+  public double get(double key, int column) {
+    if (m_size == 0) return Double.NaN;
+    if (key <= m_keys[0]) return m_values[column];
+    if (key >= m_keys[m_size - 1]) return m_values[(m_size - 1) * m_columns + column];
+
+    int hi = Arrays.binarySearch(m_keys, 0, m_size, key);
+    if (hi >= 0) return m_values[hi * m_columns + column];
+    hi = -hi - 1;
+    final int lo = hi - 1;
+    final double t = (key - m_keys[lo]) / (m_keys[hi] - m_keys[lo]);
+    final double a = m_values[lo * m_columns + column];
+    final double b = m_values[hi * m_columns + column];
+    return a + (b - a) * t;
+  }
+
+  public int size() {
+    return m_size;
+  }
+
+  public int getColumns() {
+    return m_columns;
+  }
+
+  public double getKey(int row) {
+    return m_keys[row];
+  }
+
+  public double getValue(int row, int column) {
+    return m_values[row * m_columns + column];
+  }
+
+  public void remove(int row) {
+    System.arraycopy(m_keys, row + 1, m_keys, row, m_size - row - 1);
+    System.arraycopy(m_values, (row + 1) * m_columns, m_values, row * m_columns, (m_size - row - 1) * m_columns);
+    --m_size;
+  }
+
+  public void clear() {
+    m_size = 0;
+  }
+}
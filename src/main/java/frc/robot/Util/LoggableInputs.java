@@ -0,0 +1,15 @@
+package frc.robot.Util;
+
+/**
+ * A set of per-loop inputs that {@link InputLogger} can record and replay, flattened to doubles.
+ */
+public interface LoggableInputs {
+  /** Number of doubles {@link #toLog} writes right now. */
+  int size();
+
+  /** Writes the inputs into the first {@link #size()} entries of out. */
+  void toLog(double[] out);
+
+  /** Restores the inputs from a recorded array. */
+  void fromLog(double[] in);
+}
@@ -0,0 +1,330 @@
+package frc.robot.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.ctre.phoenix6.SignalLogger;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Loop-time profiler for the main robot thread.
+ *
+ * <p>Subsystems wrap their periodic() in {@link #begin(int)} / {@link #end(int)} using an id from
+ * {@link #register(String)}. Command initialize/execute/end are timed through the
+ * CommandScheduler hooks: the scheduler only tells us about a command after it ran, so each hook
+ * is charged the time since the previous profiler mark (any trigger polling in between is charged
+ * to the next command).
+ *
+ * <p>Every entry keeps a rolling window of per-loop cost in a primitive array. One entry per loop
+ * is reduced to p50/p99/max and written to SignalLogger, and published to NetworkTables
+ * ("Profiler/...") within the {@link NtBudget}, so the reporting cost is constant. Loop time is
+ * logged every loop and published at a lower rate. The full event timeline of the worst loops is kept and can be
+ * exported as a Chrome trace (open in Perfetto or chrome://tracing).
+ *
+ * <p>Only call this from the main robot thread. Nothing here allocates once all entries have been
+ * registered.
+ */
+public final class LoopProfiler {
+  private LoopProfiler() {}
+
+  private static final int kMaxEntries = 64;
+  // Per-entry rolling window, ~5 s at 50 Hz (power of two so we can mask)
+  private static final int kWindow = 256;
+  private static final int kMaxEventsPerLoop = 256;
+  private static final int kWorstLoops = 8;
+  private static final double kNsToMs = 1e-6;
+
+  private static final String kTraceFile = "logs/worst-loops.trace.json";
+
+  /* Entry table */
+  private static final String[] s_names = new String[kMaxEntries];
+  private static final DoubleArrayPublisher[] s_statPubs = new DoubleArrayPublisher[kMaxEntries];
+  private static final String[] s_logKeys = new String[kMaxEntries];
+  private static int s_entryCount = 0;
+
+  private static final long[] s_window = new long[kMaxEntries * kWindow];
+  private static final int[] s_windowCount = new int[kMaxEntries];
+  private static final long[] s_beginNs = new long[kMaxEntries];
+  private static final long[] s_loopAccumNs = new long[kMaxEntries];
+  private static final boolean[] s_ranThisLoop = new boolean[kMaxEntries];
+  private static final int[] s_touched = new int[kMaxEntries];
+  private static int s_touchedCount = 0;
+
+  /* Command -> first of three consecutive entry ids (initialize, execute, end) */
+  private static final IdentityHashMap<Command, Integer> s_commandIds = new IdentityHashMap<>();
+
+  /* Events of the loop in progress */
+  private static final int[] s_evId = new int[kMaxEventsPerLoop];
+  private static final long[] s_evStart = new long[kMaxEventsPerLoop];
+  private static final long[] s_evDur = new long[kMaxEventsPerLoop];
+  private static int s_evCount = 0;
+
+  /* Worst loops seen so far, kept for the trace export */
+  private static final long[] s_worstDur = new long[kWorstLoops];
+  private static final long[] s_worstLoopIndex = new long[kWorstLoops];
+  private static final int[] s_worstEvCount = new int[kWorstLoops];
+  private static final int[] s_worstEvId = new int[kWorstLoops * kMaxEventsPerLoop];
+  private static final long[] s_worstEvStart = new long[kWorstLoops * kMaxEventsPerLoop];
+  private static final long[] s_worstEvDur = new long[kWorstLoops * kMaxEventsPerLoop];
+
+  private static final long[] s_scratch = new long[kWindow];
+  private static final double[] s_stats = new double[3];
+
+  private static boolean s_inLoop = false;
+  private static long s_loopStartNs = 0;
+  private static long s_lastLoopStartNs = 0;
+  private static long s_lastMarkNs = 0;
+  private static long s_loopIndex = 0;
+  private static long s_overruns = 0;
+  private static long s_periodNs = 20_000_000L;
+  private static int s_publishCursor = 0;
+  private static double s_lastPeriodMs = 0.0;
+
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("Profiler");
+  private static final DoublePublisher s_loopMsPub = s_table.getDoubleTopic("LoopMs").publish();
+  private static final DoublePublisher s_periodMsPub = s_table.getDoubleTopic("PeriodMs").publish();
+  private static final IntegerPublisher s_overrunPub = s_table.getIntegerTopic("Overruns").publish();
+  private static final int s_loopBudget = NtBudget.register("Profiler/Loop", NtBudget.Priority.NORMAL, 10.0, 56);
+  private static final int s_entryBudget = NtBudget.register("Profiler/Entries", NtBudget.Priority.LOW, 25.0, 24);
+
+  /**
+   * Installs the command scheduler hooks. Call once from the Robot constructor, before any
+   * commands are scheduled.
+   *
+   * @param periodSeconds Nominal loop period, used to count overruns
+   */
+  public static void start(double periodSeconds) {
+    s_periodNs = (long) (periodSeconds * 1e9);
+    CommandScheduler scheduler = CommandScheduler.getInstance();
+    scheduler.onCommandInitialize(command -> markCommand(command, 0));
+    scheduler.onCommandExecute(command -> markCommand(command, 1));
+    scheduler.onCommandFinish(command -> markCommand(command, 2));
+    scheduler.onCommandInterrupt(command -> markCommand(command, 2));
+  }
+
+  /**
+   * Registers a named entry. Intended for static initializers; this allocates.
+   *
+   * @param name Name shown in NT, the log and the trace
+   * @return id to pass to {@link #begin(int)} / {@link #end(int)}, or -1 once the table is full
+   */
+  public static int register(String name) {
+    if (s_entryCount >= kMaxEntries) {
+      DriverStation.reportWarning("LoopProfiler: entry table full, not profiling " + name, false);
+      return -1;
+    }
+    int id = s_entryCount++;
+    s_names[id] = name;
+    s_logKeys[id] = "Profiler/" + name;
+    s_statPubs[id] = s_table.getDoubleArrayTopic(name).publish();
+    return id;
+  }
+
+  /** Marks the start of a loop. Call first thing in robotPeriodic(). */
+  public static void startLoop() {
+    long now = System.nanoTime();
+    if (s_lastLoopStartNs != 0) {
+      long period = now - s_lastLoopStartNs;
+      s_lastPeriodMs = period * kNsToMs;
+      if (period > s_periodNs + s_periodNs / 20) {
+        s_overruns++;
+      }
+    }
+    s_lastLoopStartNs = now;
+    s_loopStartNs = now;
+    s_lastMarkNs = now;
+    s_evCount = 0;
+    s_inLoop = true;
+  }
+
+  /** Marks the end of a loop. Call last thing in robotPeriodic(). */
+  public static void endLoop() {
+    long now = System.nanoTime();
+    long loopNs = now - s_loopStartNs;
+    s_inLoop = false;
+
+    for (int i = 0; i < s_touchedCount; ++i) {
+      int id = s_touched[i];
+      s_window[id * kWindow + (s_windowCount[id] & (kWindow - 1))] = s_loopAccumNs[id];
+      s_windowCount[id]++;
+      s_loopAccumNs[id] = 0;
+      s_ranThisLoop[id] = false;
+    }
+    s_touchedCount = 0;
+
+    keepIfWorst(loopNs);
+
+    if (NtBudget.shouldSend(s_loopBudget)) {
+      s_loopMsPub.set(loopNs * kNsToMs);
+      s_periodMsPub.set(s_lastPeriodMs);
+      s_overrunPub.set(s_overruns);
+    }
+    SignalLogger.writeDouble("Profiler/LoopMs", loopNs * kNsToMs, "ms");
+
+    /* Reduce and publish a single entry per loop so reporting cost stays flat */
+    if (s_entryCount > 0) {
+      publishEntry(s_publishCursor);
+      s_publishCursor = (s_publishCursor + 1) % s_entryCount;
+    }
+    s_loopIndex++;
+  }
+
+  /** Starts timing the given entry. */
+  public static void begin(int id) {
+    if (id < 0) return;
+    long now = System.nanoTime();
+    s_beginNs[id] = now;
+    s_lastMarkNs = now;
+  }
+
+  /** Stops timing the given entry and charges the elapsed time to it. */
+  public static void end(int id) {
+    if (id < 0) return;
+    long now = System.nanoTime();
+    record(id, s_beginNs[id], now - s_beginNs[id]);
+    s_lastMarkNs = now;
+  }
+
+  /**
+   * Writes the worst loops seen so far as a Chrome trace. Each loop gets its own track, with
+   * times relative to the start of that loop. Does file I/O, so only call while disabled.
+   */
+  public static void exportWorstLoops() {
+    StringBuilder sb = new StringBuilder(64 * 1024);
+    sb.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+    boolean first = true;
+    int rank = 0;
+    for (int slot : worstSlotsByDuration()) {
+      if (s_worstDur[slot] == 0) continue;
+      ++rank;
+      if (!first) sb.append(',');
+      first = false;
+      sb.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(rank)
+        .append(",\"args\":{\"name\":\"#").append(rank).append(" loop ").append(s_worstLoopIndex[slot])
+        .append(" (").append(String.format("%.3f", s_worstDur[slot] * kNsToMs)).append(" ms)\"}}");
+      int base = slot * kMaxEventsPerLoop;
+      for (int e = 0; e < s_worstEvCount[slot]; ++e) {
+        sb.append(",{\"name\":\"").append(escape(s_names[s_worstEvId[base + e]]))
+          .append("\",\"ph\":\"X\",\"pid\":1,\"tid\":").append(rank)
+          .append(",\"ts\":").append(s_worstEvStart[base + e] / 1000.0)
+          .append(",\"dur\":").append(s_worstEvDur[base + e] / 1000.0).append('}');
+      }
+    }
+    sb.append("]}");
+
+    File out = new File(Filesystem.getOperatingDirectory(), kTraceFile);
+    try {
+      out.getParentFile().mkdirs();
+      Files.writeString(out.toPath(), sb, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      DriverStation.reportWarning("LoopProfiler: could not write " + out + ": " + e.getMessage(), false);
+    }
+  }
+
+  /** Loops so far that started more than 5% late. */
+  public static long getOverruns() {
+    return s_overruns;
+  }
+
+  /** Clears the worst-loop history, e.g. at the start of a match. */
+  public static void resetWorstLoops() {
+    Arrays.fill(s_worstDur, 0);
+    Arrays.fill(s_worstEvCount, 0);
+  }
+
+  private static void markCommand(Command command, int phase) {
+    long now = System.nanoTime();
+    if (s_inLoop) {
+      Integer base = s_commandIds.get(command);
+      if (base == null) {
+        base = registerCommand(command);
+      }
+      if (base >= 0) {
+        record(base + phase, s_lastMarkNs, now - s_lastMarkNs);
+      }
+    }
+    s_lastMarkNs = now;
+  }
+
+  private static int registerCommand(Command command) {
+    String name = "Cmd/" + command.getName();
+    int base = -1;
+    if (s_entryCount + 3 <= kMaxEntries) {
+      base = register(name + ".initialize");
+      register(name + ".execute");
+      register(name + ".end");
+    }
+    s_commandIds.put(command, base);
+    return base;
+  }
+
+  private static void record(int id, long startNs, long durNs) {
+    s_loopAccumNs[id] += durNs;
+    if (!s_ranThisLoop[id]) {
+      s_ranThisLoop[id] = true;
+      s_touched[s_touchedCount++] = id;
+    }
+    if (s_inLoop && s_evCount < kMaxEventsPerLoop) {
+      s_evId[s_evCount] = id;
+      s_evStart[s_evCount] = startNs - s_loopStartNs;
+      s_evDur[s_evCount] = durNs;
+      s_evCount++;
+    }
+  }
+
+  private static void keepIfWorst(long loopNs) {
+    int slot = 0;
+    for (int i = 1; i < kWorstLoops; ++i) {
+      if (s_worstDur[i] < s_worstDur[slot]) slot = i;
+    }
+    if (loopNs <= s_worstDur[slot]) return;
+
+    s_worstDur[slot] = loopNs;
+    s_worstLoopIndex[slot] = s_loopIndex;
+    s_worstEvCount[slot] = s_evCount;
+    int base = slot * kMaxEventsPerLoop;
+    System.arraycopy(s_evId, 0, s_worstEvId, base, s_evCount);
+    System.arraycopy(s_evStart, 0, s_worstEvStart, base, s_evCount);
+    System.arraycopy(s_evDur, 0, s_worstEvDur, base, s_evCount);
+  }
+
+  private static void publishEntry(int id) {
+    int n = Math.min(s_windowCount[id], kWindow);
+    if (n == 0) return;
+    System.arraycopy(s_window, id * kWindow, s_scratch, 0, n);
+    Arrays.sort(s_scratch, 0, n);
+    s_stats[0] = s_scratch[n / 2] * kNsToMs;
+    s_stats[1] = s_scratch[Math.min(n - 1, (int) (n * 0.99))] * kNsToMs;
+    s_stats[2] = s_scratch[n - 1] * kNsToMs;
+    if (NtBudget.shouldSend(s_entryBudget)) {
+      s_statPubs[id].set(s_stats);
+    }
+    SignalLogger.writeDoubleArray(s_logKeys[id], s_stats, "ms");
+  }
+
+  private static int[] worstSlotsByDuration() {
+    Integer[] slots = new Integer[kWorstLoops];
+    for (int i = 0; i < kWorstLoops; ++i) slots[i] = i;
+    Arrays.sort(slots, (a, b) -> Long.compare(s_worstDur[b], s_worstDur[a]));
+    int[] out = new int[kWorstLoops];
+    for (int i = 0; i < kWorstLoops; ++i) out[i] = slots[i];
+    return out;
+  }
+
+  private static String escape(String s) {
+    return s.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
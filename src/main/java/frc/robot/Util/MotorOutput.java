@@ -0,0 +1,134 @@
+package frc.robot.Util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ctre.phoenix6.controls.ControlRequest;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+
+/**
+ * Sends control requests to a TalonFX only when something changed.
+ *
+ * <p>Mechanisms tend to call setControl() every loop with the same setpoint. Phoenix already keeps
+ * the last request going on the bus by itself, so those repeats only cost a JNI call and a fresh
+ * control frame. A MotorOutput remembers the request object and the parameters it was last sent
+ * with, and forwards a call only when either differs or the keep-alive interval has passed (so a
+ * request is never stale for long, e.g. after a device reset).
+ *
+ * <p>Callers pass the parameters they set on the request, since that is all that can change
+ * between loops for a given request object. Send/suppress counts for every output are published
+ * under "MotorOutput/" by {@link #publishStats()}, within the {@link NtBudget}. Main robot thread only.
+ */
+public class MotorOutput {
+  private static final long kKeepAliveNanos = 500_000_000L;
+  private static final int kPublishEveryLoops = 50;
+
+  private static final List<MotorOutput> s_outputs = new ArrayList<>();
+  private static int s_loopCount = 0;
+  /* four arrays over every output; the cap leaves headroom over the ~1 Hz publishStats() rate */
+  private static final int s_ntBudget = NtBudget.register("MotorOutput", NtBudget.Priority.LOW, 2.0, 512);
+
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("MotorOutput");
+  private static final StringArrayPublisher s_namesPub = s_table.getStringArrayTopic("Names").publish();
+  private static final DoubleArrayPublisher s_sentPub = s_table.getDoubleArrayTopic("Sent").publish();
+  private static final DoubleArrayPublisher s_suppressedPub = s_table.getDoubleArrayTopic("Suppressed").publish();
+  private static final DoubleArrayPublisher s_sendRatioPub = s_table.getDoubleArrayTopic("SendRatio").publish();
+
+  private final String m_name;
+  private final TalonFX m_motor;
+
+  private ControlRequest m_lastRequest = null;
+  private double m_lastParam0 = Double.NaN;
+  private double m_lastParam1 = Double.NaN;
+  private long m_lastSendNanos = 0;
+
+  private long m_sent = 0;
+  private long m_suppressed = 0;
+
+  public MotorOutput(String name, TalonFX motor) {
+    m_name = name;
+    m_motor = motor;
+    s_outputs.add(this);
+  }
+
+  /**
+   * Sends the request if it differs from the last one sent.
+   *
+   * @param request Request, already updated with {@code param}
+   * @param param   The parameter that was set on it (e.g. velocity or position)
+   */
+  public void set(ControlRequest request, double param) {
+    set(request, param, 0.0);
+  }
+
+  /**
+   * Sends the request if it differs from the last one sent.
+   *
+   * @param request Request, already updated with both parameters
+   * @param param0  First parameter set on it (e.g. position)
+   * @param param1  Second parameter set on it (e.g. feedforward)
+   */
+  public void set(ControlRequest request, double param0, double param1) {
+    final long now = System.nanoTime();
+    if (request == m_lastRequest
+        && Double.compare(param0, m_lastParam0) == 0
+        && Double.compare(param1, m_lastParam1) == 0
+        && now - m_lastSendNanos < kKeepAliveNanos) {
+      ++m_suppressed;
+      return;
+    }
+    m_motor.setControl(request);
+    m_lastRequest = request;
+    m_lastParam0 = param0;
+    m_lastParam1 = param1;
+    m_lastSendNanos = now;
+    ++m_sent;
+  }
+
+  /** Forgets the last request so the next {@link #set} always goes out. */
+  public void invalidate() {
+    m_lastRequest = null;
+  }
+
+  public TalonFX getMotor() {
+    return m_motor;
+  }
+
+  public long getSentCount() {
+    return m_sent;
+  }
+
+  public long getSuppressedCount() {
+    return m_suppressed;
+  }
+
+  /** Publishes send/suppress counts for every output about once a second; call every loop. */
+  public static void publishStats() {
+    if (++s_loopCount < kPublishEveryLoops) return;
+    s_loopCount = 0;
+    if (!NtBudget.shouldSend(s_ntBudget)) return;
+
+    final int n = s_outputs.size();
+    String[] names = new String[n];
+    double[] sent = new double[n];
+    double[] suppressed = new double[n];
+    double[] ratio = new double[n];
+    for (int i = 0; i < n; ++i) {
+      MotorOutput output = s_outputs.get(i);
+      names[i] = output.m_name;
+      sent[i] = output.m_sent;
+      suppressed[i] = output.m_suppressed;
+      final long total = output.m_sent + output.m_suppressed;
+      ratio[i] = total > 0 ? (double) output.m_sent / total : 1.0;
+    }
+    s_namesPub.set(names);
+    s_sentPub.set(sent);
+    s_suppressedPub.set(suppressed);
+    s_sendRatioPub.set(ratio);
+  }
+}
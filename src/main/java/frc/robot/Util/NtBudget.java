@@ -0,0 +1,153 @@
+package frc.robot.Util;
+
+import java.util.Arrays;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringArrayPublisher;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Keeps our NetworkTables traffic inside a bytes-per-second budget, so it can't crowd the camera
+ * streams and driver data off the radio at events.
+ *
+ * <p>Each topic (or group of topics sent together) is {@link #register registered} with a
+ * priority, a maximum rate and its payload size, and the publishing code asks {@link #shouldSend}
+ * before each send. Sends come out of a token bucket refilled at the budget rate: HIGH topics may
+ * use all of it, NORMAL topics only while a quarter of the bucket is left and LOW topics only
+ * while half is, so when traffic is tight the low priority topics are decimated first and then
+ * dropped. CRITICAL topics (pose) are only held to their own rate and always go out. The budget is
+ * tighter while the FMS is attached than in the pits.
+ *
+ * <p>Everything our code publishes every loop goes through here (drivetrain telemetry, GC, loop
+ * profiler, signals, motor outputs, shooter, shot map, shoot on the move, intake arm, vision and
+ * LEDs). One-off publishes on an event (a path planned, a move or shot finished, a boot timeline
+ * entry, this report itself) are not metered and not counted.
+ *
+ * <p>Every second the estimated bytes per second sent by the metered topics, and per topic the
+ * send rate and drop count, are published under "NTBudget/". Sizes are estimates: the payload plus
+ * the NT4 per-message overhead, counted even when NT skips a value that didn't change. Safe to
+ * call from any thread; {@link #update()} runs in the main loop.
+ */
+public final class NtBudget {
+  private NtBudget() {}
+
+  /** Which topics give way first when the budget is tight. */
+  public enum Priority {
+    CRITICAL, HIGH, NORMAL, LOW
+  }
+
+  private static final int kMaxTopics = 32;
+  /* NT4 binary message framing: topic id, timestamp, type */
+  private static final int kOverheadBytes = 16;
+  private static final double kFieldBytesPerSecond = 40_000.0;
+  private static final double kPitBytesPerSecond = 200_000.0;
+  /* bucket size, as seconds of budget */
+  private static final double kBurstSeconds = 0.1;
+  private static final double kReportPeriodSeconds = 1.0;
+  /* share of the bucket that has to be left for a send, by priority (CRITICAL ignores it) */
+  private static final double[] kReserve = {0.0, 0.0, 0.25, 0.5};
+
+  /* guarded by the class lock */
+  private static final String[] s_names = new String[kMaxTopics];
+  private static final Priority[] s_priorities = new Priority[kMaxTopics];
+  private static final long[] s_minIntervalNanos = new long[kMaxTopics];
+  private static final int[] s_bytes = new int[kMaxTopics];
+  private static final long[] s_lastSentNanos = new long[kMaxTopics];
+  private static final long[] s_sent = new long[kMaxTopics];
+  private static final long[] s_dropped = new long[kMaxTopics];
+  private static int s_count = 0;
+
+  private static double s_budget = kPitBytesPerSecond;
+  private static double s_tokens = kPitBytesPerSecond * kBurstSeconds;
+  private static long s_lastRefillNanos = System.nanoTime();
+  private static long s_bytesSent = 0;
+
+  /* main loop only */
+  private static long s_lastReportNanos = System.nanoTime();
+  private static long s_lastReportBytes = 0;
+  private static final long[] s_lastReportSent = new long[kMaxTopics];
+  private static double[] s_sentRate = new double[0];
+  private static long[] s_droppedCopy = new long[0];
+
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("NTBudget");
+  private static final DoublePublisher s_budgetPub = s_table.getDoubleTopic("BudgetBytesPerSecond").publish();
+  private static final DoublePublisher s_bytesPub = s_table.getDoubleTopic("BytesPerSecond").publish();
+  private static final StringArrayPublisher s_topicsPub = s_table.getStringArrayTopic("Topics").publish();
+  private static final DoubleArrayPublisher s_sentRatePub = s_table.getDoubleArrayTopic("SentHz").publish();
+  private static final IntegerArrayPublisher s_droppedPub = s_table.getIntegerArrayTopic("Dropped").publish();
+
+  /**
+   * @param name         Topic (or group) name for the report
+   * @param priority     What gives way first
+   * @param maxRateHz    Sends per second at most, whatever the budget
+   * @param payloadBytes Value size per send, e.g. 24 for a Pose2d struct
+   * @return Id for {@link #shouldSend}
+   */
+  public static synchronized int register(String name, Priority priority, double maxRateHz, int payloadBytes) {
+    if (s_count == kMaxTopics) {
+      throw new IllegalStateException("NtBudget: more than " + kMaxTopics + " topics");
+    }
+    final int id = s_count++;
+    s_names[id] = name;
+    s_priorities[id] = priority;
+    s_minIntervalNanos[id] = (long) (1e9 / maxRateHz);
+    s_bytes[id] = payloadBytes + kOverheadBytes;
+    s_lastSentNanos[id] = Long.MIN_VALUE / 2;
+    return id;
+  }
+
+  /** True if the topic may be sent now; the send is counted against the budget. */
+  public static synchronized boolean shouldSend(int id) {
+    final long now = System.nanoTime();
+    if (now - s_lastSentNanos[id] < s_minIntervalNanos[id]) return false;
+
+    final double capacity = s_budget * kBurstSeconds;
+    s_tokens = Math.min(capacity, s_tokens + (now - s_lastRefillNanos) * 1e-9 * s_budget);
+    s_lastRefillNanos = now;
+
+    final Priority priority = s_priorities[id];
+    if (priority != Priority.CRITICAL && s_tokens - s_bytes[id] < kReserve[priority.ordinal()] * capacity) {
+      ++s_dropped[id];
+      return false;
+    }
+    s_tokens -= s_bytes[id];
+    s_lastSentNanos[id] = now;
+    ++s_sent[id];
+    s_bytesSent += s_bytes[id];
+    return true;
+  }
+
+  /** Picks the budget and publishes the report; call once per loop. */
+  public static void update() {
+    final double budget = DriverStation.isFMSAttached() ? kFieldBytesPerSecond : kPitBytesPerSecond;
+    final long now = System.nanoTime();
+    final double dt = (now - s_lastReportNanos) * 1e-9;
+
+    synchronized (NtBudget.class) {
+      s_budget = budget;
+      if (dt < kReportPeriodSeconds) return;
+
+      final int count = s_count;
+      if (count != s_sentRate.length) {
+        s_sentRate = new double[count];
+        s_droppedCopy = new long[count];
+        s_topicsPub.set(Arrays.copyOf(s_names, count));
+      }
+      for (int i = 0; i < count; ++i) {
+        s_sentRate[i] = (s_sent[i] - s_lastReportSent[i]) / dt;
+        s_lastReportSent[i] = s_sent[i];
+        s_droppedCopy[i] = s_dropped[i];
+      }
+      s_bytesPub.set((s_bytesSent - s_lastReportBytes) / dt);
+      s_lastReportBytes = s_bytesSent;
+    }
+    s_lastReportNanos = now;
+    s_budgetPub.set(budget);
+    s_sentRatePub.set(s_sentRate);
+    s_droppedPub.set(s_droppedCopy);
+  }
+}
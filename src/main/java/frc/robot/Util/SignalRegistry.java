@@ -0,0 +1,111 @@
+package frc.robot.Util;
+
+import java.util.Arrays;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * One place for every CAN status signal the robot code reads.
+ *
+ * <p>Subsystems {@link #register} the signals they need (with the update rate they need) in their
+ * constructors and keep the returned slot. {@link #refreshAll()} runs once at the top of
+ * robotPeriodic() and refreshes every signal in a single {@link BaseStatusSignal#refreshAll} call,
+ * then copies the values into a primitive snapshot. {@link #get(int)} reads that snapshot, so every
+ * read during a loop is free and sees the same instant.
+ *
+ * <p>Signals on different CAN buses can share the batch since refreshAll doesn't wait. Only call
+ * from the main robot thread.
+ */
+public final class SignalRegistry {
+  private SignalRegistry() {}
+
+  private static final int kRefreshProfile = LoopProfiler.register("SignalRegistry.refreshAll");
+
+  private static BaseStatusSignal[] s_signals = new BaseStatusSignal[0];
+  private static String[] s_names = new String[0];
+  private static double[] s_values = new double[0];
+  private static double[] s_timestamps = new double[0];
+  private static int s_count = 0;
+  private static long s_errors = 0;
+
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("Signals");
+  private static final IntegerPublisher s_countPub = s_table.getIntegerTopic("Count").publish();
+  private static final IntegerPublisher s_errorsPub = s_table.getIntegerTopic("Errors").publish();
+  private static final DoublePublisher s_refreshUsPub = s_table.getDoubleTopic("RefreshUs").publish();
+  private static final int s_ntBudget = NtBudget.register("Signals/RefreshUs", NtBudget.Priority.LOW, 10.0, 8);
+
+  /**
+   * Adds a signal to the batch and sets how often the device sends it.
+   *
+   * @param name        Name for error reports, e.g. "IntakeArm/Position"
+   * @param signal      Signal to refresh every loop
+   * @param frequencyHz Update frequency requested from the device
+   * @return slot to pass to {@link #get(int)}
+   */
+  public static int register(String name, BaseStatusSignal signal, double frequencyHz) {
+    signal.setUpdateFrequency(frequencyHz);
+    /* exact-size arrays so the batch can be passed straight to refreshAll; this only runs at boot */
+    final int slot = s_count++;
+    s_signals = Arrays.copyOf(s_signals, s_count);
+    s_names = Arrays.copyOf(s_names, s_count);
+    s_values = Arrays.copyOf(s_values, s_count);
+    s_timestamps = Arrays.copyOf(s_timestamps, s_count);
+    s_signals[slot] = signal;
+    s_names[slot] = name;
+
+    /* seed the snapshot so reads before the first loop are valid */
+    signal.refresh();
+    s_values[slot] = signal.getValueAsDouble();
+    s_timestamps[slot] = signal.getTimestamp().getTime();
+    s_countPub.set(s_count);
+    return slot;
+  }
+
+  /** Refreshes every registered signal in one batch and updates the snapshot. */
+  public static void refreshAll() {
+    if (s_count == 0) return;
+    LoopProfiler.begin(kRefreshProfile);
+    final long start = System.nanoTime();
+    final BaseStatusSignal[] signals = s_signals;
+    final StatusCode status = BaseStatusSignal.refreshAll(signals);
+    for (int i = 0; i < s_count; ++i) {
+      s_values[i] = signals[i].getValueAsDouble();
+      s_timestamps[i] = signals[i].getTimestamp().getTime();
+    }
+    if (!status.isOK()) {
+      ++s_errors;
+      s_errorsPub.set(s_errors);
+      /* report which signal, but not every loop */
+      if (s_errors % 50 == 1) {
+        for (int i = 0; i < s_count; ++i) {
+          if (!signals[i].getStatus().isOK()) {
+            DriverStation.reportWarning(
+                "SignalRegistry: " + s_names[i] + ": " + signals[i].getStatus().getName(), false);
+            break;
+          }
+        }
+      }
+    }
+    if (NtBudget.shouldSend(s_ntBudget)) {
+      s_refreshUsPub.set((System.nanoTime() - start) * 1e-3);
+    }
+    LoopProfiler.end(kRefreshProfile);
+  }
+
+  /** Value of the signal as of the last {@link #refreshAll()}. */
+  public static double get(int slot) {
+    return s_values[slot];
+  }
+
+  /** Device timestamp of the value in the snapshot, in seconds. */
+  public static double getTimestamp(int slot) {
+    return s_timestamps[slot];
+  }
+}
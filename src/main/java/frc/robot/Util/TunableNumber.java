@@ -0,0 +1,106 @@
+package frc.robot.Util;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+import edu.wpi.first.networktables.DoubleEntry;
+import edu.wpi.first.networktables.DoubleTopic;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * A number that can be edited from the dashboard under "Tuning/", without string lookups on the
+ * hot path.
+ *
+ * <p>The topic is looked up once, when the tunable is created, and published with the code default.
+ * Only a dashboard edit away from that default marks the topic persistent, so an edit survives a
+ * reboot and overrides the default from then on, until it is edited back to the default (which
+ * drops it from networktables.json again). Untouched tunables are never saved, so changing a
+ * default in code always takes effect. An NT listener
+ * records edits as they arrive; {@link #updateAll()}, once per loop, moves them into a plain field
+ * and runs the {@link #onChange} consumers on the main thread. {@link #get()} is only that field
+ * read, and a value never changes partway through a loop.
+ *
+ * <p>Create tunables on the main robot thread, e.g. as subsystem fields.
+ */
+public final class TunableNumber implements DoubleSupplier {
+  private static final NetworkTable s_table = NetworkTableInstance.getDefault().getTable("Tuning");
+  private static final List<TunableNumber> s_all = new ArrayList<>();
+
+  private final String m_key;
+  private final double m_default;
+  private final DoubleTopic m_topic;
+  private final DoubleEntry m_entry;
+  private final List<DoubleConsumer> m_consumers = new ArrayList<>();
+
+  /* main thread */
+  private double m_value;
+
+  /* written by the NT listener thread */
+  private volatile double m_received;
+  private volatile boolean m_changed = false;
+
+  /**
+   * @param key          Name under "Tuning/", e.g. "IntakeArm/kP"
+   * @param defaultValue Used unless an edit was saved
+   */
+  public TunableNumber(String key, double defaultValue) {
+    m_key = key;
+    m_default = defaultValue;
+    m_topic = s_table.getDoubleTopic(key);
+    m_entry = m_topic.getEntry(defaultValue);
+    /* a saved edit was loaded (and is still persistent) before this runs, and wins */
+    m_entry.setDefault(defaultValue);
+    m_value = m_entry.get(defaultValue);
+
+    NetworkTableInstance.getDefault().addListener(
+        m_entry, EnumSet.of(NetworkTableEvent.Kind.kValueAll), event -> {
+          m_received = event.valueData.value.getDouble();
+          m_changed = true;
+        });
+    s_all.add(this);
+  }
+
+  /** The value as of the start of this loop. */
+  public double get() {
+    return m_value;
+  }
+
+  @Override
+  public double getAsDouble() {
+    return m_value;
+  }
+
+  public String getKey() {
+    return m_key;
+  }
+
+  /** Runs the consumer from {@link #updateAll()} with the new value whenever this is edited. */
+  public TunableNumber onChange(DoubleConsumer consumer) {
+    m_consumers.add(consumer);
+    return this;
+  }
+
+  /** Applies edits received since the last call and notifies consumers; call once per loop. */
+  public static void updateAll() {
+    for (int i = 0; i < s_all.size(); ++i) {
+      s_all.get(i).update();
+    }
+  }
+
+  private void update() {
+    if (!m_changed) return;
+    m_changed = false;
+    final double value = m_received;
+    if (value == m_value) return;
+    m_value = value;
+    m_topic.setPersistent(value != m_default);
+    for (int i = 0; i < m_consumers.size(); ++i) {
+      m_consumers.get(i).accept(value);
+    }
+  }
+}
@@ -0,0 +1,261 @@
+package frc.robot.commands.Autos;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.path.PathPlannerPath;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
+import frc.robot.SWERVE.CommandSwerveDrivetrain;
+
+/**
+ * Every PathPlanner auto in deploy/pathplanner/autos, prepared ahead of time for both alliances.
+ *
+ * <p>A background thread reads the .auto and .path files, flips each path for red, and generates
+ * the ideal trajectories, so none of that happens once the match starts. The commands themselves
+ * are then composed on the main thread (the scheduler's composition bookkeeping is not
+ * thread-safe) from {@link #update()} while disabled. {@link #getSelected} only looks up the
+ * finished command.
+ *
+ * <p>Autos are composed from the same command types PathPlanner uses (sequential, parallel, race,
+ * deadline, wait, named, path), but paths are followed with
+ * {@link CommandSwerveDrivetrain#followPathCommand}, which never flips at runtime. Choreo autos
+ * are not supported.
+ */
+public class AutoRegistry {
+  private static final String kAutoDirectory = "pathplanner/autos";
+  private static final String kAutoExtension = ".auto";
+
+  /* One step of an auto, with its paths already flipped for each alliance */
+  private static final class Step {
+    final String type;
+    final List<Step> children = new ArrayList<>();
+    String name;
+    double waitSeconds;
+    PathPlannerPath bluePath;
+    PathPlannerPath redPath;
+
+    Step(String type) {
+      this.type = type;
+    }
+  }
+
+  private static final class LoadedAuto {
+    final String name;
+    final Step root;
+    final Pose2d blueStart;
+    final Pose2d redStart;
+
+    LoadedAuto(String name, Step root, Pose2d blueStart, Pose2d redStart) {
+      this.name = name;
+      this.root = root;
+      this.blueStart = blueStart;
+      this.redStart = redStart;
+    }
+  }
+
+  private final CommandSwerveDrivetrain m_drivetrain;
+  private final String m_defaultName;
+  private final Supplier<Command> m_defaultAuto;
+  private final SendableChooser<String> m_chooser = new SendableChooser<>();
+
+  /* Set once by the loader thread */
+  private volatile List<LoadedAuto> m_loaded = null;
+  /* Main thread only */
+  private final Map<String, Command> m_blueCommands = new HashMap<>();
+  private final Map<String, Command> m_redCommands = new HashMap<>();
+  private boolean m_built = false;
+
+  private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("Autos");
+  private final BooleanPublisher m_readyPub = m_table.getBooleanTopic("Ready").publish();
+  private final DoublePublisher m_precomputeMsPub = m_table.getDoubleTopic("PrecomputeMs").publish();
+
+  /**
+   * Starts loading the autos in the background.
+   *
+   * @param drivetrain  Drivetrain the paths are followed with
+   * @param defaultName Chooser name of the fallback auto
+   * @param defaultAuto Fallback auto, also used while the PathPlanner autos are not ready
+   */
+  public AutoRegistry(CommandSwerveDrivetrain drivetrain, String defaultName, Supplier<Command> defaultAuto) {
+    m_drivetrain = drivetrain;
+    m_defaultName = defaultName;
+    m_defaultAuto = defaultAuto;
+    m_chooser.setDefaultOption(defaultName, defaultName);
+    m_readyPub.set(false);
+
+    Optional<RobotConfig> config = drivetrain.getPathConfig();
+    if (config.isEmpty()) {
+      DriverStation.reportWarning("AutoRegistry: no PathPlanner robot config, only " + defaultName + " is available", false);
+      return;
+    }
+    Thread loader = new Thread(() -> load(config.get()), "AutoPrecompute");
+    loader.setDaemon(true);
+    loader.start();
+  }
+
+  /** Chooser listing every auto; publish it once to the dashboard. */
+  public SendableChooser<String> getChooser() {
+    return m_chooser;
+  }
+
+  /**
+   * Composes the commands once the background load has finished. Call periodically while disabled
+   * (main thread only); cheap once done.
+   */
+  public void update() {
+    if (m_built) return;
+    List<LoadedAuto> loaded = m_loaded;
+    if (loaded == null) return;
+
+    for (LoadedAuto auto : loaded) {
+      m_blueCommands.put(auto.name, compose(auto, Alliance.Blue));
+      m_redCommands.put(auto.name, compose(auto, Alliance.Red));
+      m_chooser.addOption(auto.name, auto.name);
+    }
+    m_built = true;
+    m_readyPub.set(true);
+  }
+
+  /**
+   * @return the selected auto for the alliance, or the fallback auto if it isn't ready
+   */
+  public Command getSelected(Alliance alliance) {
+    update();
+    String name = m_chooser.getSelected();
+    Command command = (alliance == Alliance.Red ? m_redCommands : m_blueCommands).get(name);
+    if (command != null) return command;
+    if (name != null && !name.equals(m_defaultName)) {
+      DriverStation.reportWarning("AutoRegistry: " + name + " is not ready, running " + m_defaultName, false);
+    }
+    return m_defaultAuto.get();
+  }
+
+  /* ---- loader thread ---- */
+
+  private void load(RobotConfig config) {
+    final long startNanos = System.nanoTime();
+    File[] files = new File(Filesystem.getDeployDirectory(), kAutoDirectory)
+        .listFiles((dir, name) -> name.endsWith(kAutoExtension));
+    List<LoadedAuto> loaded = new ArrayList<>();
+    if (files != null) {
+      Arrays.sort(files);
+      ObjectMapper mapper = new ObjectMapper();
+      for (File file : files) {
+        String name = file.getName().substring(0, file.getName().length() - kAutoExtension.length());
+        try {
+          JsonNode json = mapper.readTree(file);
+          if (json.path("choreoAuto").asBoolean(false)) {
+            DriverStation.reportWarning("AutoRegistry: skipping Choreo auto " + name, false);
+            continue;
+          }
+          Step root = parse(json.get("command"), config);
+          Pose2d blueStart = null, redStart = null;
+          if (json.path("resetOdom").asBoolean(false)) {
+            Step first = firstPathStep(root);
+            if (first != null) {
+              blueStart = first.bluePath.getStartingHolonomicPose().orElse(null);
+              redStart = first.redPath.getStartingHolonomicPose().orElse(null);
+            }
+          }
+          loaded.add(new LoadedAuto(name, root, blueStart, redStart));
+        } catch (Exception e) {
+          DriverStation.reportWarning("AutoRegistry: could not load " + name + ": " + e.getMessage(), false);
+        }
+      }
+    }
+    m_precomputeMsPub.set((System.nanoTime() - startNanos) * 1e-6);
+    m_loaded = loaded;
+  }
+
+  private static Step parse(JsonNode node, RobotConfig config) throws Exception {
+    Step step = new Step(node.get("type").asText());
+    JsonNode data = node.get("data");
+    switch (step.type) {
+      case "sequential", "parallel", "race", "deadline" -> {
+        for (JsonNode child : data.get("commands")) {
+          step.children.add(parse(child, config));
+        }
+      }
+      case "wait" -> step.waitSeconds = data.get("waitTime").asDouble();
+      case "named" -> step.name = data.get("name").asText();
+      case "path" -> {
+        step.name = data.get("pathName").asText();
+        step.bluePath = PathPlannerPath.fromPathFile(step.name);
+        step.redPath = step.bluePath.preventFlipping ? step.bluePath : step.bluePath.flipPath();
+        /* generated once here and cached on the path objects */
+        step.bluePath.getIdealTrajectory(config);
+        step.redPath.getIdealTrajectory(config);
+      }
+      default -> throw new IllegalArgumentException("unknown command type " + step.type);
+    }
+    return step;
+  }
+
+  private static Step firstPathStep(Step step) {
+    if (step.bluePath != null) return step;
+    for (Step child : step.children) {
+      Step path = firstPathStep(child);
+      if (path != null) return path;
+    }
+    return null;
+  }
+
+  /* ---- main thread ---- */
+
+  private Command compose(LoadedAuto auto, Alliance alliance) {
+    Command body = compose(auto.root, alliance);
+    Pose2d start = alliance == Alliance.Red ? auto.redStart : auto.blueStart;
+    if (start == null) return body.withName(auto.name);
+    return Commands.sequence(m_drivetrain.runOnce(() -> m_drivetrain.resetPose(start)), body).withName(auto.name);
+  }
+
+  private Command compose(Step step, Alliance alliance) {
+    switch (step.type) {
+      case "wait":
+        return Commands.waitSeconds(step.waitSeconds);
+      case "named":
+        return NamedCommands.getCommand(step.name);
+      case "path":
+        return m_drivetrain.followPathCommand(alliance == Alliance.Red ? step.redPath : step.bluePath);
+      default:
+        break;
+    }
+    Command[] children = new Command[step.children.size()];
+    for (int i = 0; i < children.length; ++i) {
+      children[i] = compose(step.children.get(i), alliance);
+    }
+    switch (step.type) {
+      case "parallel":
+        return Commands.parallel(children);
+      case "race":
+        return Commands.race(children);
+      case "deadline":
+        return children.length == 0
+            ? Commands.none()
+            : Commands.deadline(children[0], Arrays.copyOfRange(children, 1, children.length));
+      default:
+        return Commands.sequence(children);
+    }
+  }
+}
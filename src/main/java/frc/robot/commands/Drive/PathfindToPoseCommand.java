@@ -0,0 +1,113 @@
+package frc.robot.commands.Drive;
+
+import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
+import com.ctre.phoenix6.swerve.SwerveRequest;
+import com.ctre.phoenix6.swerve.SwerveRequest.ForwardPerspectiveValue;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Field.NavPath;
+import frc.robot.Field.NavPathfinder;
+import frc.robot.SWERVE.CommandSwerveDrivetrain;
+
+/**
+ * Drives to a field pose along a navgrid path, replanning from the current pose as it goes.
+ *
+ * <p>Waypoints are followed with a simple proportional chase (capped at the given speed) while
+ * the heading controller turns to the goal heading. Coordinates are always blue-origin field
+ * coordinates, the same as the navgrid.
+ */
+public class PathfindToPoseCommand extends Command {
+  private static final double kReplanPeriodSeconds = 0.5;
+  private static final double kWaypointToleranceMeters = 0.2;
+  private static final double kGoalToleranceMeters = 0.05;
+  private static final double kGoalToleranceRadians = Math.toRadians(3.0);
+  private static final double kTranslationP = 3.0;
+  private static final double kHeadingP = 6.0;
+
+  private final CommandSwerveDrivetrain m_drivetrain;
+  private final NavPathfinder m_pathfinder;
+  private final Pose2d m_goal;
+  private final double m_maxSpeed;
+
+  private final SwerveRequest.FieldCentricFacingAngle m_request = new SwerveRequest.FieldCentricFacingAngle()
+      .withForwardPerspective(ForwardPerspectiveValue.BlueAlliance)
+      .withDriveRequestType(DriveRequestType.Velocity)
+      .withHeadingPID(kHeadingP, 0.0, 0.0);
+  private final SwerveRequest.SwerveDriveBrake m_brake = new SwerveRequest.SwerveDriveBrake();
+
+  private final Timer m_replanTimer = new Timer();
+  private long m_requestId;
+  private NavPath m_path;
+  private int m_waypoint;
+
+  public PathfindToPoseCommand(
+      CommandSwerveDrivetrain drivetrain, NavPathfinder pathfinder, Pose2d goal, double maxSpeedMetersPerSecond) {
+    m_drivetrain = drivetrain;
+    m_pathfinder = pathfinder;
+    m_goal = goal;
+    m_maxSpeed = maxSpeedMetersPerSecond;
+    addRequirements(drivetrain);
+  }
+
+  @Override
+  public void initialize() {
+    m_path = null;
+    m_waypoint = 0;
+    replan(m_drivetrain.getState().Pose);
+    m_replanTimer.restart();
+  }
+
+  @Override
+  public void execute() {
+    final Pose2d pose = m_drivetrain.getState().Pose;
+    if (m_replanTimer.advanceIfElapsed(kReplanPeriodSeconds)) {
+      replan(pose);
+    }
+
+    /* pick up a newer path once the planner thread has finished it */
+    NavPath latest = m_pathfinder.getLatestPath();
+    if (latest != null && latest != m_path && latest.getRequestId() == m_requestId) {
+      m_path = latest;
+      m_waypoint = Math.min(1, latest.size() - 1);
+    }
+
+    double targetX = pose.getX(), targetY = pose.getY();
+    if (m_path != null && !m_path.isEmpty()) {
+      while (m_waypoint < m_path.size() - 1
+          && Math.hypot(m_path.getX(m_waypoint) - pose.getX(), m_path.getY(m_waypoint) - pose.getY())
+              < kWaypointToleranceMeters) {
+        ++m_waypoint;
+      }
+      targetX = m_path.getX(m_waypoint);
+      targetY = m_path.getY(m_waypoint);
+    }
+
+    double ex = targetX - pose.getX(), ey = targetY - pose.getY();
+    double distance = Math.hypot(ex, ey);
+    double speed = Math.min(m_maxSpeed, kTranslationP * distance);
+    double vx = distance > 1e-6 ? ex / distance * speed : 0.0;
+    double vy = distance > 1e-6 ? ey / distance * speed : 0.0;
+    m_drivetrain.setControl(m_request
+        .withVelocityX(vx)
+        .withVelocityY(vy)
+        .withTargetDirection(m_goal.getRotation()));
+  }
+
+  @Override
+  public boolean isFinished() {
+    Pose2d pose = m_drivetrain.getState().Pose;
+    return pose.getTranslation().getDistance(m_goal.getTranslation()) < kGoalToleranceMeters
+        && Math.abs(pose.getRotation().minus(m_goal.getRotation()).getRadians()) < kGoalToleranceRadians;
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    m_drivetrain.setControl(m_brake);
+  }
+
+  private void replan(Pose2d pose) {
+    m_requestId = m_pathfinder.requestPath(pose.getX(), pose.getY(), m_goal.getX(), m_goal.getY());
+  }
+}
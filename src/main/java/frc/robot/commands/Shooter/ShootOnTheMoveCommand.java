@@ -0,0 +1,125 @@
+package frc.robot.commands.Shooter;
+
+import java.util.function.DoubleSupplier;
+
+import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
+import com.ctre.phoenix6.swerve.SwerveRequest;
+import com.ctre.phoenix6.swerve.SwerveRequest.ForwardPerspectiveValue;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Field.FieldGeometry;
+import frc.robot.SWERVE.CommandSwerveDrivetrain;
+import frc.robot.Util.NtBudget;
+import frc.robot.subsystems.Shooter.ShootOnTheMoveSolver;
+import frc.robot.subsystems.Shooter.ShooterSubsystem;
+import frc.robot.subsystems.Shooter.ShotMapSubsystem;
+
+/**
+ * Lets the driver keep translating while the robot turns to and spins up for a moving shot.
+ *
+ * <p>Every loop the drivetrain's pose and (robot-relative) speeds go through a
+ * {@link ShootOnTheMoveSolver}; the heading controller holds the solved heading and the shooter
+ * runs at the solved speed. Translation comes from the driver, in the driver's perspective like
+ * the default drive command. Feeding is left to the operator, gated on
+ * {@link ShooterSubsystem#isReady()} as before. The solution is published under "SOTM/" within the
+ * {@link NtBudget}.
+ */
+public class ShootOnTheMoveCommand extends Command {
+  private static final double kHeadingP = 6.0;
+
+  private final CommandSwerveDrivetrain m_drivetrain;
+  private final ShooterSubsystem m_shooter;
+  private final ShotMapSubsystem m_shotMap;
+  private final FieldGeometry m_field;
+  private final DoubleSupplier m_forward;
+  private final DoubleSupplier m_left;
+  private final ShootOnTheMoveSolver m_solver = new ShootOnTheMoveSolver();
+
+  private final SwerveRequest.FieldCentricFacingAngle m_request = new SwerveRequest.FieldCentricFacingAngle()
+      .withForwardPerspective(ForwardPerspectiveValue.BlueAlliance)
+      .withDriveRequestType(DriveRequestType.Velocity)
+      .withHeadingPID(kHeadingP, 0.0, 0.0);
+
+  private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("SOTM");
+  private final DoubleArrayPublisher m_virtualTargetPub = m_table.getDoubleArrayTopic("VirtualTarget").publish();
+  private final DoublePublisher m_rpsPub = m_table.getDoubleTopic("RPS").publish();
+  private final DoublePublisher m_solveUsPub = m_table.getDoubleTopic("SolveUs").publish();
+  private final IntegerPublisher m_iterationsPub = m_table.getIntegerTopic("Iterations").publish();
+  private final BooleanPublisher m_convergedPub = m_table.getBooleanTopic("Converged").publish();
+  private final double[] m_virtualTarget = new double[2];
+  /* the request keeps its target direction; a new Rotation2d only when the solved heading changes */
+  private double m_targetHeading = Double.NaN;
+  /* target, rps, solve time, iterations, converged */
+  private static final int s_ntBudget = NtBudget.register("SOTM", NtBudget.Priority.NORMAL, 25.0, 105);
+
+  /**
+   * @param forward Field-relative forward speed from the driver's point of view, m/s
+   * @param left    Field-relative left speed from the driver's point of view, m/s
+   */
+  public ShootOnTheMoveCommand(
+      CommandSwerveDrivetrain drivetrain, ShooterSubsystem shooter, ShotMapSubsystem shotMap, FieldGeometry field,
+      DoubleSupplier forward, DoubleSupplier left) {
+    m_drivetrain = drivetrain;
+    m_shooter = shooter;
+    m_shotMap = shotMap;
+    m_field = field;
+    m_forward = forward;
+    m_left = left;
+    addRequirements(drivetrain, shooter);
+  }
+
+  @Override
+  public void execute() {
+    final var state = m_drivetrain.getState();
+    final Pose2d pose = state.Pose;
+    final ChassisSpeeds speeds = state.Speeds;
+
+    /* state speeds are robot-relative; the solver wants them along the field axes */
+    final double cos = pose.getRotation().getCos();
+    final double sin = pose.getRotation().getSin();
+    final double vx = speeds.vxMetersPerSecond * cos - speeds.vyMetersPerSecond * sin;
+    final double vy = speeds.vxMetersPerSecond * sin + speeds.vyMetersPerSecond * cos;
+
+    final int target = m_shotMap.getTargetIndex();
+    final long start = System.nanoTime();
+    final boolean converged = m_solver.solve(
+        pose.getX(), pose.getY(), vx, vy, m_field.getTargetX(target), m_field.getTargetY(target), m_shotMap.getTable());
+    final double solveUs = (System.nanoTime() - start) * 1e-3;
+
+    /* the request is in blue-origin coordinates, so turn the driver's input around on red */
+    final double sign = DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red ? -1.0 : 1.0;
+    if (m_solver.getHeading() != m_targetHeading) {
+      m_targetHeading = m_solver.getHeading();
+      m_request.withTargetDirection(Rotation2d.fromRadians(m_targetHeading));
+    }
+    m_drivetrain.setControl(m_request
+        .withVelocityX(sign * m_forward.getAsDouble())
+        .withVelocityY(sign * m_left.getAsDouble()));
+    m_shooter.setRPS(m_shotMap.isCalibrating() ? m_shotMap.getTargetRPS() : m_solver.getRPS());
+
+    if (!NtBudget.shouldSend(s_ntBudget)) return;
+    m_solveUsPub.set(solveUs);
+    m_virtualTarget[0] = m_solver.getVirtualTargetX();
+    m_virtualTarget[1] = m_solver.getVirtualTargetY();
+    m_virtualTargetPub.set(m_virtualTarget);
+    m_rpsPub.set(m_solver.getRPS());
+    m_iterationsPub.set(m_solver.getIterations());
+    m_convergedPub.set(converged);
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    m_shooter.stop();
+  }
+}
@@ -0,0 +1,56 @@
+package frc.robot.subsystems.Intake;
+
+import frc.robot.Util.LoggableInputs;
+
+/**
+ * The intake arm's hardware: {@link IntakeArmIOTalonFX} on the robot, {@link IntakeArmIOSim} in
+ * simulation and {@link IntakeArmIOReplay} when replaying a log.
+ */
+public interface IntakeArmIO {
+  /** Everything the arm reads from its hardware each loop. */
+  class Inputs implements LoggableInputs {
+    /** Arm position, rotations */
+    public double positionRot = 0.0;
+    /**
+     * True once a config was verified on the motor. It stays true if a later re-apply fails: every
+     * config carries the same mechanism ratio, so the arm can still be commanded
+     */
+    public boolean configured = false;
+    /** True while gains are still being applied */
+    public boolean configuring = false;
+    /** True if the latest gains failed to apply (the device's config alert is up) */
+    public boolean applyFailed = false;
+
+    @Override
+    public int size() {
+      return 4;
+    }
+
+    @Override
+    public void toLog(double[] out) {
+      out[0] = positionRot;
+      out[1] = configured ? 1.0 : 0.0;
+      out[2] = configuring ? 1.0 : 0.0;
+      out[3] = applyFailed ? 1.0 : 0.0;
+    }
+
+    @Override
+    public void fromLog(double[] in) {
+      positionRot = in[0];
+      configured = in[1] != 0.0;
+      configuring = in[2] != 0.0;
+      applyFailed = in.length > 3 && in[3] != 0.0;
+    }
+  }
+
+  default void updateInputs(Inputs inputs) {}
+
+  /** Profiled move to (and hold at) an arm position, rotations. */
+  default void setPosition(double rot) {}
+
+  /** Puts the closed-loop gains (and with them the rest of the config) on the motor. */
+  default void applyGains(double kP, double kI, double kD, double kG) {}
+
+  /** Advances the simulated mechanism one loop. */
+  default void simulationPeriodic() {}
+}
@@ -0,0 +1,42 @@
+package frc.robot.subsystems.Intake;
+
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+import frc.robot.Constants.IntakeArmConstants;
+import frc.robot.Sim.SimBattery;
+
+/** The TalonFX arm with a simulated arm behind its sim state. */
+public class IntakeArmIOSim extends IntakeArmIOTalonFX {
+  /* the characterized arm (angles in radians from horizontal), starting at kPosDegA */
+  private final SingleJointedArmSim sim = new SingleJointedArmSim(
+      LinearSystemId.identifyPositionSystem(
+          IntakeArmConstants.kV / (2.0 * Math.PI), IntakeArmConstants.kA / (2.0 * Math.PI)),
+      DCMotor.getKrakenX60(1),
+      IntakeArmConstants.kMotorRotationsPerArmRotation,
+      IntakeArmConstants.kSimArmLengthMeters,
+      Math.toRadians(IntakeArmConstants.kSimMinDeg - IntakeArmConstants.kHorizontalDeg),
+      Math.toRadians(IntakeArmConstants.kSimMaxDeg - IntakeArmConstants.kHorizontalDeg),
+      true,
+      Math.toRadians(IntakeArmConstants.kPosDegA - IntakeArmConstants.kHorizontalDeg));
+
+  @Override
+  public void simulationPeriodic() {
+    TalonFXSimState simState = motor.getSimState();
+    simState.setSupplyVoltage(RobotController.getBatteryVoltage());
+    sim.setInputVoltage(simState.getMotorVoltage());
+    sim.update(TimedRobot.kDefaultPeriod);
+
+    /* the sim state is at the rotor, before the mechanism ratio */
+    final double armRot = Units.radiansToRotations(sim.getAngleRads()) + IntakeArmConstants.kHorizontalDeg / 360.0;
+    simState.setRawRotorPosition(armRot * IntakeArmConstants.kMotorRotationsPerArmRotation);
+    simState.setRotorVelocity(
+        Units.radiansToRotations(sim.getVelocityRadPerSec()) * IntakeArmConstants.kMotorRotationsPerArmRotation);
+    SimBattery.addCurrent(sim.getCurrentDrawAmps());
+  }
+}
@@ -0,0 +1,80 @@
+package frc.robot.subsystems.Intake;
+
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.MotionMagicExpoVoltage;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.GravityTypeValue;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import frc.robot.Constants.IntakeArmConstants;
+import frc.robot.Util.DeviceConfigService;
+import frc.robot.Util.MotorOutput;
+import frc.robot.Util.SignalRegistry;
+
+/**
+ * Intake arm on a TalonFX running Motion Magic Expo in arm rotations (SensorToMechanismRatio),
+ * with arm-cosine gravity compensation.
+ */
+public class IntakeArmIOTalonFX implements IntakeArmIO {
+  protected final TalonFX motor = new TalonFX(IntakeArmConstants.kMotorId, IntakeArmConstants.kCanBus);
+  private final MotionMagicExpoVoltage mm = new MotionMagicExpoVoltage(0.0);
+  private final MotorOutput output = new MotorOutput("IntakeArm", motor);
+  private final int positionSignal;
+
+  private DeviceConfigService.Handle config = null;
+  /* some config (and with it the mechanism ratio) was verified on the motor */
+  private boolean verified = false;
+
+  public IntakeArmIOTalonFX() {
+    positionSignal = SignalRegistry.register("IntakeArm/Position", motor.getPosition(false), 100.0);
+  }
+
+  @Override
+  public void updateInputs(Inputs inputs) {
+    inputs.positionRot = SignalRegistry.get(positionSignal);
+    verified |= config != null && config.succeeded();
+    inputs.configured = verified;
+    inputs.configuring = config != null && !config.isDone();
+    inputs.applyFailed = config != null && config.isDone() && !config.succeeded();
+  }
+
+  @Override
+  public void setPosition(double rot) {
+    output.set(mm.withPosition(rot), rot);
+  }
+
+  @Override
+  public void applyGains(double kP, double kI, double kD, double kG) {
+    if (config == null) {
+      config = DeviceConfigService.submit("IntakeArm", motor, buildConfig(kP, kI, kD, kG));
+    } else {
+      DeviceConfigService.reapply(config, motor, buildConfig(kP, kI, kD, kG));
+    }
+  }
+
+  /* A fresh config from the constants and the given gains */
+  private static TalonFXConfiguration buildConfig(double kP, double kI, double kD, double kG) {
+    TalonFXConfiguration cfg = new TalonFXConfiguration();
+
+    // Part of the config so applying it can't reset the neutral mode back to coast
+    cfg.MotorOutput.NeutralMode = NeutralModeValue.Brake;
+
+    // Positions, velocities and gains below are all at the arm
+    cfg.Feedback.SensorToMechanismRatio = IntakeArmConstants.kMotorRotationsPerArmRotation;
+
+    cfg.Slot0.GravityType = GravityTypeValue.Arm_Cosine;
+    cfg.Slot0.GravityArmPositionOffset = -IntakeArmConstants.kHorizontalDeg / 360.0;
+    cfg.Slot0.kG = kG;
+    cfg.Slot0.kS = IntakeArmConstants.kS;
+    cfg.Slot0.kV = IntakeArmConstants.kV;
+    cfg.Slot0.kA = IntakeArmConstants.kA;
+    cfg.Slot0.kP = kP;
+    cfg.Slot0.kI = kI;
+    cfg.Slot0.kD = kD;
+
+    cfg.MotionMagic.MotionMagicCruiseVelocity = IntakeArmConstants.kCruiseRps_Arm;
+    cfg.MotionMagic.MotionMagicExpo_kV = IntakeArmConstants.kExpoKv;
+    cfg.MotionMagic.MotionMagicExpo_kA = IntakeArmConstants.kExpoKa;
+    return cfg;
+  }
+}
@@ -1,74 +1,150 @@
 package frc.robot.subsystems.Intake;
 
-import com.ctre.phoenix6.configs.TalonFXConfiguration;
-import com.ctre.phoenix6.controls.MotionMagicVoltage;
-import com.ctre.phoenix6.hardware.TalonFX;
-import com.ctre.phoenix6.signals.NeutralModeValue;
-
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.IntakeArmConstants;
-
+import frc.robot.Util.InputLogger;
+import frc.robot.Util.LoopProfiler;
+import frc.robot.Util.NtBudget;
+import frc.robot.Util.TunableNumber;
+
+/**
+ * Intake arm on a Motion Magic Expo profile with arm-cosine gravity compensation.
+ *
+ * <p>The TalonFX works in arm rotations (SensorToMechanismRatio), so kG can be scaled by the
+ * cosine of the real arm angle and the characterized kS/kV/kA apply directly. Expo profiles follow
+ * the arm's own exponential response instead of a fixed cruise/accel trapezoid, which gets it
+ * there much faster without asking for more than the motor can give.
+ *
+ * <p>Every move is timed from the goal change to the arm first entering tolerance, along with how
+ * far it went past the goal; the results are published under "IntakeArm/".
+ *
+ * <p>kP/kI/kD/kG can be edited under "Tuning/IntakeArm/"; an edit re-applies the config (in the
+ * background, like at boot) and nothing is sent otherwise. A config that fails to apply raises the
+ * arm's config alert and is retried every {@link #kRetrySeconds}; the arm keeps running on the
+ * last config that did go on.
+ *
+ * <p>The hardware is behind an {@link IntakeArmIO}; its inputs are logged every loop.
+ */
 public class IntakeArmSubsystem extends SubsystemBase {
-  private final TalonFX motor = new TalonFX(IntakeArmConstants.kMotorId, IntakeArmConstants.kCanBus);
-  private final MotionMagicVoltage mm = new MotionMagicVoltage(0.0);
-
-  private double goalMotorRot = 0.0;
-
-  public IntakeArmSubsystem() {
-    motor.setNeutralMode(NeutralModeValue.Brake);
-
-    TalonFXConfiguration cfg = new TalonFXConfiguration();
-
-    cfg.Slot0.kP = IntakeArmConstants.kP;
-    cfg.Slot0.kI = IntakeArmConstants.kI;
-    cfg.Slot0.kD = IntakeArmConstants.kD;
-
-    cfg.MotionMagic.MotionMagicCruiseVelocity = armRpsToMotorRps(IntakeArmConstants.kCruiseRps_Arm);
-    cfg.MotionMagic.MotionMagicAcceleration   = armRps2ToMotorRps2(IntakeArmConstants.kAccelRps2_Arm);
-
-    motor.getConfigurator().apply(cfg);
-
-    goalMotorRot = getMotorRotations(); // hold wherever we start
+  private static final int kPeriodicProfile = LoopProfiler.register("IntakeArm.periodic");
+  /* between attempts at a config that failed to apply */
+  private static final double kRetrySeconds = 1.0;
+
+  private final IntakeArmIO io;
+  private final IntakeArmIO.Inputs inputs = new IntakeArmIO.Inputs();
+  private final int inputsLog;
+
+  private final TunableNumber tunedP = new TunableNumber("IntakeArm/kP", IntakeArmConstants.kP);
+  private final TunableNumber tunedI = new TunableNumber("IntakeArm/kI", IntakeArmConstants.kI);
+  private final TunableNumber tunedD = new TunableNumber("IntakeArm/kD", IntakeArmConstants.kD);
+  private final TunableNumber tunedG = new TunableNumber("IntakeArm/kG", IntakeArmConstants.kG);
+
+  private boolean gainsEdited = false;
+  private double lastApplyTime = 0.0;
+
+  /* arm rotations; NaN until the config (and with it the mechanism ratio) is on the motor */
+  private double goalRot = Double.NaN;
+
+  /* current move, for the deploy/retract timing */
+  private double moveStart = Double.NaN;
+  private double moveFromRot = 0.0;
+  private double overshootDeg = 0.0;
+
+  private final NetworkTable table = NetworkTableInstance.getDefault().getTable("IntakeArm");
+  private final DoublePublisher degreesPub = table.getDoubleTopic("Degrees").publish();
+  private final DoublePublisher goalDegreesPub = table.getDoubleTopic("GoalDegrees").publish();
+  private final DoublePublisher deployMsPub = table.getDoubleTopic("DeployMs").publish();
+  private final DoublePublisher retractMsPub = table.getDoubleTopic("RetractMs").publish();
+  private final DoublePublisher overshootPub = table.getDoubleTopic("OvershootDeg").publish();
+  private final int ntBudget = NtBudget.register("IntakeArm/Degrees", NtBudget.Priority.NORMAL, 25.0, 8);
+
+  public IntakeArmSubsystem(IntakeArmIO io) {
+    this.io = io;
+    inputsLog = InputLogger.register("IntakeArm", inputs);
+    applyGains();
+
+    tunedP.onChange(value -> gainsEdited = true);
+    tunedI.onChange(value -> gainsEdited = true);
+    tunedD.onChange(value -> gainsEdited = true);
+    tunedG.onChange(value -> gainsEdited = true);
   }
 
   @Override
   public void periodic() {
-    // Always hold the last goal to prevent sagging
-    motor.setControl(mm.withPosition(goalMotorRot));
+    LoopProfiler.begin(kPeriodicProfile);
+    io.updateInputs(inputs);
+    InputLogger.process(inputsLog);
+    // One re-apply for however many gains were edited this loop; the motor keeps running the
+    // last request while the new config goes on. A failed apply is retried until one goes on.
+    if (!inputs.configuring
+        && (gainsEdited || (inputs.applyFailed && Timer.getFPGATimestamp() - lastApplyTime >= kRetrySeconds))) {
+      applyGains();
+    }
+    // Always hold the last goal to prevent sagging (once a config is verified on the motor;
+    // without one Motion Magic would run on whatever config it had, possibly without the
+    // mechanism ratio). The output only goes on the bus when the goal changes.
+    if (inputs.configured) {
+      if (Double.isNaN(goalRot)) {
+        goalRot = getRotations(); // hold wherever we start
+      }
+      io.setPosition(goalRot);
+      measureMove();
+    }
+    if (NtBudget.shouldSend(ntBudget)) {
+      degreesPub.set(getDegrees());
+    }
+    LoopProfiler.end(kPeriodicProfile);
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    io.simulationPeriodic();
   }
 
   public void setGoalDegrees(double armDeg) {
-    goalMotorRot = degreesToMotorRotations(armDeg);
+    final double rot = armDeg / 360.0;
+    if (rot == goalRot) return;
+    moveFromRot = Double.isNaN(goalRot) ? getRotations() : goalRot;
+    goalRot = rot;
+    moveStart = Timer.getFPGATimestamp();
+    overshootDeg = 0.0;
+    goalDegreesPub.set(armDeg);
   }
 
   public double getDegrees() {
-    return motorRotationsToDegrees(getMotorRotations());
+    return getRotations() * 360.0;
   }
 
   public boolean atGoal() {
-    double goalDeg = motorRotationsToDegrees(goalMotorRot);
-    return Math.abs(getDegrees() - goalDeg) <= IntakeArmConstants.kToleranceDeg;
-  }
-
-  private double getMotorRotations() {
-    return motor.getPosition().getValueAsDouble();
-  }
-
-  private static double degreesToMotorRotations(double armDeg) {
-    double armRot = armDeg / 360.0;
-    return armRot * IntakeArmConstants.kMotorRotationsPerArmRotation;
+    return !Double.isNaN(goalRot) && Math.abs(getDegrees() - goalRot * 360.0) <= IntakeArmConstants.kToleranceDeg;
   }
 
-  private static double motorRotationsToDegrees(double motorRot) {
-    double armRot = motorRot / IntakeArmConstants.kMotorRotationsPerArmRotation;
-    return armRot * 360.0;
+  private void applyGains() {
+    gainsEdited = false;
+    lastApplyTime = Timer.getFPGATimestamp();
+    io.applyGains(tunedP.get(), tunedI.get(), tunedD.get(), tunedG.get());
   }
 
-  private static double armRpsToMotorRps(double armRps) {
-    return armRps * IntakeArmConstants.kMotorRotationsPerArmRotation;
+  /* Times the current move and tracks overshoot until the next goal */
+  private void measureMove() {
+    final double goalDeg = goalRot * 360.0;
+    final double beyondDeg = (getDegrees() - goalDeg) * Math.signum(goalRot - moveFromRot);
+    if (beyondDeg > overshootDeg) {
+      overshootDeg = beyondDeg;
+      overshootPub.set(overshootDeg);
+    }
+    if (!Double.isNaN(moveStart) && atGoal()) {
+      final double ms = (Timer.getFPGATimestamp() - moveStart) * 1e3;
+      (goalRot > moveFromRot ? deployMsPub : retractMsPub).set(ms);
+      moveStart = Double.NaN;
+    }
   }
 
-  private static double armRps2ToMotorRps2(double armRps2) {
-    return armRps2 * IntakeArmConstants.kMotorRotationsPerArmRotation;
+  private double getRotations() {
+    return inputs.positionRot;
   }
 }
@@ -0,0 +1,38 @@
+package frc.robot.subsystems.Intake;
+
+import frc.robot.Util.LoggableInputs;
+
+/**
+ * The intake rollers' hardware: {@link IntakeIOTalonFX} on the robot, {@link IntakeIOSim} in
+ * simulation and {@link IntakeIOReplay} when replaying a log.
+ */
+public interface IntakeIO {
+  /** Everything the intake reads from its hardware each loop. */
+  class Inputs implements LoggableInputs {
+    /** Motor velocity, rotations per second (motor direction) */
+    public double velocityRps = 0.0;
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public void toLog(double[] out) {
+      out[0] = velocityRps;
+    }
+
+    @Override
+    public void fromLog(double[] in) {
+      velocityRps = in[0];
+    }
+  }
+
+  default void updateInputs(Inputs inputs) {}
+
+  /** Closed-loop motor velocity, rotations per second (motor direction). */
+  default void setVelocity(double rps) {}
+
+  /** Advances the simulated mechanism one loop. */
+  default void simulationPeriodic() {}
+}
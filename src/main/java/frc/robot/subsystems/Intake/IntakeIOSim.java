@@ -0,0 +1,34 @@
+package frc.robot.subsystems.Intake;
+
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Sim.SimBattery;
+
+/** The TalonFX intake with a simulated roller behind its sim state. */
+public class IntakeIOSim extends IntakeIOTalonFX {
+  // Simulated rollers: kV matches the velocity gain, kA is a guess (V per rps, V per rps²)
+  private static final double kSimKv = 0.12;
+  private static final double kSimKa = 0.01;
+
+  private final DCMotorSim sim = new DCMotorSim(
+      LinearSystemId.createDCMotorSystem(kSimKv / (2.0 * Math.PI), kSimKa / (2.0 * Math.PI)),
+      DCMotor.getKrakenX60(1));
+
+  @Override
+  public void simulationPeriodic() {
+    TalonFXSimState simState = motor.getSimState();
+    simState.setSupplyVoltage(RobotController.getBatteryVoltage());
+    sim.setInputVoltage(simState.getMotorVoltage());
+    sim.update(TimedRobot.kDefaultPeriod);
+
+    simState.setRawRotorPosition(Units.radiansToRotations(sim.getAngularPositionRad()));
+    simState.setRotorVelocity(Units.radiansToRotations(sim.getAngularVelocityRadPerSec()));
+    SimBattery.addCurrent(sim.getCurrentDrawAmps());
+  }
+}
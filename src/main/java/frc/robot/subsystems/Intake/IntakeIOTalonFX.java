@@ -0,0 +1,40 @@
+package frc.robot.subsystems.Intake;
+
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.hardware.TalonFX;
+
+import frc.robot.Util.DeviceConfigService;
+import frc.robot.Util.MotorOutput;
+import frc.robot.Util.SignalRegistry;
+
+/** Intake rollers on a TalonFX running its own velocity loop. */
+public class IntakeIOTalonFX implements IntakeIO {
+  protected final TalonFX motor = new TalonFX(31);
+  private final VelocityVoltage velocityReq = new VelocityVoltage(0);
+  private final MotorOutput output = new MotorOutput("Intake", motor);
+  private final int velocitySignal;
+
+  public IntakeIOTalonFX() {
+    velocitySignal = SignalRegistry.register("Intake/Velocity", motor.getVelocity(false), 50.0);
+
+    TalonFXConfiguration cfg = new TalonFXConfiguration();
+
+    cfg.Slot0.kP = 0.12;
+    cfg.Slot0.kI = 0.0;
+    cfg.Slot0.kD = 0.0;
+    cfg.Slot0.kV = 0.12;
+
+    DeviceConfigService.submit("Intake", motor, cfg);
+  }
+
+  @Override
+  public void updateInputs(Inputs inputs) {
+    inputs.velocityRps = SignalRegistry.get(velocitySignal);
+  }
+
+  @Override
+  public void setVelocity(double rps) {
+    output.set(velocityReq.withVelocity(rps), rps);
+  }
+}
@@ -1,33 +1,45 @@
 package frc.robot.subsystems.Intake;
 
-import com.ctre.phoenix6.configs.TalonFXConfiguration;
-import com.ctre.phoenix6.controls.VelocityVoltage;
-import com.ctre.phoenix6.hardware.TalonFX;
-
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Util.InputLogger;
+import frc.robot.Util.LoopProfiler;
 
 public class IntakeSubsystem extends SubsystemBase {
+  private static final int kPeriodicProfile = LoopProfiler.register("Intake.periodic");
 
-  private final TalonFX motor = new TalonFX(31);
-  private final VelocityVoltage velocityReq = new VelocityVoltage(0);
+  private final IntakeIO io;
+  private final IntakeIO.Inputs inputs = new IntakeIO.Inputs();
+  private final int inputsLog;
 
-  public IntakeSubsystem() {
-    TalonFXConfiguration cfg = new TalonFXConfiguration();
+  public IntakeSubsystem(IntakeIO io) {
+    this.io = io;
+    inputsLog = InputLogger.register("Intake", inputs);
+  }
 
-    cfg.Slot0.kP = 0.12;
-    cfg.Slot0.kI = 0.0;
-    cfg.Slot0.kD = 0.0;
-    cfg.Slot0.kV = 0.12;
+  @Override
+  public void periodic() {
+    LoopProfiler.begin(kPeriodicProfile);
+    io.updateInputs(inputs);
+    InputLogger.process(inputsLog);
+    LoopProfiler.end(kPeriodicProfile);
+  }
 
-    motor.getConfigurator().apply(cfg);
+  @Override
+  public void simulationPeriodic() {
+    io.simulationPeriodic();
   }
 
   // Command motor speed in rotations per second
   public void setRPS(double rps) {
-    motor.setControl(velocityReq.withVelocity(-rps));
+    io.setVelocity(-rps);
   }
 
   public void stop() {
     setRPS(0);
   }
+
+  // Measured speed in rotations per second, same sign convention as setRPS()
+  public double getRPS() {
+    return -inputs.velocityRps;
+  }
 }
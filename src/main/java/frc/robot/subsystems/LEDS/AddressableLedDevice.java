@@ -0,0 +1,174 @@
+package frc.robot.subsystems.LEDS;
+
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.AddressableLED;
+import edu.wpi.first.wpilibj.AddressableLEDBuffer;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Util.NtBudget;
+
+/**
+ * Drives a WS2812 strip from a roboRIO PWM port with WPILib AddressableLED; the fallback when no
+ * Lumyn device is found.
+ *
+ * <p>Rendering happens on its own Notifier: the highest priority opaque layer (or the base layer)
+ * is copied from its precomputed frame into a back buffer and the active overlays above it are
+ * drawn over it. The back buffer is then compared with the last frame sent, and only the changed
+ * range is copied into the AddressableLED buffer; nothing is sent when nothing changed.
+ * {@link #show} only writes a few volatile fields, so the main loop never waits on the renderer.
+ */
+public final class AddressableLedDevice implements LedDevice {
+  private final AddressableLED m_led;
+  private final AddressableLEDBuffer m_buffer;
+  private final double m_periodSeconds;
+  private final Notifier m_renderer;
+
+  private LedAnimation[] m_animations = new LedAnimation[0];
+  private LedAnimation m_idle;
+
+  /* written by the main loop, read by the renderer */
+  private volatile int m_activeStates = 0;
+  private volatile double m_progress = 0.0;
+  private volatile int m_baseColor = 0;
+  private volatile boolean m_idleBase = true;
+
+  /* renderer only: the frame being composed and the frame last sent */
+  private final byte[] m_back;
+  private final byte[] m_front;
+  private long m_sent = 0;
+
+  private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("LEDs");
+  private final DoublePublisher m_renderUsPub = m_table.getDoubleTopic("RenderUs").publish();
+  private final IntegerPublisher m_sentPub = m_table.getIntegerTopic("Sent").publish();
+  private final IntegerPublisher m_dirtyPub = m_table.getIntegerTopic("DirtyLeds").publish();
+  private final int m_ntBudget = NtBudget.register("LEDs", NtBudget.Priority.LOW, 5.0, 56);
+
+  /**
+   * @param port          roboRIO PWM port
+   * @param length        LEDs on the strip
+   * @param periodSeconds How often to render
+   */
+  public AddressableLedDevice(int port, int length, double periodSeconds) {
+    m_led = new AddressableLED(port);
+    m_buffer = new AddressableLEDBuffer(length);
+    m_led.setLength(length);
+    m_periodSeconds = periodSeconds;
+
+    // Start with the LEDs off; the first render sends the whole strip
+    m_back = new byte[length * 3];
+    m_front = new byte[length * 3];
+    m_led.setData(m_buffer);
+    m_led.start();
+
+    m_renderer = new Notifier(this::render);
+    m_renderer.setName("LEDs");
+  }
+
+  @Override
+  public void load(LedAnimation[] states, LedAnimation idle) {
+    m_animations = states.clone();
+    m_idle = idle;
+    m_renderer.startPeriodic(m_periodSeconds);
+  }
+
+  @Override
+  public void show(int activeStates, double progress, int baseColor, boolean idleBase) {
+    m_progress = progress;
+    m_baseColor = baseColor;
+    m_idleBase = idleBase;
+    m_activeStates = activeStates;
+  }
+
+  @Override
+  public void stop() {
+    m_renderer.stop();
+    m_led.stop();
+  }
+
+  /* Notifier thread (package-private for the benchmark): compose, diff, send the dirty range */
+  void render() {
+    final long start = System.nanoTime();
+    final double now = Timer.getFPGATimestamp();
+    final int active = m_activeStates;
+    final double progress = m_progress;
+
+    /* everything below the highest-priority opaque layer is covered, so start there */
+    int first = m_animations.length;
+    for (int s = 0; s < m_animations.length; ++s) {
+      if ((active & (1 << s)) != 0 && !m_animations[s].isOverlay()) {
+        first = s;
+        break;
+      }
+    }
+    if (first < m_animations.length) {
+      copy(m_animations[first], now, progress);
+    } else if (m_idleBase && m_idle != null) {
+      copy(m_idle, now, progress);
+    } else {
+      fill(m_baseColor);
+    }
+    for (int s = first - 1; s >= 0; --s) {
+      if ((active & (1 << s)) != 0) {
+        overlay(m_animations[s], now, progress);
+      }
+    }
+
+    int lo = 0;
+    while (lo < m_back.length && m_back[lo] == m_front[lo]) {
+      ++lo;
+    }
+    int dirty = 0;
+    if (lo < m_back.length) {
+      int hi = m_back.length - 1;
+      while (m_back[hi] == m_front[hi]) {
+        --hi;
+      }
+      System.arraycopy(m_back, lo, m_front, lo, hi - lo + 1);
+      final int firstLed = lo / 3;
+      final int lastLed = hi / 3;
+      for (int i = firstLed; i <= lastLed; ++i) {
+        m_buffer.setRGB(i, m_front[3 * i] & 0xFF, m_front[3 * i + 1] & 0xFF, m_front[3 * i + 2] & 0xFF);
+      }
+      m_led.setData(m_buffer);
+      dirty = lastLed - firstLed + 1;
+      ++m_sent;
+    }
+    if (NtBudget.shouldSend(m_ntBudget)) {
+      m_sentPub.set(m_sent);
+      m_dirtyPub.set(dirty);
+      m_renderUsPub.set((System.nanoTime() - start) * 1e-3);
+    }
+  }
+
+  private void copy(LedAnimation animation, double now, double progress) {
+    System.arraycopy(
+        animation.getFrames(), animation.offsetOf(animation.frameAt(now, progress)), m_back, 0, m_back.length);
+  }
+
+  /* overlay pixels that are black leave the layer below visible */
+  private void overlay(LedAnimation animation, double now, double progress) {
+    final byte[] frames = animation.getFrames();
+    final int offset = animation.offsetOf(animation.frameAt(now, progress));
+    for (int i = 0; i < m_back.length; i += 3) {
+      if ((frames[offset + i] | frames[offset + i + 1] | frames[offset + i + 2]) != 0) {
+        m_back[i] = frames[offset + i];
+        m_back[i + 1] = frames[offset + i + 1];
+        m_back[i + 2] = frames[offset + i + 2];
+      }
+    }
+  }
+
+  private void fill(int rgb) {
+    final byte r = (byte) (rgb >> 16);
+    final byte g = (byte) (rgb >> 8);
+    final byte b = (byte) rgb;
+    for (int i = 0; i < m_back.length; i += 3) {
+      m_back[i] = r;
+      m_back[i + 1] = g;
+      m_back[i + 2] = b;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package frc.robot.subsystems.LEDS;
+
+/**
+ * An {@link LedDevice} with no hardware behind it, for simulation, benchmarks and tests.
+ *
+ * <p>It remembers what it was last asked to show and counts a command whenever
+ * {@link LedLayerTracker} (the same decision {@link LumynLedDevice} sends by) says one goes out,
+ * so checks can be made against the layer picked and the command traffic without a strip or a
+ * ConnectorX attached.
+ */
+public final class FakeLedDevice implements LedDevice {
+  private LedAnimation[] m_states = new LedAnimation[0];
+  private LedAnimation m_idle;
+
+  private int m_activeStates = 0;
+  private double m_progress = 0.0;
+  private int m_baseColor = 0;
+  private boolean m_idleBase = true;
+
+  private final LedLayerTracker m_layers = new LedLayerTracker();
+  private LedAnimation m_shown;
+  private long m_commands = 0;
+  private boolean m_stopped = false;
+
+  @Override
+  public void load(LedAnimation[] states, LedAnimation idle) {
+    m_states = states.clone();
+    m_idle = idle;
+  }
+
+  @Override
+  public void show(int activeStates, double progress, int baseColor, boolean idleBase) {
+    if (m_stopped) return;
+    m_activeStates = activeStates;
+    m_progress = progress;
+    m_baseColor = baseColor;
+    m_idleBase = idleBase;
+
+    final int layer = m_layers.update(activeStates, baseColor, idleBase);
+    if (layer == LedLayerTracker.kUnchanged) return;
+    m_shown = layer >= 0 ? m_states[layer] : layer == LedLayerTracker.kIdle ? m_idle : null;
+    ++m_commands;
+  }
+
+  @Override
+  public void stop() {
+    m_stopped = true;
+  }
+
+  /** The top layer's pattern, or null while the base color shows. */
+  public LedAnimation getShown() {
+    return m_shown;
+  }
+
+  /** The highest priority active state, or null if none is active. */
+  public LedState getTopState() {
+    final int top = LedDevice.topState(m_activeStates);
+    return top >= 0 ? LedState.values()[top] : null;
+  }
+
+  public int getActiveStates() {
+    return m_activeStates;
+  }
+
+  public double getProgress() {
+    return m_progress;
+  }
+
+  public int getBaseColor() {
+    return m_baseColor;
+  }
+
+  public boolean isIdleBase() {
+    return m_idleBase;
+  }
+
+  /** Layer changes so far, i.e. the commands a Lumyn device would have been sent. */
+  public long getCommandCount() {
+    return m_commands;
+  }
+
+  public boolean isStopped() {
+    return m_stopped;
+  }
+}
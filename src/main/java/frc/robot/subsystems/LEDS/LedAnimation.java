@@ -0,0 +1,157 @@
+package frc.robot.subsystems.LEDS;
+
+import edu.wpi.first.wpilibj.util.Color;
+
+/**
+ * A precomputed LED pattern. Every frame is rendered into one RGB byte array when the animation
+ * is built, so playing it back is only an array copy.
+ *
+ * <p>Timed animations step through their frames at a fixed period; a progress bar picks its frame
+ * from a 0..1 value instead. Overlays leave their black pixels transparent, so the layer below
+ * shows through (e.g. a chase over the alliance color). The pattern's kind, color and timing are
+ * kept too, for devices that run their own animations (see {@link LumynLedDevice}). Immutable once
+ * built.
+ */
+public final class LedAnimation {
+  /** The pattern an animation was built from. */
+  public enum Kind {
+    SOLID, BLINK, CHASE, PROGRESS_BAR, RAINBOW
+  }
+
+  private final Kind m_kind;
+  private final int m_color; // 0xRRGGBB, 0 for rainbows
+  private final int m_length;
+  private final int m_frameCount;
+  private final byte[] m_frames;
+  /* seconds per frame; 0 means the frame is picked by progress */
+  private final double m_framePeriod;
+  private final boolean m_overlay;
+
+  private LedAnimation(Kind kind, int color, int length, int frameCount, double framePeriod, boolean overlay) {
+    m_kind = kind;
+    m_color = color;
+    m_length = length;
+    m_frameCount = frameCount;
+    m_frames = new byte[frameCount * length * 3];
+    m_framePeriod = framePeriod;
+    m_overlay = overlay;
+  }
+
+  /** One color on every LED. */
+  public static LedAnimation solid(int length, int r, int g, int b) {
+    LedAnimation animation = new LedAnimation(Kind.SOLID, rgb(r, g, b), length, 1, 1.0, false);
+    for (int i = 0; i < length; ++i) {
+      animation.set(0, i, r, g, b);
+    }
+    return animation;
+  }
+
+  /** The whole strip on and off, once per period. */
+  public static LedAnimation blink(int length, int r, int g, int b, double periodSeconds) {
+    LedAnimation animation = new LedAnimation(Kind.BLINK, rgb(r, g, b), length, 2, periodSeconds / 2.0, false);
+    for (int i = 0; i < length; ++i) {
+      animation.set(0, i, r, g, b);
+    }
+    return animation;
+  }
+
+  /**
+   * Lit segments with equal gaps, moving along the strip (overlay).
+   *
+   * @param segment       LEDs per lit segment (and per gap)
+   * @param ledsPerSecond How fast the segments move
+   */
+  public static LedAnimation chase(int length, int r, int g, int b, int segment, double ledsPerSecond) {
+    final int frames = 2 * segment;
+    LedAnimation animation = new LedAnimation(Kind.CHASE, rgb(r, g, b), length, frames, 1.0 / ledsPerSecond, true);
+    for (int f = 0; f < frames; ++f) {
+      for (int i = 0; i < length; ++i) {
+        if ((i + frames - f) % frames < segment) {
+          animation.set(f, i, r, g, b);
+        }
+      }
+    }
+    return animation;
+  }
+
+  /** The first progress × length LEDs lit, the rest transparent (overlay). */
+  public static LedAnimation progressBar(int length, int r, int g, int b) {
+    LedAnimation animation = new LedAnimation(Kind.PROGRESS_BAR, rgb(r, g, b), length, length + 1, 0.0, true);
+    for (int f = 0; f <= length; ++f) {
+      for (int i = 0; i < f; ++i) {
+        animation.set(f, i, r, g, b);
+      }
+    }
+    return animation;
+  }
+
+  /** A rainbow spread over the strip, cycling once per period. */
+  public static LedAnimation rainbow(int length, double periodSeconds) {
+    final int frames = 60;
+    LedAnimation animation = new LedAnimation(Kind.RAINBOW, 0, length, frames, periodSeconds / frames, false);
+    for (int f = 0; f < frames; ++f) {
+      for (int i = 0; i < length; ++i) {
+        final int hue = (i * 180 / length + f * 180 / frames) % 180;
+        Color color = Color.fromHSV(hue, 255, 128);
+        animation.set(f, i, (int) (color.red * 255), (int) (color.green * 255), (int) (color.blue * 255));
+      }
+    }
+    return animation;
+  }
+
+  public Kind getKind() {
+    return m_kind;
+  }
+
+  /** The pattern's color as 0xRRGGBB (0 for rainbows). */
+  public int getColor() {
+    return m_color;
+  }
+
+  /** Frame to show at the given time (seconds) or, for a progress bar, progress (0..1). */
+  public int frameAt(double timeSeconds, double progress) {
+    if (m_framePeriod == 0.0) {
+      final double clamped = Math.max(0.0, Math.min(1.0, progress));
+      return (int) Math.round(clamped * (m_frameCount - 1));
+    }
+    return (int) ((long) (timeSeconds / m_framePeriod) % m_frameCount);
+  }
+
+  /** All frames, frame after frame, 3 bytes (RGB) per LED. Read-only. */
+  public byte[] getFrames() {
+    return m_frames;
+  }
+
+  /** Index of the frame's first byte in {@link #getFrames()}. */
+  public int offsetOf(int frame) {
+    return frame * m_length * 3;
+  }
+
+  public int getLength() {
+    return m_length;
+  }
+
+  public int getFrameCount() {
+    return m_frameCount;
+  }
+
+  /** Seconds per frame, or 0 if frames are picked by progress. */
+  public double getFramePeriod() {
+    return m_framePeriod;
+  }
+
+  public boolean isOverlay() {
+    return m_overlay;
+  }
+
+  private static int rgb(int r, int g, int b) {
+    return (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+  }
+
+  private void set(int frame, int led, int r, int g, int b) {
+    final int i = offsetOf(frame) + led * 3;
+    m_frames[i] = (byte) r;
+    m_frames[i + 1] = (byte) g;
+    m_frames[i + 2] = (byte) b;
+  }
+}
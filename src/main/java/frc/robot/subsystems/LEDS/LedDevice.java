@@ -0,0 +1,36 @@
+package frc.robot.subsystems.LEDS;
+
+/**
+ * Where {@link LumenLightsSubsystem} shows its patterns.
+ *
+ * <p>The subsystem hands over every pattern once with {@link #load}, then calls {@link #show} each
+ * loop with the layers that are active; each device decides what (if anything) has to go out. See
+ * {@link AddressableLedDevice}, {@link LumynLedDevice} and {@link FakeLedDevice}.
+ */
+public interface LedDevice {
+  /**
+   * Called once, before the first {@link #show}.
+   *
+   * @param states Pattern per {@link LedState}, by ordinal
+   * @param idle   Base layer while there is no alliance color
+   */
+  void load(LedAnimation[] states, LedAnimation idle);
+
+  /**
+   * Called every loop from the main robot thread; must not block.
+   *
+   * @param activeStates One bit per {@link LedState} ordinal; lower ordinals win
+   * @param progress     0..1, for progress bar patterns
+   * @param baseColor    Base layer color, 0xRRGGBB
+   * @param idleBase     Show the idle pattern as the base layer instead of baseColor
+   */
+  void show(int activeStates, double progress, int baseColor, boolean idleBase);
+
+  /** Turns the LEDs off for good. */
+  void stop();
+
+  /** The highest priority active {@link LedState} ordinal, or -1 if none is active. */
+  static int topState(int activeStates) {
+    return activeStates == 0 ? -1 : Integer.numberOfTrailingZeros(activeStates);
+  }
+}
@@ -0,0 +1,42 @@
+package frc.robot.subsystems.LEDS;
+
+/**
+ * Picks the layer a command-driven device shows (the highest priority active state, else the idle
+ * pattern or the base color) and tells whether a command has to go out for it: only when the layer
+ * changed, or the base color did while it shows.
+ *
+ * <p>{@link LumynLedDevice} and {@link FakeLedDevice} both decide through this, so the fake sends
+ * exactly the commands the ConnectorX would get.
+ */
+final class LedLayerTracker {
+  /** Layer for the base color */
+  static final int kBase = -1;
+  /** Layer for the idle pattern */
+  static final int kIdle = -2;
+  /** Nothing has to be sent */
+  static final int kUnchanged = -3;
+
+  /* nothing shown yet, or stopped */
+  private static final int kNothing = -4;
+
+  private int m_shown = kNothing;
+  private int m_shownColor = -1;
+
+  /**
+   * @return The layer to send a command for, a {@link LedState} ordinal, {@link #kIdle} or
+   *         {@link #kBase}; {@link #kUnchanged} if the device already shows it
+   */
+  int update(int activeStates, int baseColor, boolean idleBase) {
+    final int top = LedDevice.topState(activeStates);
+    final int layer = top >= 0 ? top : idleBase ? kIdle : kBase;
+    if (layer == m_shown && (layer != kBase || baseColor == m_shownColor)) return kUnchanged;
+    m_shown = layer;
+    m_shownColor = baseColor;
+    return layer;
+  }
+
+  /** Forgets what is shown, e.g. after the LEDs were turned off. */
+  void reset() {
+    m_shown = kNothing;
+  }
+}
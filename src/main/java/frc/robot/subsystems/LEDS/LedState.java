@@ -0,0 +1,16 @@
+package frc.robot.subsystems.LEDS;
+
+/**
+ * Robot states shown on the LEDs, highest priority first. When several are active the highest one
+ * wins; overlay patterns are drawn on top of whatever is below them instead of replacing it.
+ */
+public enum LedState {
+  /** Shooter at speed: blinking green. */
+  SHOOTER_READY,
+  /** Shooter spinning up: orange bar filling with the wheel speed (overlay). */
+  SHOOTER_SPINUP,
+  /** Vision estimates are being accepted: purple chase (overlay). */
+  VISION_LOCK,
+  /** Holding a game piece: solid yellow. */
+  PIECE_HELD,
+}
@@ -1,35 +1,73 @@
 package frc.robot.subsystems.LEDS;
 
-import edu.wpi.first.wpilibj.AddressableLED;
-import edu.wpi.first.wpilibj.AddressableLEDBuffer;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotBase;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.Constants;
+import frc.robot.Util.LoopProfiler;
 
 /**
- * Simple lights subsystem that sets the entire LED strip to the alliance color.
- * Uses WPILib AddressableLED so it will work even if Lumyn isn't available; you
- * can replace the implementation with Lumyn calls if desired.
+ * LED strip showing the alliance color, with robot states layered on top.
+ *
+ * <p>Each {@link LedState} has a precomputed {@link LedAnimation}; the states that are active
+ * (from the suppliers given to {@link #bind}) are checked once per loop in periodic() and handed to
+ * the {@link LedDevice}. The base layer is the alliance color, or a rainbow while there is no
+ * alliance.
+ *
+ * <p>On the robot a Lumyn ConnectorX is used when one answers on USB, so the device runs the
+ * animations and the roboRIO only sends a command when the top layer changes. Otherwise (and in
+ * simulation) the strip on {@link Constants.Lights#kLedPort} is driven with WPILib AddressableLED.
  */
 public class LumenLightsSubsystem extends SubsystemBase {
-  private final AddressableLED m_led;
-  private final AddressableLEDBuffer m_buffer;
+  private static final int kPeriodicProfile = LoopProfiler.register("LumenLights.periodic");
+
+  private static final LedState[] kStates = LedState.values();
+
+  private final LedDevice m_device;
   // Track last seen alliance; null means we haven't set anything yet / currently no alliance
   private Alliance m_currentAlliance = null;
 
+  private final BooleanSupplier[] m_sources = new BooleanSupplier[kStates.length];
+  private DoubleSupplier m_progressSource = () -> 0.0;
+  private int m_baseColor = 0; // 0xRRGGBB
+  private boolean m_idleBase = true;
+
   public LumenLightsSubsystem() {
-    m_led = new AddressableLED(Constants.Lights.kLedPort);
-    m_buffer = new AddressableLEDBuffer(Constants.Lights.kLedLength);
-    m_led.setLength(m_buffer.getLength());
-    // Start with the LEDs off
-    setAllRGB(0, 0, 0);
-    m_led.start();
+    this(createDevice());
+  }
+
+  /** Uses the given device, e.g. a {@link FakeLedDevice}. */
+  public LumenLightsSubsystem(LedDevice device) {
+    m_device = device;
+
+    final int length = Constants.Lights.kLedLength;
+    final LedAnimation[] animations = new LedAnimation[kStates.length];
+    animations[LedState.SHOOTER_READY.ordinal()] = LedAnimation.blink(length, 0, 255, 0, 0.2);
+    animations[LedState.SHOOTER_SPINUP.ordinal()] = LedAnimation.progressBar(length, 255, 80, 0);
+    animations[LedState.VISION_LOCK.ordinal()] = LedAnimation.chase(length, 160, 0, 255, 3, 30.0);
+    animations[LedState.PIECE_HELD.ordinal()] = LedAnimation.solid(length, 255, 180, 0);
+    m_device.load(animations, LedAnimation.rainbow(length, 3.0));
+  }
+
+  /* Lumyn when one is connected, else the PWM strip */
+  private static LedDevice createDevice() {
+    if (RobotBase.isReal()) {
+      LumynLedDevice lumyn = LumynLedDevice.connect(Constants.Lights.kLumynZone);
+      if (lumyn != null) return lumyn;
+      DriverStation.reportWarning(
+          "LEDs: no Lumyn device found, using AddressableLED on PWM " + Constants.Lights.kLedPort, false);
+    }
+    return new AddressableLedDevice(
+        Constants.Lights.kLedPort, Constants.Lights.kLedLength, Constants.Lights.kRenderPeriodSeconds);
   }
 
   @Override
   public void periodic() {
+    LoopProfiler.begin(kPeriodicProfile);
     // Check alliance each loop and update color when it changes. DriverStation.getAlliance()
     // returns an Optional<Alliance> (empty if unknown/not connected).
     Optional<Alliance> allianceOpt = DriverStation.getAlliance();
@@ -44,24 +82,39 @@ public class LumenLightsSubsystem extends SubsystemBase {
         }
       }
     } else {
-      // No alliance info (e.g., disabled before match); turn off if previously set
-      if (m_currentAlliance != null) {
-        m_currentAlliance = null;
-        setAllRGB(0, 0, 0);
+      // No alliance info (e.g., disabled before match); show the idle rainbow
+      m_currentAlliance = null;
+      m_idleBase = true;
+    }
+
+    int active = 0;
+    for (int s = 0; s < kStates.length; ++s) {
+      if (m_sources[s] != null && m_sources[s].getAsBoolean()) {
+        active |= 1 << s;
       }
     }
+    m_device.show(active, m_progressSource.getAsDouble(), m_baseColor, m_idleBase);
+    LoopProfiler.end(kPeriodicProfile);
+  }
+
+  /** Shows the state's pattern while the supplier returns true; checked once per loop. */
+  public void bind(LedState state, BooleanSupplier active) {
+    m_sources[state.ordinal()] = active;
+  }
+
+  /** Progress (0..1) shown by {@link LedState#SHOOTER_SPINUP}; checked once per loop. */
+  public void setProgressSource(DoubleSupplier progress) {
+    m_progressSource = progress;
   }
 
-  /** Set every LED in the buffer to the given RGB color (0-255). */
+  /** Set the base layer (shown when no state is active) to the given RGB color (0-255), from the next loop. */
   public void setAllRGB(int r, int g, int b) {
-    for (int i = 0; i < m_buffer.getLength(); i++) {
-      m_buffer.setRGB(i, r, g, b);
-    }
-    m_led.setData(m_buffer);
+    m_baseColor = (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+    m_idleBase = false;
   }
 
   /** Stop the LED output (useful for disabling). */
   public void stop() {
-    m_led.stop();
+    m_device.stop();
   }
 }
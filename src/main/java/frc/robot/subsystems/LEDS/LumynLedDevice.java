@@ -0,0 +1,109 @@
+package frc.robot.subsystems.LEDS;
+
+import com.lumynlabs.connection.usb.USBPort;
+import com.lumynlabs.devices.ConnectorX;
+import com.lumynlabs.domain.led.Animation;
+
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.units.Units;
+import edu.wpi.first.wpilibj.util.Color;
+
+/**
+ * Shows the patterns on a Lumyn ConnectorX, which runs the animations itself.
+ *
+ * <p>Every pattern is turned into a prepared device command once, in {@link #load}. After that
+ * the roboRIO sends one short command when the top layer (or the base color) changes and nothing
+ * otherwise: no per-pixel data, no render thread. The device plays a single animation on the
+ * zone, so only the highest priority active layer shows (overlays are not composited) and progress
+ * bars show as a breathing color.
+ */
+public final class LumynLedDevice implements LedDevice {
+  private static final double kBreathePeriodSeconds = 0.02;
+
+  private final ConnectorX m_device;
+  private final String m_zone;
+
+  private Runnable[] m_stateCommands = new Runnable[0];
+  private Runnable m_idleCommand = () -> {};
+
+  private final LedLayerTracker m_layers = new LedLayerTracker();
+  private long m_commands = 0;
+  private boolean m_stopped = false;
+
+  private final IntegerPublisher m_commandsPub =
+      NetworkTableInstance.getDefault().getTable("LEDs").getIntegerTopic("LumynCommands").publish();
+
+  private LumynLedDevice(ConnectorX device, String zone) {
+    m_device = device;
+    m_zone = zone;
+  }
+
+  /** Connects to a ConnectorX on the roboRIO's USB port; null when none answers. */
+  public static LumynLedDevice connect(String zone) {
+    ConnectorX device = new ConnectorX();
+    if (!device.Connect(USBPort.kUSB1)) return null;
+    return new LumynLedDevice(device, zone);
+  }
+
+  @Override
+  public void load(LedAnimation[] states, LedAnimation idle) {
+    m_stateCommands = new Runnable[states.length];
+    for (int s = 0; s < states.length; ++s) {
+      m_stateCommands[s] = prepare(states[s]);
+    }
+    m_idleCommand = prepare(idle);
+  }
+
+  @Override
+  public void show(int activeStates, double progress, int baseColor, boolean idleBase) {
+    if (m_stopped) return;
+    final int layer = m_layers.update(activeStates, baseColor, idleBase);
+    if (layer == LedLayerTracker.kUnchanged) return;
+
+    if (layer >= 0) {
+      m_stateCommands[layer].run();
+    } else if (layer == LedLayerTracker.kIdle) {
+      m_idleCommand.run();
+    } else {
+      m_device.leds.SetColor(m_zone, color(baseColor));
+    }
+    m_commandsPub.set(++m_commands);
+  }
+
+  @Override
+  public void stop() {
+    /* for good, like the PWM strip: later show() calls must not turn it back on */
+    m_stopped = true;
+    m_device.leds.SetColor(m_zone, Color.kBlack);
+    m_layers.reset();
+  }
+
+  /* The device command for a pattern, with its color and timing built ahead of time */
+  private Runnable prepare(LedAnimation pattern) {
+    final Color color = color(pattern.getColor());
+    /* progress bars have no frame period of their own */
+    final double periodSeconds = pattern.getFramePeriod() > 0.0 ? pattern.getFramePeriod() : kBreathePeriodSeconds;
+    final var delay = Units.Milliseconds.of(periodSeconds * 1e3);
+    final Animation animation = switch (pattern.getKind()) {
+      case SOLID -> null;
+      case BLINK -> Animation.Blink;
+      case CHASE -> Animation.Chase;
+      case PROGRESS_BAR -> Animation.Breathe;
+      case RAINBOW -> Animation.RainbowCycle;
+    };
+    if (animation == null) {
+      return () -> m_device.leds.SetColor(m_zone, color);
+    }
+    return () -> m_device.leds.SetAnimation(animation)
+        .ForZone(m_zone)
+        .WithColor(color)
+        .WithDelay(delay)
+        .Reverse(false)
+        .RunOnce(false);
+  }
+
+  private static Color color(int rgb) {
+    return new Color((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+  }
+}
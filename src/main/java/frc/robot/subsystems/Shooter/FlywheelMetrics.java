@@ -0,0 +1,107 @@
+package frc.robot.subsystems.Shooter;
+
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Util.NtBudget;
+
+/**
+ * Cycle-speed numbers for the flywheel: time to spin up to a new target, shots (detected as a
+ * speed dip while ready), time to recover from each shot, and how consistent the wheel speed is
+ * from one shot to the next. Published under "Shooter/" (and so also in the NT data log); the
+ * per-loop speed trace within the {@link NtBudget}, the per-shot numbers whenever they change.
+ */
+class FlywheelMetrics {
+  private final double[] m_shotSpeeds = new double[ShooterConstants.kShotHistory];
+  private int m_shotCount = 0;
+
+  private double m_spinUpStart = Double.NaN;
+  private double m_shotStart = Double.NaN;
+  private double m_shotSpeed = 0.0;
+  private double m_shotMinSpeed = 0.0;
+  private boolean m_wasReady = false;
+
+  private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("Shooter");
+  private final DoublePublisher m_measuredPub = m_table.getDoubleTopic("MeasuredRPS").publish();
+  private final DoublePublisher m_referencePub = m_table.getDoubleTopic("ReferenceRPS").publish();
+  private final DoublePublisher m_voltagePub = m_table.getDoubleTopic("Voltage").publish();
+  private final BooleanPublisher m_readyPub = m_table.getBooleanTopic("Ready").publish();
+  private final DoublePublisher m_spinUpPub = m_table.getDoubleTopic("SpinUpMs").publish();
+  private final DoublePublisher m_recoveryPub = m_table.getDoubleTopic("RecoveryMs").publish();
+  private final DoublePublisher m_dropPub = m_table.getDoubleTopic("ShotDropRPS").publish();
+  private final IntegerPublisher m_shotCountPub = m_table.getIntegerTopic("ShotCount").publish();
+  private final DoublePublisher m_shotSpeedStdDevPub = m_table.getDoubleTopic("ShotSpeedStdDevRPS").publish();
+  /* measured, reference, voltage, ready; every loop while the budget allows */
+  private final int m_ntBudget = NtBudget.register("Shooter", NtBudget.Priority.NORMAL, 75.0, 73);
+
+  /** Call when the target speed changes to a new non-zero value. */
+  void targetChanged(double now) {
+    m_spinUpStart = now;
+    m_shotStart = Double.NaN;
+  }
+
+  /**
+   * Call once per loop.
+   *
+   * @param now       Current time, seconds
+   * @param target    Target speed, rps
+   * @param measured  Measured speed, rps
+   * @param reference Speed the controller is estimating (Kalman state), rps
+   * @param voltage   Voltage commanded this loop
+   * @param ready     Whether the shooter reports ready
+   */
+  void update(double now, double target, double measured, double reference, double voltage, boolean ready) {
+    if (NtBudget.shouldSend(m_ntBudget)) {
+      m_measuredPub.set(measured);
+      m_referencePub.set(reference);
+      m_voltagePub.set(voltage);
+      m_readyPub.set(ready);
+    }
+
+    if (ready && !m_wasReady) {
+      if (!Double.isNaN(m_spinUpStart)) {
+        m_spinUpPub.set((now - m_spinUpStart) * 1000.0);
+        m_spinUpStart = Double.NaN;
+      } else if (!Double.isNaN(m_shotStart)) {
+        m_recoveryPub.set((now - m_shotStart) * 1000.0);
+        m_dropPub.set(m_shotSpeed - m_shotMinSpeed);
+        m_shotStart = Double.NaN;
+      }
+    }
+
+    /* a dip out of a ready state is a shot; the speed just before it is the shot speed */
+    final double error = Math.abs(target) - Math.abs(measured);
+    if (m_wasReady && target != 0.0 && error > ShooterConstants.kShotDetectDropRps && Double.isNaN(m_shotStart)) {
+      m_shotStart = now;
+      m_shotMinSpeed = Math.abs(measured);
+      m_shotSpeeds[m_shotCount % m_shotSpeeds.length] = m_shotSpeed;
+      ++m_shotCount;
+      m_shotCountPub.set(m_shotCount);
+      m_shotSpeedStdDevPub.set(shotSpeedStdDev());
+    }
+    if (!Double.isNaN(m_shotStart)) {
+      m_shotMinSpeed = Math.min(m_shotMinSpeed, Math.abs(measured));
+    } else if (ready) {
+      m_shotSpeed = Math.abs(measured);
+    }
+    m_wasReady = ready;
+  }
+
+  private double shotSpeedStdDev() {
+    final int n = Math.min(m_shotCount, m_shotSpeeds.length);
+    if (n < 2) return 0.0;
+    double mean = 0.0;
+    for (int i = 0; i < n; ++i) {
+      mean += m_shotSpeeds[i];
+    }
+    mean /= n;
+    double variance = 0.0;
+    for (int i = 0; i < n; ++i) {
+      variance += (m_shotSpeeds[i] - mean) * (m_shotSpeeds[i] - mean);
+    }
+    return Math.sqrt(variance / (n - 1));
+  }
+}
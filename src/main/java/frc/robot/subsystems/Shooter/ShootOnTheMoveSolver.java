@@ -0,0 +1,170 @@
+package frc.robot.subsystems.Shooter;
+
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Util.InterpolatingTable;
+
+/**
+ * Aims a shot while the robot is moving.
+ *
+ * <p>The ball leaves with the robot's velocity added to it, so instead of the real target we aim
+ * at a virtual target shifted by -v * timeOfFlight. The time of flight depends on the distance to
+ * that virtual target, so the time of flight is solved for with a bracketed secant search over the
+ * shot map, starting from the real target. The robot position is first predicted ahead by the control latency.
+ *
+ * <p>Iterations are capped at {@link ShooterConstants#kSotmMaxIterations}; results are plain
+ * fields, so a solve allocates nothing. Not thread-safe.
+ */
+public class ShootOnTheMoveSolver {
+  private final double m_headingOffset;
+
+  private double m_heading = 0.0;
+  private double m_rps = 0.0;
+  private double m_distance = 0.0;
+  private double m_timeOfFlight = 0.0;
+  private double m_virtualX = 0.0;
+  private double m_virtualY = 0.0;
+  private int m_iterations = 0;
+  private boolean m_converged = false;
+
+  public ShootOnTheMoveSolver() {
+    this(ShooterConstants.kShooterHeadingOffsetRadians);
+  }
+
+  /** @param headingOffsetRadians Shooter direction relative to the robot's front, CCW positive */
+  ShootOnTheMoveSolver(double headingOffsetRadians) {
+    m_headingOffset = headingOffsetRadians;
+  }
+
+  /**
+   * Solves for the current state.
+   *
+   * @param x       Robot x on the field, meters
+   * @param y       Robot y on the field, meters
+   * @param vx      Robot velocity along field x, m/s
+   * @param vy      Robot velocity along field y, m/s
+   * @param targetX Target x, meters
+   * @param targetY Target y, meters
+   * @param shotMap Distance -> (rps, time of flight), columns as in {@link ShotMapSubsystem}
+   * @return true if the virtual target converged within the iteration budget
+   */
+  public boolean solve(double x, double y, double vx, double vy, double targetX, double targetY, InterpolatingTable shotMap) {
+    /* where the robot will be when the command actually takes effect */
+    final double px = x + vx * ShooterConstants.kSotmLatencySeconds;
+    final double py = y + vy * ShooterConstants.kSotmLatencySeconds;
+
+    /*
+     * Find the time of flight t with t = tof(distance to target - v * t), i.e. the root of
+     * g(t) = tof(d(t)) - t. g(0) > 0, and g is negative past the longest time of flight in the
+     * map, so the root is bracketed; secant steps with the Illinois fix keep it bracketed and
+     * still converge in a few steps when the robot is fast. speed * |g| is how far the ball would
+     * miss by, which is what the tolerance is on.
+     */
+    final double speed = Math.hypot(vx, vy);
+    double lo = 0.0;
+    double gLo = residual(lo, px, py, vx, vy, targetX, targetY, shotMap);
+    double t = lo;
+    double g = gLo;
+    int i = 1;
+    m_converged = speed * Math.abs(g) < ShooterConstants.kSotmToleranceMeters;
+    if (!m_converged) {
+      /* first guess is the plain fixed-point step; widen to the map's longest flight if short */
+      double hi = gLo;
+      double gHi = residual(hi, px, py, vx, vy, targetX, targetY, shotMap);
+      ++i;
+      if (gHi > 0.0) {
+        lo = hi;
+        gLo = gHi;
+        hi = Math.max(hi, maxTimeOfFlight(shotMap));
+        gHi = residual(hi, px, py, vx, vy, targetX, targetY, shotMap);
+        ++i;
+      }
+      t = hi;
+      g = gHi;
+      m_converged = speed * Math.abs(g) < ShooterConstants.kSotmToleranceMeters;
+      int side = 0;
+      while (!m_converged && i < ShooterConstants.kSotmMaxIterations && gHi < gLo) {
+        ++i;
+        t = (lo * gHi - hi * gLo) / (gHi - gLo);
+        g = residual(t, px, py, vx, vy, targetX, targetY, shotMap);
+        m_converged = speed * Math.abs(g) < ShooterConstants.kSotmToleranceMeters;
+        if (g > 0.0) {
+          lo = t;
+          gLo = g;
+          if (side > 0) gHi *= 0.5;
+          side = 1;
+        } else {
+          hi = t;
+          gHi = g;
+          if (side < 0) gLo *= 0.5;
+          side = -1;
+        }
+      }
+    }
+    final double vtx = targetX - vx * t;
+    final double vty = targetY - vy * t;
+    final double distance = Math.hypot(vtx - px, vty - py);
+    /* the map's flight time to the virtual target, t + g; within tolerance of t once converged */
+    final double tof = t + g;
+
+    m_iterations = i;
+    m_virtualX = vtx;
+    m_virtualY = vty;
+    m_distance = distance;
+    m_timeOfFlight = tof;
+    /* the shot leaves at heading + offset, so the robot faces the aim direction minus the offset */
+    m_heading = Math.atan2(vty - py, vtx - px) - m_headingOffset;
+    final double rps = shotMap.get(distance, ShotMapSubsystem.kRpsColumn);
+    m_rps = Double.isNaN(rps) ? 0.0 : rps;
+    return m_converged;
+  }
+
+  /* tof(distance to the virtual target for flight time t) - t */
+  private static double residual(
+      double t, double px, double py, double vx, double vy, double targetX, double targetY, InterpolatingTable shotMap) {
+    final double d = Math.hypot(targetX - vx * t - px, targetY - vy * t - py);
+    final double tof = shotMap.get(d, ShotMapSubsystem.kTofColumn);
+    return (Double.isNaN(tof) ? 0.0 : tof) - t;
+  }
+
+  private static double maxTimeOfFlight(InterpolatingTable shotMap) {
+    double max = 0.0;
+    for (int row = 0; row < shotMap.size(); ++row) {
+      max = Math.max(max, shotMap.getValue(row, ShotMapSubsystem.kTofColumn));
+    }
+    return max;
+  }
+
+  /** Robot heading to command so the shooter points at the virtual target, radians (field). */
+  public double getHeading() {
+    return m_heading;
+  }
+
+  /** Shooter speed for the distance to the virtual target, rps. */
+  public double getRPS() {
+    return m_rps;
+  }
+
+  public double getDistance() {
+    return m_distance;
+  }
+
+  public double getTimeOfFlight() {
+    return m_timeOfFlight;
+  }
+
+  public double getVirtualTargetX() {
+    return m_virtualX;
+  }
+
+  public double getVirtualTargetY() {
+    return m_virtualY;
+  }
+
+  public int getIterations() {
+    return m_iterations;
+  }
+
+  public boolean isConverged() {
+    return m_converged;
+  }
+}
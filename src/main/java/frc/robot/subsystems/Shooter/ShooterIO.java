@@ -0,0 +1,38 @@
+package frc.robot.subsystems.Shooter;
+
+import frc.robot.Util.LoggableInputs;
+
+/**
+ * The flywheel's hardware: {@link ShooterIOTalonFX} on the robot, {@link ShooterIOSim} in
+ * simulation and {@link ShooterIOReplay} when replaying a log.
+ */
+public interface ShooterIO {
+  /** Everything the shooter reads from its hardware each loop. */
+  class Inputs implements LoggableInputs {
+    /** Wheel velocity, rotations per second */
+    public double velocityRps = 0.0;
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public void toLog(double[] out) {
+      out[0] = velocityRps;
+    }
+
+    @Override
+    public void fromLog(double[] in) {
+      velocityRps = in[0];
+    }
+  }
+
+  default void updateInputs(Inputs inputs) {}
+
+  /** Open-loop motor voltage; the speed loop runs in the subsystem. */
+  default void setVoltage(double volts) {}
+
+  /** Advances the simulated mechanism one loop. */
+  default void simulationPeriodic() {}
+}
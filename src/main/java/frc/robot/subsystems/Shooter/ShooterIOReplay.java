@@ -0,0 +1,4 @@
+package frc.robot.subsystems.Shooter;
+
+/** No hardware: inputs come from the replayed log and outputs go nowhere. */
+public final class ShooterIOReplay implements ShooterIO {}
@@ -0,0 +1,34 @@
+package frc.robot.subsystems.Shooter;
+
+import com.ctre.phoenix6.sim.TalonFXSimState;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Sim.SimBattery;
+
+/** The TalonFX flywheel with a simulated wheel behind its sim state. */
+public class ShooterIOSim extends ShooterIOTalonFX {
+  /* the same characterized kV/kA, in rad/s so the motor model's current draw is right */
+  private final FlywheelSim sim = new FlywheelSim(
+      LinearSystemId.identifyVelocitySystem(
+          ShooterConstants.kV / (2.0 * Math.PI), ShooterConstants.kA / (2.0 * Math.PI)),
+      DCMotor.getKrakenX60(1));
+
+  @Override
+  public void simulationPeriodic() {
+    TalonFXSimState simState = motor.getSimState();
+    simState.setSupplyVoltage(RobotController.getBatteryVoltage());
+    sim.setInputVoltage(simState.getMotorVoltage());
+    sim.update(TimedRobot.kDefaultPeriod);
+
+    final double rps = Units.radiansToRotations(sim.getAngularVelocityRadPerSec());
+    simState.setRotorVelocity(rps);
+    simState.addRotorPosition(rps * TimedRobot.kDefaultPeriod);
+    SimBattery.addCurrent(sim.getCurrentDrawAmps());
+  }
+}
@@ -0,0 +1,40 @@
+package frc.robot.subsystems.Shooter;
+
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.VoltageOut;
+import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.NeutralModeValue;
+
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Util.DeviceConfigService;
+import frc.robot.Util.MotorOutput;
+import frc.robot.Util.SignalRegistry;
+
+/** Flywheel on a TalonFX taking voltage requests. */
+public class ShooterIOTalonFX implements ShooterIO {
+  protected final TalonFX motor = new TalonFX(ShooterConstants.kMotorId);
+  private final VoltageOut voltageReq = new VoltageOut(0);
+  private final MotorOutput output = new MotorOutput("Shooter", motor);
+  private final int velocitySignal;
+
+  public ShooterIOTalonFX() {
+    velocitySignal = SignalRegistry.register("Shooter/Velocity", motor.getVelocity(false), 100.0);
+
+    TalonFXConfiguration cfg = new TalonFXConfiguration();
+
+    // Let the wheel spin down on its own when stopped
+    cfg.MotorOutput.NeutralMode = NeutralModeValue.Coast;
+
+    DeviceConfigService.submit("Shooter", motor, cfg);
+  }
+
+  @Override
+  public void updateInputs(Inputs inputs) {
+    inputs.velocityRps = SignalRegistry.get(velocitySignal);
+  }
+
+  @Override
+  public void setVoltage(double volts) {
+    output.set(voltageReq.withOutput(volts), volts);
+  }
+}
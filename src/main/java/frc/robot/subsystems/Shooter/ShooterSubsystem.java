@@ -1,23 +1,116 @@
 package frc.robot.subsystems.Shooter;
 
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.controller.LinearQuadraticRegulator;
+import edu.wpi.first.math.estimator.KalmanFilter;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.system.LinearSystem;
+import edu.wpi.first.math.system.LinearSystemLoop;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-import com.ctre.phoenix6.configs.TalonFXConfiguration;
-import com.ctre.phoenix6.controls.VelocityVoltage;
-import com.ctre.phoenix6.hardware.TalonFX;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Util.InputLogger;
+import frc.robot.Util.LoopProfiler;
 
+/**
+ * Flywheel shooter, run by a state-space loop on the roboRIO: a Kalman filter estimates wheel
+ * speed from the encoder, and an LQR on the characterized kV/kA model (plus kS) picks the voltage.
+ * Compared to a hand-tuned PID this uses close to full voltage while spinning up and pushes back
+ * hard on the dip after a shot, without overshooting.
+ *
+ * <p>{@link #isReady()} needs the wheel within tolerance for a short dwell time, so one lucky
+ * sample doesn't release a shot. Spin-up, recovery and shot consistency go to
+ * {@link FlywheelMetrics}.
+ *
+ * <p>The motor is behind a {@link ShooterIO}, which only takes voltages; its inputs are logged
+ * every loop.
+ */
 public class ShooterSubsystem extends SubsystemBase {
-    private final TalonFX motor = new TalonFX(30);
-    private final VelocityVoltage velocityReq = new VelocityVoltage(0);
+  private static final int kPeriodicProfile = LoopProfiler.register("Shooter.periodic");
 
-  public ShooterSubsystem() {
-    TalonFXConfiguration cfg = new TalonFXConfiguration();
+  private final ShooterIO io;
+  private final ShooterIO.Inputs inputs = new ShooterIO.Inputs();
+  private final int inputsLog;
 
-    cfg.Slot0.kP = 0.12;
-    cfg.Slot0.kI = 0.0;
-    cfg.Slot0.kD = 0.0;
-    cfg.Slot0.kV = 0.12;
+  private final LinearSystem<N1, N1, N1> plant =
+      LinearSystemId.identifyVelocitySystem(ShooterConstants.kV, ShooterConstants.kA);
+  private final KalmanFilter<N1, N1, N1> observer = new KalmanFilter<>(
+      Nat.N1(), Nat.N1(), plant,
+      VecBuilder.fill(ShooterConstants.kModelStdDevRps),
+      VecBuilder.fill(ShooterConstants.kEncoderStdDevRps),
+      ShooterConstants.kLoopPeriodSeconds);
+  private final LinearQuadraticRegulator<N1, N1, N1> controller = new LinearQuadraticRegulator<>(
+      plant,
+      VecBuilder.fill(ShooterConstants.kLqrVelocityToleranceRps),
+      VecBuilder.fill(ShooterConstants.kLqrMaxVoltage),
+      ShooterConstants.kLoopPeriodSeconds);
+  private final LinearSystemLoop<N1, N1, N1> loop;
 
-    motor.getConfigurator().apply(cfg);
+  /* reused every loop so the controller doesn't allocate */
+  private final Matrix<N1, N1> reference = new Matrix<>(Nat.N1(), Nat.N1());
+  private final Matrix<N1, N1> measurement = new Matrix<>(Nat.N1(), Nat.N1());
+
+  private final FlywheelMetrics metrics = new FlywheelMetrics();
+
+  private double targetRps = 0.0;
+  private double inToleranceSince = Double.NaN;
+  private boolean ready = false;
+
+  public ShooterSubsystem(ShooterIO io) {
+    this.io = io;
+    inputsLog = InputLogger.register("Shooter", inputs);
+
+    controller.latencyCompensate(plant, ShooterConstants.kLoopPeriodSeconds, ShooterConstants.kMeasurementDelaySeconds);
+    loop = new LinearSystemLoop<>(
+        plant, controller, observer, ShooterConstants.kLqrMaxVoltage, ShooterConstants.kLoopPeriodSeconds);
+  }
+
+  @Override
+  public void periodic() {
+    LoopProfiler.begin(kPeriodicProfile);
+    io.updateInputs(inputs);
+    InputLogger.process(inputsLog);
+    final double now = Timer.getFPGATimestamp();
+    final double measured = getRPS();
+
+    double volts = 0.0;
+    if (targetRps == 0.0) {
+      /* coast down; keep the estimate tracking so the next spin-up starts from the real speed */
+      reference.set(0, 0, measured);
+      loop.reset(reference);
+    } else {
+      reference.set(0, 0, targetRps);
+      measurement.set(0, 0, measured);
+      loop.setNextR(reference);
+      loop.correct(measurement);
+      loop.predict(ShooterConstants.kLoopPeriodSeconds);
+      volts = MathUtil.clamp(
+          loop.getU(0) + Math.copySign(ShooterConstants.kS, targetRps),
+          -ShooterConstants.kLqrMaxVoltage, ShooterConstants.kLqrMaxVoltage);
+    }
+    io.setVoltage(volts);
+
+    if (targetRps != 0.0 && Math.abs(measured - targetRps) <= ShooterConstants.kReadyToleranceRps) {
+      if (Double.isNaN(inToleranceSince)) {
+        inToleranceSince = now;
+      }
+      ready = now - inToleranceSince >= ShooterConstants.kReadyDwellSeconds;
+    } else {
+      inToleranceSince = Double.NaN;
+      ready = false;
+    }
+
+    metrics.update(now, targetRps, measured, loop.getXHat(0), volts, ready);
+    LoopProfiler.end(kPeriodicProfile);
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    io.simulationPeriodic();
   }
 
   // Command motor speed in rotations per second
@@ -25,10 +118,37 @@ public class ShooterSubsystem extends SubsystemBase {
     // Note: we intentionally send the raw rps through so callers can choose sign.
     // Previously this method inverted the sign here; removing that inversion
     // lets callers control direction explicitly.
-    motor.setControl(velocityReq.withVelocity(rps));
+    // Callers like shoot-on-the-move and the shot map move the target a little every loop as
+    // the robot moves; the loop tracks that, so however far the target drifts the dwell only
+    // restarts on a step from one call to the next (or if the wheel falls out of tolerance, see
+    // periodic()).
+    final double previousRps = targetRps;
+    if (rps == previousRps) return;
+    targetRps = rps;
+    if (rps == 0.0 || previousRps == 0.0 || Math.abs(rps - previousRps) > ShooterConstants.kReadyToleranceRps) {
+      inToleranceSince = Double.NaN;
+      ready = false;
+      if (rps != 0.0) {
+        metrics.targetChanged(Timer.getFPGATimestamp());
+      }
+    }
   }
 
   public void stop() {
     setRPS(0);
   }
+
+  // Measured speed in rotations per second, same sign convention as setRPS()
+  public double getRPS() {
+    return inputs.velocityRps;
+  }
+
+  public double getTargetRPS() {
+    return targetRps;
+  }
+
+  // True once the wheel has been within tolerance of a non-zero target for the dwell time
+  public boolean isReady() {
+    return ready;
+  }
 }
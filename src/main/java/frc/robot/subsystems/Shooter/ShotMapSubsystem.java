@@ -0,0 +1,194 @@
+package frc.robot.subsystems.Shooter;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.BooleanSubscriber;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Field.FieldGeometry;
+import frc.robot.SWERVE.CommandSwerveDrivetrain;
+import frc.robot.Util.InterpolatingTable;
+import frc.robot.Util.LoopProfiler;
+import frc.robot.Util.NtBudget;
+
+/**
+ * Distance-to-shot lookup. Measured (distance, RPS, time of flight) points are loaded from
+ * deploy/shotmap.json into an {@link InterpolatingTable}; every loop the distance from the robot
+ * to our alliance's target is looked up, so the shooter can already be at the right speed when
+ * the operator fires.
+ *
+ * <p>Calibration mode (ShotMap/Calibrate on the dashboard) hands out ShotMap/CalibrationRPS
+ * instead. Once a shot at that speed goes in, {@link #recordPointCommand()} stores the current
+ * distance with that RPS and saves the map to /home/lvuser/shotmap-calibrated.json, outside the
+ * deploy directory so a deploy can't overwrite it. That file is loaded in preference to the
+ * deployed map; copy it over src/main/deploy/shotmap.json to keep it in the repo, then delete it
+ * from the robot.
+ */
+public class ShotMapSubsystem extends SubsystemBase {
+  private static final int kPeriodicProfile = LoopProfiler.register("ShotMap.periodic");
+
+  public static final int kRpsColumn = 0;
+  public static final int kTofColumn = 1;
+
+  private final CommandSwerveDrivetrain m_drivetrain;
+  private final FieldGeometry m_field;
+  private final File m_deployedFile = new File(Filesystem.getDeployDirectory(), ShooterConstants.kShotMapDeployPath);
+  private final File m_calibratedFile =
+      new File(Filesystem.getOperatingDirectory(), ShooterConstants.kShotMapCalibratedPath);
+  private final InterpolatingTable m_table = new InterpolatingTable(2);
+
+  private double m_distance = 0.0;
+  private double m_targetRps = 0.0;
+  private double m_timeOfFlight = 0.0;
+
+  private final NetworkTable m_nt = NetworkTableInstance.getDefault().getTable("ShotMap");
+  private final DoublePublisher m_distancePub = m_nt.getDoubleTopic("Distance").publish();
+  private final DoublePublisher m_targetRpsPub = m_nt.getDoubleTopic("TargetRPS").publish();
+  private final IntegerPublisher m_pointsPub = m_nt.getIntegerTopic("Points").publish();
+  private final int m_ntBudget = NtBudget.register("ShotMap", NtBudget.Priority.NORMAL, 10.0, 32);
+  private final BooleanSubscriber m_calibrateSub = m_nt.getBooleanTopic("Calibrate").subscribe(false);
+  private final DoubleSubscriber m_calibrationRpsSub = m_nt.getDoubleTopic("CalibrationRPS").subscribe(0.0);
+
+  public ShotMapSubsystem(CommandSwerveDrivetrain drivetrain, FieldGeometry field) {
+    m_drivetrain = drivetrain;
+    m_field = field;
+    m_nt.getBooleanTopic("Calibrate").publish().set(false);
+    m_nt.getDoubleTopic("CalibrationRPS").publish().set(40.0);
+    load();
+  }
+
+  @Override
+  public void periodic() {
+    LoopProfiler.begin(kPeriodicProfile);
+    final Pose2d pose = m_drivetrain.getState().Pose;
+    final int target = getTargetIndex();
+    m_distance = Math.hypot(m_field.getTargetX(target) - pose.getX(), m_field.getTargetY(target) - pose.getY());
+    m_targetRps = isCalibrating() ? m_calibrationRpsSub.get() : m_table.get(m_distance, kRpsColumn);
+    m_timeOfFlight = m_table.get(m_distance, kTofColumn);
+    if (Double.isNaN(m_targetRps)) {
+      m_targetRps = 0.0;
+      m_timeOfFlight = 0.0;
+    }
+
+    if (NtBudget.shouldSend(m_ntBudget)) {
+      m_distancePub.set(m_distance);
+      m_targetRpsPub.set(m_targetRps);
+    }
+    LoopProfiler.end(kPeriodicProfile);
+  }
+
+  /** Shooter speed for the current distance (or the calibration speed), rps; 0 if there is no map. */
+  public double getTargetRPS() {
+    return m_targetRps;
+  }
+
+  /** Ball time of flight for the current distance, seconds. */
+  public double getTimeOfFlight() {
+    return m_timeOfFlight;
+  }
+
+  /** Distance from the robot to our target, meters. */
+  public double getDistance() {
+    return m_distance;
+  }
+
+  /** The loaded map; read-only for callers. */
+  public InterpolatingTable getTable() {
+    return m_table;
+  }
+
+  /** Index of our alliance's target in {@link FieldGeometry}. */
+  public int getTargetIndex() {
+    return DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red
+        ? FieldConstants.kRedTargetIndex
+        : FieldConstants.kBlueTargetIndex;
+  }
+
+  public boolean isCalibrating() {
+    return m_calibrateSub.get();
+  }
+
+  /** Records the current distance with the calibration RPS and saves the map (calibration mode only). */
+  public Command recordPointCommand() {
+    return runOnce(this::recordPoint).ignoringDisable(true);
+  }
+
+  private void recordPoint() {
+    if (!isCalibrating()) {
+      DriverStation.reportWarning("ShotMap: not in calibration mode, point not recorded", false);
+      return;
+    }
+    final double rps = m_calibrationRpsSub.get();
+    /* keep the time of flight the map already predicts here; it can't be measured from the robot */
+    double tof = m_table.get(m_distance, kTofColumn);
+    if (Double.isNaN(tof)) {
+      tof = 0.0;
+    }
+    for (int row = m_table.size() - 1; row >= 0; --row) {
+      if (Math.abs(m_table.getKey(row) - m_distance) < ShooterConstants.kShotMapMergeDistance) {
+        m_table.remove(row);
+      }
+    }
+    m_table.put(m_distance, rps, tof);
+    m_pointsPub.set(m_table.size());
+    DataLogManager.log(String.format("ShotMap: recorded distance %.3f m, %.2f rps", m_distance, rps));
+    save();
+  }
+
+  private void load() {
+    final File file = m_calibratedFile.isFile() ? m_calibratedFile : m_deployedFile;
+    if (file == m_calibratedFile) {
+      DriverStation.reportWarning("ShotMap: using calibrated map " + file
+          + " instead of the deployed one; copy it into src/main/deploy/shotmap.json", false);
+    }
+    try {
+      JsonNode root = new ObjectMapper().readTree(file);
+      for (JsonNode point : root.get("points")) {
+        m_table.put(
+            point.get("distance").asDouble(),
+            point.get("rps").asDouble(),
+            point.path("tof").asDouble(0.0));
+      }
+    } catch (IOException | RuntimeException e) {
+      DriverStation.reportWarning("ShotMap: could not load " + file + ": " + e.getMessage(), false);
+    }
+    m_pointsPub.set(m_table.size());
+  }
+
+  private void save() {
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode root = mapper.createObjectNode();
+    ArrayNode points = root.putArray("points");
+    for (int row = 0; row < m_table.size(); ++row) {
+      points.addObject()
+          .put("distance", m_table.getKey(row))
+          .put("rps", m_table.getValue(row, kRpsColumn))
+          .put("tof", m_table.getValue(row, kTofColumn));
+    }
+    try {
+      mapper.writerWithDefaultPrettyPrinter().writeValue(m_calibratedFile, root);
+      DataLogManager.log("ShotMap: saved " + m_table.size() + " points to " + m_calibratedFile
+          + "; copy it into src/main/deploy/shotmap.json to keep it");
+    } catch (IOException e) {
+      DriverStation.reportWarning("ShotMap: could not save " + m_calibratedFile + ": " + e.getMessage(), false);
+    }
+  }
+}
@@ -1,9 +1,194 @@
 package frc.robot.subsystems.Vision;
 
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerArrayPublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.SWERVE.CommandSwerveDrivetrain;
+import frc.robot.Util.InputLogger;
+import frc.robot.Util.LoggableInputs;
+import frc.robot.Util.LoopProfiler;
+import frc.robot.Util.NtBudget;
 
-public class PhotonVisionSubsytem extends SubsystemBase{
-    
-}
-    
+/**
+ * Multi-camera AprilTag vision.
+ *
+ * <p>Every camera in {@link VisionConstants#kCameraNames} is read on its own worker thread (see
+ * {@link VisionCamera}), which also does the pose solve. periodic() only takes the finished
+ * estimates from a bounded lock-free queue (through a {@link VisionIO}, which logs them) into the
+ * drivetrain's pose estimator, so the main loop never waits on camera I/O no matter how many
+ * cameras are attached.
+ *
+ * <p>Estimates pass through a {@link VisionMeasurementFilter} on the way, which rejects outliers,
+ * picks std devs and fuses simultaneous estimates before the Kalman filter update.
+ *
+ * <p>What the filter reads from the drivetrain (its speeds, and the odometry pose at each
+ * estimate's timestamp) is logged as a second input source, so on replay the filter makes the
+ * same decisions as on the field even though the drivetrain itself is only simulated then.
+ */
+public class PhotonVisionSubsytem extends SubsystemBase {
+  private static final int kPeriodicProfile = LoopProfiler.register("Vision.periodic");
+
+  private final CommandSwerveDrivetrain m_drivetrain;
+  private final AprilTagFieldLayout m_fieldLayout;
+  private final VisionIO m_io;
+  private final VisionIO.Inputs m_inputs = new VisionIO.Inputs();
+  private final int m_inputsLog;
+  private final DriveInputs m_drive = new DriveInputs();
+  private final int m_driveLog;
+  private final VisionMeasurementFilter m_filter;
+  private long m_lastAccepted = 0;
+  private double m_lastAcceptedTime = Double.NEGATIVE_INFINITY;
+
+  private final NetworkTable m_table = NetworkTableInstance.getDefault().getTable("Vision");
+  private final IntegerPublisher m_queueDepthPub = m_table.getIntegerTopic("QueueDepth").publish();
+  private final IntegerPublisher m_droppedPub = m_table.getIntegerTopic("Dropped").publish();
+  private final IntegerPublisher m_acceptedPub = m_table.getIntegerTopic("Accepted").publish();
+  private final IntegerPublisher m_fusedPub = m_table.getIntegerTopic("Fused").publish();
+  private final IntegerArrayPublisher m_rejectsPub = m_table.getIntegerArrayTopic("Rejects").publish();
+  private final DoublePublisher m_latencyPub = m_table.getDoubleTopic("LatencyMs").publish();
+  private final DoublePublisher m_queueLatencyPub = m_table.getDoubleTopic("QueueLatencyMs").publish();
+  /* queue depth, dropped, accepted, fused, rejects, and the latencies of the newest estimate */
+  private final int m_ntBudget = NtBudget.register("Vision", NtBudget.Priority.NORMAL, 10.0, 170);
+  private double m_latencyMs = Double.NaN;
+  private double m_queueLatencyMs = Double.NaN;
+
+  public PhotonVisionSubsytem(CommandSwerveDrivetrain drivetrain, AprilTagFieldLayout fieldLayout, VisionIO io) {
+    m_drivetrain = drivetrain;
+    m_fieldLayout = fieldLayout;
+    m_io = io;
+    m_inputsLog = InputLogger.register("Vision", m_inputs);
+    m_driveLog = InputLogger.register("VisionDrive", m_drive);
+    m_filter = new VisionMeasurementFilter(
+        m_fieldLayout.getFieldLength(), m_fieldLayout.getFieldWidth(), VisionConstants.kMaxEstimatesPerLoop);
+
+    /* label the Rejects array entries for the dashboard */
+    var reasons = VisionMeasurementFilter.Reject.values();
+    String[] names = new String[reasons.length];
+    for (int i = 0; i < reasons.length; ++i) {
+      names[i] = reasons[i].name();
+    }
+    m_table.getStringArrayTopic("RejectReasons").publish().set(names);
+  }
+
+  @Override
+  public void periodic() {
+    LoopProfiler.begin(kPeriodicProfile);
+    m_io.updateInputs(m_inputs);
+    InputLogger.process(m_inputsLog);
+
+    if (!InputLogger.isReplay()) {
+      m_drive.capture(m_drivetrain, m_inputs);
+    }
+    InputLogger.process(m_driveLog);
+    m_filter.beginLoop(Math.hypot(m_drive.vx, m_drive.vy), m_drive.omega);
+
+    for (int i = 0; i < m_inputs.count; ++i) {
+      final VisionEstimate estimate = m_inputs.estimates[i];
+      m_filter.add(estimate, m_drive.hasReference[i] ? m_drive.referencePoses[i] : null);
+
+      /* capture -> main loop, and worker -> main loop */
+      m_latencyMs = (Timer.getFPGATimestamp() - estimate.timestampSeconds) * 1000.0;
+      m_queueLatencyMs = (System.nanoTime() - estimate.queuedNanos) * 1e-6;
+    }
+    m_filter.flush(m_drivetrain::addVisionMeasurement);
+
+    final long accepted = m_filter.getAcceptedCount();
+    if (accepted != m_lastAccepted) {
+      m_lastAccepted = accepted;
+      m_lastAcceptedTime = Timer.getFPGATimestamp();
+    }
+    if (NtBudget.shouldSend(m_ntBudget)) {
+      m_queueDepthPub.set(m_inputs.queueDepth);
+      m_droppedPub.set(m_inputs.dropped);
+      m_acceptedPub.set(accepted);
+      m_fusedPub.set(m_filter.getFusedCount());
+      m_rejectsPub.set(m_filter.getRejectCounts());
+      if (!Double.isNaN(m_latencyMs)) {
+        m_latencyPub.set(m_latencyMs);
+        m_queueLatencyPub.set(m_queueLatencyMs);
+        m_latencyMs = Double.NaN;
+      }
+    }
+    LoopProfiler.end(kPeriodicProfile);
+  }
 
+  @Override
+  public void simulationPeriodic() {
+    m_io.simulationPeriodic();
+  }
+
+  /** True while estimates are being accepted into the pose estimator (within kLockHoldSeconds). */
+  public boolean hasLock() {
+    return Timer.getFPGATimestamp() - m_lastAcceptedTime <= VisionConstants.kLockHoldSeconds;
+  }
+
+  /** The AprilTag layout the cameras estimate against. */
+  public AprilTagFieldLayout getFieldLayout() {
+    return m_fieldLayout;
+  }
+
+  /** The drivetrain state periodic() gates this loop's estimates with. */
+  private static final class DriveInputs implements LoggableInputs {
+    /* hasReference, x, y, theta per estimate */
+    private static final int kStride = 4;
+    private static final int kHeader = 3;
+
+    double vx = 0.0;
+    double vy = 0.0;
+    double omega = 0.0;
+    /** Odometry pose at each estimate's timestamp as x, y, theta, if the history reached back */
+    final boolean[] hasReference = new boolean[VisionConstants.kMaxEstimatesPerLoop];
+    final double[][] referencePoses = new double[VisionConstants.kMaxEstimatesPerLoop][3];
+
+    void capture(CommandSwerveDrivetrain drivetrain, VisionIO.Inputs vision) {
+      final ChassisSpeeds speeds = drivetrain.getState().Speeds;
+      vx = speeds.vxMetersPerSecond;
+      vy = speeds.vyMetersPerSecond;
+      omega = speeds.omegaRadiansPerSecond;
+      for (int i = 0; i < hasReference.length; ++i) {
+        hasReference[i] = i < vision.count
+            && drivetrain.samplePoseHistoryAt(vision.estimates[i].timestampSeconds, referencePoses[i]);
+        if (!hasReference[i]) {
+          /* unused slots compare equal, so idle loops aren't logged again */
+          referencePoses[i][0] = referencePoses[i][1] = referencePoses[i][2] = 0.0;
+        }
+      }
+    }
+
+    @Override
+    public int size() {
+      return kHeader + kStride * hasReference.length;
+    }
+
+    @Override
+    public void toLog(double[] out) {
+      out[0] = vx;
+      out[1] = vy;
+      out[2] = omega;
+      for (int i = 0; i < hasReference.length; ++i) {
+        final int base = kHeader + i * kStride;
+        out[base] = hasReference[i] ? 1.0 : 0.0;
+        System.arraycopy(referencePoses[i], 0, out, base + 1, 3);
+      }
+    }
+
+    @Override
+    public void fromLog(double[] in) {
+      vx = in[0];
+      vy = in[1];
+      omega = in[2];
+      for (int i = 0; i < hasReference.length; ++i) {
+        final int base = kHeader + i * kStride;
+        hasReference[i] = in[base] != 0.0;
+        System.arraycopy(in, base + 1, referencePoses[i], 0, 3);
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package frc.robot.subsystems.Vision;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.wpilibj.Notifier;
+import frc.robot.Util.BoundedMpmcQueue;
+
+/**
+ * One PhotonVision camera and the worker thread that reads it.
+ *
+ * <p>The worker polls the camera for unread results, runs pose estimation, and pushes each
+ * estimate into the shared queue. Nothing here runs on the main robot loop. If the queue is full
+ * the oldest estimate is dropped so the newest data always gets through.
+ */
+public class VisionCamera {
+  private final int m_index;
+  private final PhotonCamera m_camera;
+  private final PhotonPoseEstimator m_estimator;
+  private final BoundedMpmcQueue<VisionEstimate> m_queue;
+  private final Notifier m_worker;
+
+  private volatile long m_dropped = 0;
+  private volatile long m_frames = 0;
+
+  public VisionCamera(
+      int index,
+      String name,
+      Transform3d robotToCamera,
+      AprilTagFieldLayout fieldLayout,
+      BoundedMpmcQueue<VisionEstimate> queue,
+      double pollPeriodSeconds) {
+    m_index = index;
+    m_camera = new PhotonCamera(name);
+    m_estimator = new PhotonPoseEstimator(fieldLayout, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR, robotToCamera);
+    m_estimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
+    m_queue = queue;
+
+    m_worker = new Notifier(this::poll);
+    m_worker.setName("Vision-" + name);
+    m_worker.startPeriodic(pollPeriodSeconds);
+  }
+
+  /** Worker thread: drain unread results and queue an estimate for each usable frame. */
+  private void poll() {
+    List<PhotonPipelineResult> results = m_camera.getAllUnreadResults();
+    for (int i = 0; i < results.size(); ++i) {
+      PhotonPipelineResult result = results.get(i);
+      m_frames = m_frames + 1;
+      if (!result.hasTargets()) continue;
+
+      Optional<EstimatedRobotPose> estimate = m_estimator.update(result);
+      if (estimate.isEmpty()) continue;
+      push(toVisionEstimate(estimate.get(), result));
+    }
+  }
+
+  private VisionEstimate toVisionEstimate(EstimatedRobotPose estimate, PhotonPipelineResult result) {
+    List<PhotonTrackedTarget> targets = estimate.targetsUsed;
+    int[] tagIds = new int[targets.size()];
+    double distanceSum = 0.0;
+    for (int i = 0; i < tagIds.length; ++i) {
+      PhotonTrackedTarget target = targets.get(i);
+      tagIds[i] = target.getFiducialId();
+      distanceSum += target.getBestCameraToTarget().getTranslation().getNorm();
+    }
+    double averageDistance = tagIds.length > 0 ? distanceSum / tagIds.length : 0.0;
+    double ambiguity = result.hasTargets() ? result.getBestTarget().getPoseAmbiguity() : 0.0;
+
+    return new VisionEstimate(
+        m_index,
+        estimate.estimatedPose.toPose2d(),
+        estimate.timestampSeconds,
+        tagIds,
+        averageDistance,
+        ambiguity,
+        System.nanoTime());
+  }
+
+  private void push(VisionEstimate estimate) {
+    if (m_queue.offer(estimate)) return;
+    /* full: make room by discarding the oldest estimate */
+    if (m_queue.poll() != null) {
+      m_dropped = m_dropped + 1;
+    }
+    if (!m_queue.offer(estimate)) {
+      m_dropped = m_dropped + 1;
+    }
+  }
+
+  public String getName() {
+    return m_camera.getName();
+  }
+
+  /** The camera itself, e.g. for PhotonLib's vision simulation. */
+  public PhotonCamera getCamera() {
+    return m_camera;
+  }
+
+  public boolean isConnected() {
+    return m_camera.isConnected();
+  }
+
+  /** Estimates this camera had to drop because the queue was full. */
+  public long getDropped() {
+    return m_dropped;
+  }
+
+  /** Frames read from this camera, with or without targets. */
+  public long getFrameCount() {
+    return m_frames;
+  }
+
+  public void stop() {
+    m_worker.stop();
+  }
+}
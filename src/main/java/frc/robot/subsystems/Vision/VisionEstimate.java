@@ -0,0 +1,45 @@
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/**
+ * A robot pose estimate produced by one camera worker. Created on the worker thread and handed
+ * to the main loop through the vision queue; treat as immutable once queued.
+ */
+public final class VisionEstimate {
+  /** Index of the camera in VisionConstants.kCameraNames */
+  public final int cameraIndex;
+  /** Estimated field-relative robot pose */
+  public final Pose2d pose;
+  /** Capture time of the frame, FPGA timebase, in seconds */
+  public final double timestampSeconds;
+  /** Fiducial ids used for the estimate */
+  public final int[] tagIds;
+  /** Mean camera-to-tag distance in meters */
+  public final double averageTagDistance;
+  /** Pose ambiguity of the best target (only meaningful for single-tag estimates) */
+  public final double ambiguity;
+  /** System.nanoTime() when the worker queued this estimate */
+  public final long queuedNanos;
+
+  public VisionEstimate(
+      int cameraIndex,
+      Pose2d pose,
+      double timestampSeconds,
+      int[] tagIds,
+      double averageTagDistance,
+      double ambiguity,
+      long queuedNanos) {
+    this.cameraIndex = cameraIndex;
+    this.pose = pose;
+    this.timestampSeconds = timestampSeconds;
+    this.tagIds = tagIds;
+    this.averageTagDistance = averageTagDistance;
+    this.ambiguity = ambiguity;
+    this.queuedNanos = queuedNanos;
+  }
+
+  public int getTagCount() {
+    return tagIds.length;
+  }
+}
@@ -0,0 +1,92 @@
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.Util.LoggableInputs;
+
+/**
+ * The cameras: {@link VisionIOPhoton} on the robot, {@link VisionIOSim} in simulation and
+ * {@link VisionIOReplay} when replaying a log.
+ */
+public interface VisionIO {
+  /** The estimates that came in since the last loop, and the queue's health. */
+  class Inputs implements LoggableInputs {
+    /* cameraIndex, x, y, theta, timestamp, tagCount, averageTagDistance, ambiguity, queue latency ms */
+    private static final int kStride = 9;
+    private static final int kHeader = 3;
+
+    /** The first {@link #count} entries are this loop's estimates, oldest first */
+    public final VisionEstimate[] estimates = new VisionEstimate[VisionConstants.kMaxEstimatesPerLoop];
+    public int count = 0;
+    /** Estimates the cameras had to drop because the queue was full, total */
+    public long dropped = 0;
+    /** Estimates waiting in the queue before this loop drained it */
+    public int queueDepth = 0;
+
+    /* System.nanoTime() when the estimates were taken off the queue */
+    private long m_drainedNanos = 0;
+
+    /** Called right after the estimates were taken off the queue, for their queue latency. */
+    public void markDrained() {
+      m_drainedNanos = System.nanoTime();
+    }
+
+    /* fixed size, so the logger's buffers never reallocate and idle loops compare equal */
+    @Override
+    public int size() {
+      return kHeader + kStride * estimates.length;
+    }
+
+    @Override
+    public void toLog(double[] out) {
+      out[0] = count;
+      out[1] = dropped;
+      out[2] = queueDepth;
+      for (int i = 0; i < estimates.length; ++i) {
+        final int base = kHeader + i * kStride;
+        if (i >= count) {
+          for (int j = 0; j < kStride; ++j) {
+            out[base + j] = 0.0;
+          }
+          continue;
+        }
+        final VisionEstimate estimate = estimates[i];
+        out[base] = estimate.cameraIndex;
+        out[base + 1] = estimate.pose.getX();
+        out[base + 2] = estimate.pose.getY();
+        out[base + 3] = estimate.pose.getRotation().getRadians();
+        out[base + 4] = estimate.timestampSeconds;
+        out[base + 5] = estimate.getTagCount();
+        out[base + 6] = estimate.averageTagDistance;
+        out[base + 7] = estimate.ambiguity;
+        out[base + 8] = (m_drainedNanos - estimate.queuedNanos) * 1e-6;
+      }
+    }
+
+    /* the tag ids themselves aren't logged; the filter only needs how many there were */
+    @Override
+    public void fromLog(double[] in) {
+      count = (int) in[0];
+      dropped = (long) in[1];
+      queueDepth = (int) in[2];
+      final long now = System.nanoTime();
+      for (int i = 0; i < count; ++i) {
+        final int base = kHeader + i * kStride;
+        estimates[i] = new VisionEstimate(
+            (int) in[base],
+            new Pose2d(in[base + 1], in[base + 2], new Rotation2d(in[base + 3])),
+            in[base + 4],
+            new int[(int) in[base + 5]],
+            in[base + 6],
+            in[base + 7],
+            now - (long) (in[base + 8] * 1e6));
+      }
+    }
+  }
+
+  default void updateInputs(Inputs inputs) {}
+
+  /** Advances the simulated cameras one loop. */
+  default void simulationPeriodic() {}
+}
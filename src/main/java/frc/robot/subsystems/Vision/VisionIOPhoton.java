@@ -0,0 +1,51 @@
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.Util.BoundedMpmcQueue;
+
+/**
+ * The PhotonVision cameras in {@link VisionConstants#kCameraNames}, each read and solved on its
+ * own worker thread (see {@link VisionCamera}). {@link #updateInputs} only drains the finished
+ * estimates from the bounded lock-free queue, so the main loop never waits on camera I/O.
+ */
+public class VisionIOPhoton implements VisionIO {
+  private final BoundedMpmcQueue<VisionEstimate> m_queue =
+      new BoundedMpmcQueue<>(VisionConstants.kQueueCapacity);
+  protected final VisionCamera[] m_cameras;
+
+  public VisionIOPhoton(AprilTagFieldLayout fieldLayout) {
+    m_cameras = new VisionCamera[VisionConstants.kCameraNames.length];
+    for (int i = 0; i < m_cameras.length; ++i) {
+      m_cameras[i] = new VisionCamera(
+          i,
+          VisionConstants.kCameraNames[i],
+          VisionConstants.kRobotToCameras[i],
+          fieldLayout,
+          m_queue,
+          VisionConstants.kPollPeriodSeconds);
+    }
+  }
+
+  @Override
+  public void updateInputs(Inputs inputs) {
+    inputs.queueDepth = m_queue.size();
+    VisionEstimate estimate;
+    int count = 0;
+    while (count < inputs.estimates.length && (estimate = m_queue.poll()) != null) {
+      inputs.estimates[count++] = estimate;
+    }
+    /* don't keep last loop's estimates reachable */
+    for (int i = count; i < inputs.count; ++i) {
+      inputs.estimates[i] = null;
+    }
+    inputs.count = count;
+    inputs.markDrained();
+
+    long dropped = 0;
+    for (VisionCamera camera : m_cameras) {
+      dropped += camera.getDropped();
+    }
+    inputs.dropped = dropped;
+  }
+}
@@ -0,0 +1,4 @@
+package frc.robot.subsystems.Vision;
+
+/** No cameras: estimates come from the replayed log. */
+public final class VisionIOReplay implements VisionIO {}
@@ -0,0 +1,46 @@
+package frc.robot.subsystems.Vision;
+
+import java.util.function.Supplier;
+
+import org.photonvision.simulation.PhotonCameraSim;
+import org.photonvision.simulation.SimCameraProperties;
+import org.photonvision.simulation.VisionSystemSim;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import frc.robot.Constants.VisionConstants;
+
+/**
+ * The PhotonVision cameras fed by PhotonLib's vision simulation: every loop the tags are rendered
+ * from the given robot pose into each camera, and the same workers and queue as on the robot
+ * pick them up. Image streams are off, only the pipeline results are simulated.
+ */
+public class VisionIOSim extends VisionIOPhoton {
+  private final VisionSystemSim m_visionSim = new VisionSystemSim("main");
+  private final Supplier<Pose2d> m_robotPose;
+
+  /**
+   * @param fieldLayout Tags to render
+   * @param robotPose   Pose to render the tags from. The Phoenix swerve sim has no separate ground
+   *                    truth, so this is the drivetrain's estimated pose; its simulated odometry
+   *                    doesn't slip, which keeps the estimate close to where the robot really is
+   */
+  public VisionIOSim(AprilTagFieldLayout fieldLayout, Supplier<Pose2d> robotPose) {
+    super(fieldLayout);
+    m_robotPose = robotPose;
+    m_visionSim.addAprilTags(fieldLayout);
+
+    final SimCameraProperties properties = new SimCameraProperties();
+    for (int i = 0; i < m_cameras.length; ++i) {
+      PhotonCameraSim cameraSim = new PhotonCameraSim(m_cameras[i].getCamera(), properties);
+      cameraSim.enableRawStream(false);
+      cameraSim.enableProcessedStream(false);
+      m_visionSim.addCamera(cameraSim, VisionConstants.kRobotToCameras[i]);
+    }
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_visionSim.update(m_robotPose.get());
+  }
+}
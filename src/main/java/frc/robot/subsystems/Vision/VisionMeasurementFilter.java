@@ -0,0 +1,243 @@
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import frc.robot.Constants.VisionConstants;
+
+/**
+ * Conditions vision estimates before they reach the pose estimator.
+ *
+ * <p>Each loop, estimates are {@link #add added} one at a time and either rejected (high
+ * ambiguity, too far, spinning, off the field, or too far from the odometry pose) or given
+ * standard deviations from tag count, distance and robot speed. {@link #flush} then fuses
+ * estimates captured at about the same time (e.g. two cameras seeing tags in the same frame) into
+ * a single inverse-variance weighted measurement, so the filter sees fewer, better updates.
+ *
+ * <p>Main thread only. Works out of preallocated primitive arrays.
+ */
+public class VisionMeasurementFilter {
+  /** Receives fused measurements; matches CommandSwerveDrivetrain.addVisionMeasurement. */
+  @FunctionalInterface
+  public interface MeasurementConsumer {
+    void accept(Pose2d pose, double timestampSeconds, Matrix<N3, N1> stdDevs);
+  }
+
+  /** Why an estimate was rejected; index into {@link #getRejectCounts()}. */
+  public enum Reject {
+    kNoTargets,
+    kAmbiguity,
+    kDistance,
+    kSpinning,
+    kOutOfField,
+    kInnovation,
+  }
+
+  private final double m_fieldLength;
+  private final double m_fieldWidth;
+  private final int m_capacity;
+
+  /* Accepted this loop, waiting to be fused */
+  private final double[] m_t;
+  private final double[] m_x;
+  private final double[] m_y;
+  private final double[] m_theta;
+  private final double[] m_xyVar;
+  private final double[] m_thetaVar;
+  private int m_count = 0;
+
+  private final Matrix<N3, N1> m_stdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+  private final long[] m_rejects = new long[Reject.values().length];
+  private long m_accepted = 0;
+  private long m_fused = 0;
+  private int m_consecutiveInnovationRejects = 0;
+
+  /* Per-loop robot motion, set by beginLoop() */
+  private double m_linearSpeed = 0.0;
+  private double m_angularSpeed = 0.0;
+
+  /**
+   * @param fieldLength Field length in meters
+   * @param fieldWidth  Field width in meters
+   * @param capacity    Most estimates that will be added between flushes
+   */
+  public VisionMeasurementFilter(double fieldLength, double fieldWidth, int capacity) {
+    m_fieldLength = fieldLength;
+    m_fieldWidth = fieldWidth;
+    m_capacity = capacity;
+    m_t = new double[capacity];
+    m_x = new double[capacity];
+    m_y = new double[capacity];
+    m_theta = new double[capacity];
+    m_xyVar = new double[capacity];
+    m_thetaVar = new double[capacity];
+  }
+
+  /**
+   * Sets the robot motion used for gating and std dev scaling this loop.
+   *
+   * @param linearSpeed  Robot translational speed in m/s
+   * @param angularSpeed Robot angular speed in rad/s
+   */
+  public void beginLoop(double linearSpeed, double angularSpeed) {
+    m_linearSpeed = linearSpeed;
+    m_angularSpeed = Math.abs(angularSpeed);
+  }
+
+  /**
+   * Gates one estimate.
+   *
+   * @param estimate      The estimate
+   * @param referencePose Odometry pose at the estimate's timestamp as x, y, theta, or null if
+   *                      there is no history yet (innovation gating is skipped)
+   * @return true if accepted
+   */
+  public boolean add(VisionEstimate estimate, double[] referencePose) {
+    final int tagCount = estimate.getTagCount();
+    if (tagCount == 0) {
+      return reject(Reject.kNoTargets);
+    }
+    final double distance = estimate.averageTagDistance;
+    /* the std devs scale with distance²; zero or garbage would make the estimate absolute */
+    if (!Double.isFinite(distance) || distance <= 0.0) {
+      return reject(Reject.kDistance);
+    }
+    if (tagCount == 1) {
+      if (estimate.ambiguity > VisionConstants.kMaxAmbiguity) {
+        return reject(Reject.kAmbiguity);
+      }
+      if (distance > VisionConstants.kMaxSingleTagDistance) {
+        return reject(Reject.kDistance);
+      }
+    }
+    if (m_angularSpeed > VisionConstants.kMaxAngularVelocity) {
+      return reject(Reject.kSpinning);
+    }
+
+    final double x = estimate.pose.getX();
+    final double y = estimate.pose.getY();
+    final double margin = VisionConstants.kFieldBorderMargin;
+    /* written so NaN fails it too */
+    if (!(x >= -margin && x <= m_fieldLength + margin && y >= -margin && y <= m_fieldWidth + margin)) {
+      return reject(Reject.kOutOfField);
+    }
+    final double theta = estimate.pose.getRotation().getRadians();
+
+    final double scale = distance * distance / tagCount * (1.0 + VisionConstants.kSpeedStdDevScale * m_linearSpeed);
+    /* floored so one close-up frame can't pull the pose all the way to itself */
+    final double xyStd = Math.max(VisionConstants.kMinXyStdDev, VisionConstants.kXyStdDevCoefficient * scale);
+    final double thetaStd = tagCount > 1
+        ? Math.max(VisionConstants.kMinThetaStdDev, VisionConstants.kThetaStdDevCoefficient * scale)
+        : VisionConstants.kSingleTagThetaStdDev;
+
+    if (referencePose != null) {
+      final double dx = x - referencePose[0];
+      final double dy = y - referencePose[1];
+      final double gateStd = Math.hypot(xyStd, VisionConstants.kOdometryDriftStdDev);
+      if (Math.hypot(dx, dy) > VisionConstants.kMaxInnovationSigma * gateStd
+          && m_consecutiveInnovationRejects < VisionConstants.kMaxConsecutiveInnovationRejects) {
+        ++m_consecutiveInnovationRejects;
+        return reject(Reject.kInnovation);
+      }
+    }
+    m_consecutiveInnovationRejects = 0;
+
+    if (m_count >= m_capacity) {
+      return false;
+    }
+    m_t[m_count] = estimate.timestampSeconds;
+    m_x[m_count] = x;
+    m_y[m_count] = y;
+    m_theta[m_count] = theta;
+    m_xyVar[m_count] = xyStd * xyStd;
+    m_thetaVar[m_count] = thetaStd * thetaStd;
+    ++m_count;
+    ++m_accepted;
+    return true;
+  }
+
+  /**
+   * Fuses the accepted estimates and hands them to the consumer, oldest first.
+   *
+   * @return Number of measurements produced
+   */
+  public int flush(MeasurementConsumer consumer) {
+    sortByTime();
+
+    int produced = 0;
+    int start = 0;
+    while (start < m_count) {
+      int end = start + 1;
+      while (end < m_count && m_t[end] - m_t[start] <= VisionConstants.kFusionWindowSeconds) {
+        ++end;
+      }
+
+      /* inverse-variance weighted mean; heading averaged on the unit circle */
+      double wXySum = 0, wThetaSum = 0, x = 0, y = 0, s = 0, c = 0, t = 0;
+      for (int i = start; i < end; ++i) {
+        final double wXy = 1.0 / m_xyVar[i];
+        final double wTheta = 1.0 / m_thetaVar[i];
+        wXySum += wXy;
+        wThetaSum += wTheta;
+        x += wXy * m_x[i];
+        y += wXy * m_y[i];
+        t += wXy * m_t[i];
+        s += wTheta * Math.sin(m_theta[i]);
+        c += wTheta * Math.cos(m_theta[i]);
+      }
+      final double xyStd = Math.sqrt(1.0 / wXySum);
+      final double thetaStd = Math.sqrt(1.0 / wThetaSum);
+      m_stdDevs.set(0, 0, xyStd);
+      m_stdDevs.set(1, 0, xyStd);
+      m_stdDevs.set(2, 0, thetaStd);
+
+      consumer.accept(
+          new Pose2d(x / wXySum, y / wXySum, new Rotation2d(Math.atan2(s, c))),
+          t / wXySum,
+          m_stdDevs);
+      ++produced;
+      start = end;
+    }
+
+    m_fused += produced;
+    m_count = 0;
+    return produced;
+  }
+
+  public long getAcceptedCount() {
+    return m_accepted;
+  }
+
+  public long getFusedCount() {
+    return m_fused;
+  }
+
+  /** Reject counts, indexed by {@link Reject#ordinal()}. Do not modify. */
+  public long[] getRejectCounts() {
+    return m_rejects;
+  }
+
+  private boolean reject(Reject reason) {
+    m_rejects[reason.ordinal()]++;
+    return false;
+  }
+
+  private void sortByTime() {
+    /* a handful of entries per loop, insertion sort is plenty */
+    for (int i = 1; i < m_count; ++i) {
+      for (int j = i; j > 0 && m_t[j - 1] > m_t[j]; --j) {
+        swap(m_t, j); swap(m_x, j); swap(m_y, j); swap(m_theta, j); swap(m_xyVar, j); swap(m_thetaVar, j);
+      }
+    }
+  }
+
+  private static void swap(double[] a, int j) {
+    final double tmp = a[j];
+    a[j] = a[j - 1];
+    a[j - 1] = tmp;
+  }
+}
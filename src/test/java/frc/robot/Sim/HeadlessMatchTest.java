@@ -0,0 +1,190 @@
+package frc.robot.Sim;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.networktables.BooleanSubscriber;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.networktables.StructSubscriber;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj.simulation.XboxControllerSim;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.Robot;
+import frc.robot.Util.DeviceConfigService;
+
+/**
+ * Runs a whole match in simulation, headless and faster than real time, and fails if it regressed.
+ *
+ * <p>The robot is constructed under HAL simulation with timing paused, and simulated time is
+ * advanced by hand in 4 ms steps, so the drivetrain's 4 ms sim notifier and the 20 ms robot loop
+ * both run exactly as they would on a real clock. Driver station state and the driver's Xbox
+ * controller are scripted: a disabled boot, a 15 s autonomous with the selected auto, then a
+ * teleop script that drives, shoots on the move, shoots standing still and runs the intake.
+ *
+ * <p>Checked at the end: the pose error at the end of auto against the expected pose, and the p99
+ * of Profiler/LoopMs. Command run times, spin-up time and the speedup over real time are printed
+ * with the test output. Runs with the other tests ({@code ./gradlew test}).
+ *
+ * <p>Phoenix simulated devices send their status frames on their own clock, so results depend a
+ * little on how fast the host steps; the tolerances leave room for that.
+ */
+class HeadlessMatchTest {
+  private static final double kStepSeconds = 0.004;
+  private static final double kBootSeconds = 2.0;
+  private static final double kBootWallTimeoutSeconds = 20.0;
+  private static final double kAutoSeconds = 15.0;
+  private static final double kTeleopSeconds = 12.0;
+
+  private static final String kAutoName = "Drive Forward";
+  private static final Pose2d kExpectedAutoEnd = new Pose2d(2.5, 0.0, Rotation2d.kZero);
+  private static final double kMaxAutoPoseErrorMeters = 0.25;
+  private static final double kMaxAutoHeadingErrorDegrees = 5.0;
+  private static final double kMaxLoopP99Ms = 10.0;
+
+  /* Command name -> {runs, total seconds}; written from the robot thread between steps */
+  private final Map<String, double[]> m_commandTimes = new LinkedHashMap<>();
+  private final Map<String, Double> m_commandStarts = new LinkedHashMap<>();
+
+  private double[] m_loopMs = new double[1024];
+  private int m_loopCount = 0;
+
+  @Test
+  void fullMatch() {
+    assertTrue(HAL.initialize(500, 0), "HAL simulation failed to initialize");
+    SimHooks.pauseTiming();
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setAllianceStationId(AllianceStationID.Blue1);
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+
+    final long wallStart = System.nanoTime();
+    Robot robot = new Robot();
+    CommandScheduler scheduler = CommandScheduler.getInstance();
+    scheduler.onCommandInitialize(command -> m_commandStarts.put(command.getName(), Timer.getFPGATimestamp()));
+    scheduler.onCommandFinish(command -> commandEnded(command.getName()));
+    scheduler.onCommandInterrupt(command -> commandEnded(command.getName()));
+
+    NetworkTableInstance nt = NetworkTableInstance.getDefault();
+    StructSubscriber<Pose2d> poseSub =
+        nt.getTable("DriveState").getStructTopic("Pose", Pose2d.struct).subscribe(Pose2d.kZero);
+    DoubleSubscriber loopMsSub =
+        nt.getTable("Profiler").getDoubleTopic("LoopMs").subscribe(0.0, PubSubOption.pollStorage(256));
+    DoubleSubscriber spinUpSub = nt.getTable("Shooter").getDoubleTopic("SpinUpMs").subscribe(Double.NaN);
+    BooleanSubscriber autosReadySub = nt.getTable("Autos").getBooleanTopic("Ready").subscribe(false);
+    StringPublisher autoPub = nt.getTable("SmartDashboard").getSubTable("Auto Chooser")
+        .getStringTopic("selected").publish();
+
+    Thread robotThread = new Thread(robot::startCompetition, "HeadlessRobot");
+    robotThread.setDaemon(true);
+    robotThread.start();
+    SimHooks.stepTiming(0.0);
+
+    try {
+      /* disabled: let configs apply and the autos finish loading (those run on their own threads) */
+      autoPub.set(kAutoName);
+      step(kBootSeconds, loopMsSub);
+      final long bootDeadline = System.nanoTime() + (long) (kBootWallTimeoutSeconds * 1e9);
+      while ((DeviceConfigService.getPending() > 0 || !autosReadySub.get()) && System.nanoTime() < bootDeadline) {
+        step(0.1, loopMsSub);
+      }
+      m_loopCount = 0; // boot loops are all JIT warmup
+
+      /* autonomous */
+      DriverStationSim.setAutonomous(true);
+      DriverStationSim.setEnabled(true);
+      DriverStationSim.notifyNewData();
+      step(kAutoSeconds, loopMsSub);
+      final Pose2d autoEnd = poseSub.get();
+
+      /* teleop */
+      XboxControllerSim pad = new XboxControllerSim(0);
+      DriverStationSim.setAutonomous(false);
+      DriverStationSim.notifyNewData();
+      for (double t = 0.0; t < kTeleopSeconds; t += 0.02) {
+        applyTeleopScript(t, pad);
+        step(0.02, loopMsSub);
+      }
+      DriverStationSim.setEnabled(false);
+      DriverStationSim.notifyNewData();
+      step(0.1, loopMsSub);
+      final double wallSeconds = (System.nanoTime() - wallStart) * 1e-9;
+
+      final double poseError = autoEnd.getTranslation().getDistance(kExpectedAutoEnd.getTranslation());
+      final double headingError = Math.abs(autoEnd.getRotation().minus(kExpectedAutoEnd.getRotation()).getDegrees());
+
+      double[] loops = Arrays.copyOf(m_loopMs, m_loopCount);
+      Arrays.sort(loops);
+      final double p99 = percentile(loops, 0.99);
+
+      System.out.printf("simulated %.1f s in %.1f s wall (%.1fx)%n",
+          Timer.getFPGATimestamp(), wallSeconds, Timer.getFPGATimestamp() / wallSeconds);
+      System.out.printf("%d loops, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+          loops.length, percentile(loops, 0.50), p99, loops.length > 0 ? loops[loops.length - 1] : 0.0);
+      System.out.printf("shooter spin-up %.0f ms%n", spinUpSub.get());
+      for (Map.Entry<String, double[]> entry : m_commandTimes.entrySet()) {
+        System.out.printf("command %-40s %3.0f run(s) %8.3f s%n", entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+      }
+
+      assertAll(
+          () -> assertTrue(poseError <= kMaxAutoPoseErrorMeters,
+              String.format("%s ended at %s, %.3f m from %s", kAutoName, autoEnd, poseError, kExpectedAutoEnd)),
+          () -> assertTrue(headingError <= kMaxAutoHeadingErrorDegrees,
+              String.format("%s ended %.1f deg off the expected heading", kAutoName, headingError)),
+          () -> assertTrue(loops.length > 0, "no loop times were published"),
+          () -> assertTrue(p99 <= kMaxLoopP99Ms, String.format("loop time p99 %.3f ms", p99)));
+    } finally {
+      robot.endCompetition();
+    }
+  }
+
+  /* Advances simulated time, collecting the loop times published meanwhile */
+  private void step(double seconds, DoubleSubscriber loopMsSub) {
+    for (double t = 0.0; t < seconds - 1e-9; t += kStepSeconds) {
+      SimHooks.stepTiming(kStepSeconds);
+    }
+    for (double loopMs : loopMsSub.readQueueValues()) {
+      if (m_loopCount == m_loopMs.length) {
+        m_loopMs = Arrays.copyOf(m_loopMs, m_loopCount * 2);
+      }
+      m_loopMs[m_loopCount++] = loopMs;
+    }
+  }
+
+  /* Driver inputs t seconds into teleop */
+  private static void applyTeleopScript(double t, XboxControllerSim pad) {
+    pad.setLeftY(t < 2.0 ? -0.6 : 0.0);                        // drive away from the wall
+    pad.setLeftX(t >= 2.0 && t < 5.0 ? -0.4 : 0.0);            // strafe while...
+    pad.setRightTriggerAxis(t >= 2.0 && t < 5.0 ? 1.0 : 0.0);  // ...shooting on the move
+    pad.setYButton(t >= 6.0 && t < 9.0);                       // shoot standing still
+    pad.setXButton(t >= 9.5 && t < 11.0);                      // intake
+    pad.notifyNewData();
+  }
+
+  private void commandEnded(String name) {
+    Double start = m_commandStarts.remove(name);
+    if (start == null) return;
+    double[] time = m_commandTimes.computeIfAbsent(name, key -> new double[2]);
+    time[0] += 1;
+    time[1] += Timer.getFPGATimestamp() - start;
+  }
+
+  private static double percentile(double[] sorted, double p) {
+    if (sorted.length == 0) return 0.0;
+    return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+  }
+}
@@ -0,0 +1,56 @@
+package frc.robot.subsystems.LEDS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/** The layer and command decision both command-driven LED devices send by. */
+class LedLayerTrackerTest {
+  private static final int kRed = 0xFF0000;
+  private static final int kBlue = 0x0000FF;
+
+  private static int bit(LedState state) {
+    return 1 << state.ordinal();
+  }
+
+  private final LedLayerTracker m_layers = new LedLayerTracker();
+
+  @Test
+  void highestPriorityActiveStateIsShown() {
+    final int active = bit(LedState.VISION_LOCK) | bit(LedState.SHOOTER_SPINUP) | bit(LedState.PIECE_HELD);
+    assertEquals(LedState.SHOOTER_SPINUP.ordinal(), m_layers.update(active, kRed, false));
+    assertEquals(LedState.SHOOTER_READY.ordinal(), m_layers.update(active | bit(LedState.SHOOTER_READY), kRed, false));
+  }
+
+  @Test
+  void baseIsIdlePatternOrColor() {
+    assertEquals(LedLayerTracker.kIdle, m_layers.update(0, kRed, true));
+    assertEquals(LedLayerTracker.kBase, m_layers.update(0, kRed, false));
+  }
+
+  @Test
+  void sendsOnlyWhatChanged() {
+    assertEquals(LedLayerTracker.kBase, m_layers.update(0, kRed, false));
+    assertEquals(LedLayerTracker.kUnchanged, m_layers.update(0, kRed, false));
+    /* the base color only matters while it shows */
+    assertEquals(LedLayerTracker.kBase, m_layers.update(0, kBlue, false));
+
+    final int lock = bit(LedState.VISION_LOCK);
+    assertEquals(LedState.VISION_LOCK.ordinal(), m_layers.update(lock, kBlue, false));
+    assertEquals(LedLayerTracker.kUnchanged, m_layers.update(lock, kRed, false));
+    assertEquals(LedLayerTracker.kUnchanged, m_layers.update(lock | bit(LedState.PIECE_HELD), kRed, false));
+    assertEquals(LedLayerTracker.kUnchanged, m_layers.update(lock, kRed, true));
+
+    /* back to the base, even in the color it had before */
+    assertEquals(LedLayerTracker.kBase, m_layers.update(0, kBlue, false));
+    assertEquals(LedLayerTracker.kIdle, m_layers.update(0, kBlue, true));
+    assertEquals(LedLayerTracker.kUnchanged, m_layers.update(0, kRed, true));
+  }
+
+  @Test
+  void resetSendsTheLayerAgain() {
+    assertEquals(LedLayerTracker.kIdle, m_layers.update(0, kRed, true));
+    m_layers.reset();
+    assertEquals(LedLayerTracker.kIdle, m_layers.update(0, kRed, true));
+  }
+}
@@ -0,0 +1,131 @@
+package frc.robot.subsystems.LEDS;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/** LumenLightsSubsystem's layer choice and command traffic, against a {@link FakeLedDevice}. */
+class LumenLightsSubsystemTest {
+  private FakeLedDevice m_device;
+  private LumenLightsSubsystem m_lights;
+
+  /* what the bound suppliers report */
+  private boolean m_ready;
+  private boolean m_spinUp;
+  private boolean m_visionLock;
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    setAlliance(AllianceStationID.Unknown);
+    m_device = new FakeLedDevice();
+    m_lights = new LumenLightsSubsystem(m_device);
+    m_lights.bind(LedState.SHOOTER_READY, () -> m_ready);
+    m_lights.bind(LedState.SHOOTER_SPINUP, () -> m_spinUp);
+    m_lights.bind(LedState.VISION_LOCK, () -> m_visionLock);
+  }
+
+  @AfterEach
+  void teardown() {
+    CommandScheduler.getInstance().unregisterAllSubsystems();
+  }
+
+  @Test
+  void highestPriorityActiveStateWins() {
+    m_visionLock = true;
+    m_spinUp = true;
+    m_lights.periodic();
+    assertEquals(LedState.SHOOTER_SPINUP, m_device.getTopState());
+
+    m_ready = true;
+    m_lights.periodic();
+    assertEquals(LedState.SHOOTER_READY, m_device.getTopState());
+
+    m_ready = false;
+    m_spinUp = false;
+    m_lights.periodic();
+    assertEquals(LedState.VISION_LOCK, m_device.getTopState());
+  }
+
+  @Test
+  void baseIsIdleWithoutAllianceAndAllianceColorWithOne() {
+    m_lights.periodic();
+    assertNull(m_device.getTopState());
+    assertTrue(m_device.isIdleBase());
+
+    setAlliance(AllianceStationID.Red1);
+    m_lights.periodic();
+    assertFalse(m_device.isIdleBase());
+    assertEquals(0xFF0000, m_device.getBaseColor());
+    assertNull(m_device.getShown());
+
+    setAlliance(AllianceStationID.Blue2);
+    m_lights.periodic();
+    assertEquals(0x0000FF, m_device.getBaseColor());
+
+    setAlliance(AllianceStationID.Unknown);
+    m_lights.periodic();
+    assertTrue(m_device.isIdleBase());
+  }
+
+  @Test
+  void commandsOnlyOnLayerChanges() {
+    for (int i = 0; i < 5; ++i) {
+      m_lights.periodic();
+    }
+    assertEquals(1, m_device.getCommandCount());
+
+    m_visionLock = true;
+    for (int i = 0; i < 5; ++i) {
+      m_lights.periodic();
+    }
+    assertEquals(2, m_device.getCommandCount());
+
+    m_ready = true;
+    m_lights.periodic();
+    assertEquals(3, m_device.getCommandCount());
+    /* a lower priority state changing under the top one sends nothing */
+    m_visionLock = false;
+    m_lights.periodic();
+    assertEquals(3, m_device.getCommandCount());
+
+    m_ready = false;
+    m_lights.periodic();
+    assertEquals(4, m_device.getCommandCount());
+
+    /* base color changes count too, but only once each */
+    setAlliance(AllianceStationID.Red1);
+    m_lights.periodic();
+    m_lights.periodic();
+    assertEquals(5, m_device.getCommandCount());
+  }
+
+  @Test
+  void stopIsForGood() {
+    m_lights.periodic();
+    m_lights.stop();
+    assertTrue(m_device.isStopped());
+
+    m_ready = true;
+    m_lights.periodic();
+    assertNull(m_device.getTopState());
+    assertEquals(1, m_device.getCommandCount());
+  }
+
+  private static void setAlliance(AllianceStationID station) {
+    DriverStationSim.setAllianceStationId(station);
+    DriverStationSim.notifyNewData();
+    DriverStation.refreshData();
+  }
+}
@@ -0,0 +1,101 @@
+package frc.robot.subsystems.Shooter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Util.InterpolatingTable;
+
+/** ShootOnTheMoveSolver against the deployed shot map's numbers. */
+class ShootOnTheMoveSolverTest {
+  private static final double kTargetX = 4.6;
+  private static final double kTargetY = 4.0;
+  private static final double kFieldLength = 16.54;
+  private static final double kFieldWidth = 8.07;
+  private static final double kMaxSpeed = 4.5;
+
+  private final ShootOnTheMoveSolver m_solver = new ShootOnTheMoveSolver(0.0);
+
+  /* src/main/deploy/shotmap.json */
+  private static InterpolatingTable shotMap() {
+    InterpolatingTable map = new InterpolatingTable(2);
+    map.put(1.25, 38.0, 0.62);
+    map.put(2.00, 43.0, 0.74);
+    map.put(2.75, 48.5, 0.85);
+    map.put(3.50, 54.0, 0.96);
+    map.put(4.25, 59.5, 1.06);
+    map.put(5.00, 65.0, 1.15);
+    map.put(5.75, 71.0, 1.24);
+    return map;
+  }
+
+  @Test
+  void stationaryRobotShootsStraightAtTheTarget() {
+    final InterpolatingTable map = shotMap();
+    assertTrue(m_solver.solve(1.0, 2.0, 0.0, 0.0, kTargetX, kTargetY, map));
+
+    final double distance = Math.hypot(kTargetX - 1.0, kTargetY - 2.0);
+    assertEquals(kTargetX, m_solver.getVirtualTargetX(), 1e-9);
+    assertEquals(kTargetY, m_solver.getVirtualTargetY(), 1e-9);
+    assertEquals(distance, m_solver.getDistance(), 1e-9);
+    assertEquals(map.get(distance, ShotMapSubsystem.kTofColumn), m_solver.getTimeOfFlight(), 1e-9);
+    assertEquals(map.get(distance, ShotMapSubsystem.kRpsColumn), m_solver.getRPS(), 1e-9);
+    assertEquals(Math.atan2(kTargetY - 2.0, kTargetX - 1.0), m_solver.getHeading(), 1e-9);
+  }
+
+  @Test
+  void convergesAcrossTheField() {
+    final InterpolatingTable map = shotMap();
+    final Random random = new Random(2026);
+    final int states = 20_000;
+    int missed = 0;
+    for (int n = 0; n < states; ++n) {
+      final double x = random.nextDouble() * kFieldLength;
+      final double y = random.nextDouble() * kFieldWidth;
+      final double speed = random.nextDouble() * kMaxSpeed;
+      final double direction = random.nextDouble() * 2.0 * Math.PI;
+      final double vx = speed * Math.cos(direction);
+      final double vy = speed * Math.sin(direction);
+
+      final boolean converged = m_solver.solve(x, y, vx, vy, kTargetX, kTargetY, map);
+      assertTrue(m_solver.getIterations() <= ShooterConstants.kSotmMaxIterations);
+      if (!converged) {
+        ++missed;
+        continue;
+      }
+      /* the ball leaves toward the virtual target and drifts with the robot for its flight */
+      final double missX = m_solver.getVirtualTargetX() + vx * m_solver.getTimeOfFlight() - kTargetX;
+      final double missY = m_solver.getVirtualTargetY() + vy * m_solver.getTimeOfFlight() - kTargetY;
+      assertTrue(Math.hypot(missX, missY) < ShooterConstants.kSotmToleranceMeters + 1e-9,
+          String.format("misses by %.3f m from (%.2f, %.2f) at (%.2f, %.2f) m/s", Math.hypot(missX, missY), x, y, vx, vy));
+    }
+    assertTrue(missed <= states / 1000, missed + " of " + states + " states didn't converge");
+  }
+
+  @Test
+  void emptyMapAimsAtTheTargetWithNoSpeed() {
+    assertTrue(m_solver.solve(1.0, 2.0, 2.0, -1.0, kTargetX, kTargetY, new InterpolatingTable(2)));
+
+    final double px = 1.0 + 2.0 * ShooterConstants.kSotmLatencySeconds;
+    final double py = 2.0 - 1.0 * ShooterConstants.kSotmLatencySeconds;
+    assertEquals(0.0, m_solver.getRPS());
+    assertEquals(0.0, m_solver.getTimeOfFlight());
+    assertEquals(Math.atan2(kTargetY - py, kTargetX - px), m_solver.getHeading(), 1e-9);
+  }
+
+  @Test
+  void headingOffsetTurnsTheShooterOntoTheTarget() {
+    /* shooter out the left side: facing -pi/2 points it along +x, at the target */
+    final ShootOnTheMoveSolver leftShooter = new ShootOnTheMoveSolver(Math.PI / 2.0);
+    leftShooter.solve(1.0, kTargetY, 0.0, 0.0, kTargetX, kTargetY, shotMap());
+    assertEquals(-Math.PI / 2.0, leftShooter.getHeading(), 1e-9);
+
+    final ShootOnTheMoveSolver rightShooter = new ShootOnTheMoveSolver(-Math.PI / 2.0);
+    rightShooter.solve(1.0, kTargetY, 0.0, 0.0, kTargetX, kTargetY, shotMap());
+    assertEquals(Math.PI / 2.0, rightShooter.getHeading(), 1e-9);
+  }
+}